@@ -0,0 +1,82 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.initialdata.CsvLineParser;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Rows per second of the byte scanner versus the split and regex parser it replaced. Run with
+// -prof gc, gc.alloc.rate.norm is then the number of bytes allocated per row.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CsvParserBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class CsvParserBenchmark {
+
+  static final int ROWS = 10_000;
+
+  private String[] lines;
+  private byte[][] bytes;
+
+  @Setup
+  public void setUp() {
+    lines = new String[ROWS];
+    bytes = new byte[ROWS][];
+    for (int i = 0; i < ROWS; i++) {
+      lines[i] =
+          "Müller" + i + ", Hans, " + (10000 + i) + " Lauterecken am Glan, " + (1 + i % 7);
+      bytes[i] = lines[i].getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  // the lines are already decoded, which favors the old parser
+  @Benchmark
+  public void splitAndRegex(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(legacyParse(line));
+    }
+  }
+
+  @Benchmark
+  public void byteScanner(Blackhole blackhole) {
+    CsvLineParser parser = new CsvLineParser();
+    for (byte[] line : bytes) {
+      if (parser.parse(line, 0, line.length) == CsvLineParser.OK) {
+        blackhole.consume(parser.person());
+      }
+    }
+  }
+
+  private static PersonDto legacyParse(String line) {
+    if (line == null || line.trim().isEmpty()) {
+      return null;
+    }
+    String[] parts = line.split(",");
+    if (parts.length < 4) {
+      return null;
+    }
+    String[] zipCityParts = parts[2].trim().split("\\s+", 2);
+    if (zipCityParts.length < 2) {
+      return null;
+    }
+    String zipCode = zipCityParts[0].trim();
+    if (!zipCode.matches(PersonDto.ZIP_CODE_REGEX)) {
+      return null;
+    }
+    int colorId;
+    try {
+      colorId = Integer.parseInt(parts[3].trim());
+      Color.fromId(colorId);
+    } catch (RuntimeException e) {
+      return null;
+    }
+    return new PersonDto(
+        0, parts[1].trim(), parts[0].trim(), zipCode, zipCityParts[1].trim(), colorId);
+  }
+}
@@ -0,0 +1,80 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.controller.NdjsonPersonParser;
+import de.assecor.persons.model.dto.ImportResultDto;
+import de.assecor.persons.service.PersonImportService;
+import de.assecor.persons.service.impl.InMemoryDataServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+// Rows per second through POST /persons/import into the in-memory profile, parsing included.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ImportBenchmark.ROWS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+  static final int ROWS = 1_000_000;
+
+  @Param({"100", "1000", "10000"})
+  private int batchSize;
+
+  private byte[] csv;
+  private byte[] ndjson;
+  private ValidatorFactory validatorFactory;
+  private NdjsonPersonParser ndjsonParser;
+  private PersonImportService importService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringBuilder csvLines = new StringBuilder();
+    StringBuilder jsonLines = new StringBuilder();
+    for (int i = 1; i <= ROWS; i++) {
+      csvLines.append("Müller").append(i).append(", Hans, 67742 Lauterecken, ");
+      csvLines.append(1 + i % 7).append('\n');
+      jsonLines.append("{\"name\":\"Hans\",\"lastname\":\"Müller").append(i);
+      jsonLines.append("\",\"zipcode\":\"67742\",\"city\":\"Lauterecken\",\"color\":");
+      jsonLines.append(1 + i % 7).append("}\n");
+    }
+    csv = csvLines.toString().getBytes(StandardCharsets.UTF_8);
+    ndjson = jsonLines.toString().getBytes(StandardCharsets.UTF_8);
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    ndjsonParser =
+        new NdjsonPersonParser(JsonMapper.builder().build(), validatorFactory.getValidator());
+  }
+
+  // every invocation imports into an empty store
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    importService =
+        new PersonImportService(new InMemoryDataServiceImpl(null), batchSize, 4, 100, 1);
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownInvocation() {
+    importService.shutdown();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public ImportResultDto importCsv() {
+    return importService.importCsv(new ByteArrayInputStream(csv));
+  }
+
+  @Benchmark
+  public ImportResultDto importNdjson() {
+    return importService.importLines(new ByteArrayInputStream(ndjson), ndjsonParser);
+  }
+}
@@ -0,0 +1,179 @@
+package de.assecor.persons.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against a running instance, to compare the servlet ({@code mongo}) and the
+ * WebFlux ({@code reactive}) stack. For each concurrency level that many virtual threads send
+ * {@code GET /persons/{id}} with random ids back to back. Reports throughput, latency percentiles
+ * and, from the Actuator metrics of the server, its peak live threads, the heap in use above idle
+ * per in-flight request and the bytes allocated per request.
+ *
+ * <p>Not a JMH benchmark, it is started through the benchmark profile with {@code
+ * -Dbenchmark.main=de.assecor.persons.benchmark.LoadTest -Djmh.args="<url> <max id> <levels>"}.
+ */
+public final class LoadTest {
+
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+  private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+  private final HttpClient client;
+  private final String baseUrl;
+  private final int maxId;
+
+  private LoadTest(String baseUrl, int maxId) {
+    this.client =
+        HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    this.baseUrl = baseUrl;
+    this.maxId = maxId;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 3) {
+      System.err.println("Usage: LoadTest <base url> <max person id> <concurrency>...");
+      System.exit(2);
+    }
+    LoadTest test = new LoadTest(args[0], Integer.parseInt(args[1]));
+    System.out.printf(
+        "%11s %10s %8s %8s %7s %8s %14s %14s%n",
+        "concurrency",
+        "req/s",
+        "p50 ms",
+        "p99 ms",
+        "errors",
+        "threads",
+        "heap/in-flight",
+        "alloc/request");
+    for (int i = 2; i < args.length; i++) {
+      test.run(Integer.parseInt(args[i]));
+    }
+  }
+
+  private void run(int concurrency) throws Exception {
+    phase(concurrency, WARMUP, null);
+    double idleHeap = metric("jvm.memory.used?tag=area:heap");
+    double allocatedBefore = metric("jvm.gc.memory.allocated");
+
+    Stats stats = new Stats();
+    phase(concurrency, MEASUREMENT, stats);
+
+    double allocated = metric("jvm.gc.memory.allocated") - allocatedBefore;
+    long[] latencies = stats.latencies();
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%11d %10.0f %8.2f %8.2f %7d %8.0f %13.0fB %13.0fB%n",
+        concurrency,
+        latencies.length / (double) MEASUREMENT.toSeconds(),
+        percentile(latencies, 0.50) / 1e6,
+        percentile(latencies, 0.99) / 1e6,
+        stats.errors.get(),
+        stats.peakThreads,
+        Math.max(0, stats.averageHeap() - idleHeap) / concurrency,
+        allocated / Math.max(1, latencies.length));
+  }
+
+  // with stats the server metrics are sampled twice a second while the load runs
+  private void phase(int concurrency, Duration duration, Stats stats) throws Exception {
+    long end = System.nanoTime() + duration.toNanos();
+    List<List<Long>> latencies = new ArrayList<>();
+    try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < concurrency; i++) {
+        List<Long> own = new ArrayList<>();
+        latencies.add(own);
+        workers.execute(() -> loop(end, own, stats));
+      }
+      while (stats != null && System.nanoTime() < end) {
+        stats.sample(metric("jvm.memory.used?tag=area:heap"), metric("jvm.threads.live"));
+        TimeUnit.MILLISECONDS.sleep(500);
+      }
+    }
+    if (stats != null) {
+      latencies.forEach(stats.latencies::addAll);
+    }
+  }
+
+  private void loop(long end, List<Long> latencies, Stats stats) {
+    while (System.nanoTime() < end) {
+      HttpRequest request =
+          HttpRequest.newBuilder(
+                  URI.create(
+                      baseUrl + "/persons/" + ThreadLocalRandom.current().nextInt(1, maxId + 1)))
+              .timeout(Duration.ofSeconds(30))
+              .build();
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200 && stats != null) {
+          stats.errors.incrementAndGet();
+        }
+      } catch (IOException e) {
+        if (stats != null) {
+          stats.errors.incrementAndGet();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      latencies.add(System.nanoTime() - start);
+    }
+  }
+
+  private double metric(String name) throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    Matcher value = VALUE.matcher(response.body());
+    if (response.statusCode() != 200 || !value.find()) {
+      throw new IOException("Metric " + name + " is not available: " + response.statusCode());
+    }
+    return Double.parseDouble(value.group(1));
+  }
+
+  private static long percentile(long[] sorted, double quantile) {
+    return sorted.length == 0
+        ? 0
+        : sorted[(int) Math.min(sorted.length - 1, sorted.length * quantile)];
+  }
+
+  private static final class Stats {
+    private final List<Long> latencies = new ArrayList<>();
+    private final AtomicLong errors = new AtomicLong();
+    private double heapSum;
+    private int samples;
+    private double peakThreads;
+
+    void sample(double heap, double threads) {
+      heapSum += heap;
+      samples++;
+      peakThreads = Math.max(peakThreads, threads);
+    }
+
+    double averageHeap() {
+      return samples == 0 ? 0 : heapSum / samples;
+    }
+
+    long[] latencies() {
+      return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+  }
+}
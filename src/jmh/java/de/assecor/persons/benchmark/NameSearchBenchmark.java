@@ -0,0 +1,80 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Name search through the trigram index versus scanning every person.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+  private static final String[] FIRST_NAMES = {
+    "Hans", "Peter", "Jonas", "Gerda", "Jürgen", "Anna", "Lena", "Max", "Sophie", "Lukas"
+  };
+  private static final String[] SYLLABLES = {
+    "mül", "ler", "schm", "idt", "wei", "ß", "bau", "er", "hof", "mann", "berg", "stein", "kra",
+    "use", "fisch", "wag", "ner", "beck", "ers", "son"
+  };
+  private static final int LIMIT = 100;
+
+  @Param({"1000000"})
+  private int size;
+
+  // "mueller" is common, "krausestein" only matches a handful of persons
+  @Param({"Müller", "krausestein"})
+  private String query;
+
+  private PersistentPersonStore store;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    store = new PersistentPersonStore();
+    for (int id = 1; id <= size; id++) {
+      store.insert(person(id));
+    }
+  }
+
+  @Benchmark
+  public List<PersonDto> trigramIndex() {
+    return store.findByName(query, LIMIT);
+  }
+
+  @Benchmark
+  public List<PersonDto> fullScan() {
+    String folded = NameFolding.fold(query);
+    List<PersonDto> result = new ArrayList<>();
+    for (PersonDto person : store.view()) {
+      if (NameFolding.matches(person.firstName(), person.lastName(), folded)) {
+        result.add(person);
+        if (result.size() == LIMIT) {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static PersonDto person(int id) {
+    int n = id * 0x9E3779B1;
+    String lastName =
+        SYLLABLES[Math.floorMod(n, SYLLABLES.length)]
+            + SYLLABLES[Math.floorMod(n >>> 8, SYLLABLES.length)]
+            + SYLLABLES[Math.floorMod(n >>> 16, SYLLABLES.length)];
+    return new PersonDto(
+        id,
+        FIRST_NAMES[id % FIRST_NAMES.length],
+        Character.toUpperCase(lastName.charAt(0)) + lastName.substring(1),
+        "67742",
+        "Lauterecken",
+        1 + id % 7);
+  }
+}
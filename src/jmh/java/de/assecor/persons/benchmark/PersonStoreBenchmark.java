@@ -0,0 +1,87 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Compares the persistent store against the copy-on-write list it replaced.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class PersonStoreBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int size;
+
+  private List<PersonDto> cowList;
+  private PersistentPersonStore persistentStore;
+  private int nextId;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    PersonDto[] seed = new PersonDto[size];
+    persistentStore = new PersistentPersonStore();
+    for (int i = 0; i < size; i++) {
+      seed[i] = person(i + 1);
+      persistentStore.insert(seed[i]);
+    }
+    cowList = new CopyOnWriteArrayList<>(seed);
+    nextId = size + 1;
+  }
+
+  @Benchmark
+  public PersonDto cowListUpdate() {
+    int id = randomId();
+    PersonDto updated = person(id);
+    cowList.set(id - 1, updated);
+    return updated;
+  }
+
+  @Benchmark
+  public PersonDto persistentStoreUpdate() {
+    return persistentStore.replace(person(randomId()));
+  }
+
+  // create followed by delete keeps the dataset size stable across invocations
+  @Benchmark
+  public boolean cowListCreateAndDelete() {
+    PersonDto created = person(nextId++);
+    cowList.add(created);
+    return cowList.remove(cowList.size() - 1) == created;
+  }
+
+  @Benchmark
+  public boolean persistentStoreCreateAndDelete() {
+    PersonDto created = person(nextId++);
+    persistentStore.insert(created);
+    return persistentStore.remove(created.id()) == created;
+  }
+
+  @Benchmark
+  public List<PersonDto> cowListSnapshot() {
+    return Collections.unmodifiableList(cowList);
+  }
+
+  // a write before each read forces the snapshot list to be materialized again
+  @Benchmark
+  public List<PersonDto> persistentStoreSnapshotAfterWrite() {
+    persistentStore.replace(person(randomId()));
+    return persistentStore.getAll();
+  }
+
+  private int randomId() {
+    return ThreadLocalRandom.current().nextInt(1, size + 1);
+  }
+
+  private static PersonDto person(int id) {
+    return new PersonDto(id, "Hans", "Müller", "67742", "Lauterecken", 1 + id % 7);
+  }
+}
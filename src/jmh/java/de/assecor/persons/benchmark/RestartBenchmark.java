@@ -0,0 +1,97 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.impl.durability.FsyncPolicy;
+import de.assecor.persons.service.impl.durability.SnapshotStore;
+import de.assecor.persons.service.impl.durability.WriteAheadLog;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
+import de.assecor.persons.service.impl.store.PersonStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+// Time to rebuild the store on startup from a snapshot versus replaying the same data from the log.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class RestartBenchmark {
+
+  @Param({"1000000", "10000000"})
+  private int size;
+
+  private Path directory;
+  private SnapshotStore snapshotStore;
+  private WriteAheadLog writeAheadLog;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("restart-benchmark");
+    List<PersonDto> persons =
+        new AbstractList<>() {
+          @Override
+          public PersonDto get(int index) {
+            return person(index + 1);
+          }
+
+          @Override
+          public int size() {
+            return size;
+          }
+        };
+
+    snapshotStore = new SnapshotStore(directory.resolve("persons.snapshot"), Duration.ZERO);
+    snapshotStore.write(size + 1, 0, persons);
+
+    writeAheadLog =
+        WriteAheadLog.open(
+            directory.resolve("persons.wal"),
+            FsyncPolicy.INTERVAL,
+            1,
+            Duration.ofHours(1),
+            64 * 1024 * 1024);
+    for (PersonDto person : persons) {
+      writeAheadLog.append(WriteAheadLog.Operation.CREATE, person);
+    }
+    writeAheadLog.flush();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    writeAheadLog.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public PersonStore loadSnapshot() throws IOException {
+    PersonStore store = new PersistentPersonStore();
+    PersonStore.BulkLoader loader = store.bulkLoader();
+    snapshotStore.load(loader::add);
+    loader.publish();
+    return store;
+  }
+
+  @Benchmark
+  public PersonStore replayWriteAheadLog() {
+    PersonStore store = new PersistentPersonStore();
+    writeAheadLog.replay(entry -> store.insert(entry.person()));
+    return store;
+  }
+
+  private static PersonDto person(int id) {
+    return new PersonDto(id, "Hans" + id, "Müller", "67742", "Lauterecken", 1 + id % 7);
+  }
+}
@@ -0,0 +1,87 @@
+package de.assecor.persons.benchmark;
+
+import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.service.initialdata.CsvInitialDataProvider;
+import de.assecor.persons.service.initialdata.InitialDataProvider;
+import de.assecor.persons.service.initialdata.SeedConverter;
+import de.assecor.persons.service.initialdata.SeedFileInitialDataProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.FileSystemResource;
+
+// Time to stream the initial data out of a CSV file versus the binary seed file converted from it.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class SeedFileBenchmark {
+
+  private static final String[] CITIES = {"Lauterecken", "Köln", "Berlin", "Schweden - Örebro"};
+
+  @Param({"1000000"})
+  private int size;
+
+  private Path directory;
+  private InitialDataProvider csv;
+  private InitialDataProvider parallelCsv;
+  private InitialDataProvider seed;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, DataLoadException {
+    directory = Files.createTempDirectory("seed-benchmark");
+    Path csvFile = directory.resolve("persons.csv");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      content
+          .append("Müller")
+          .append(i % 5_000)
+          .append(", Hans")
+          .append(i % 100)
+          .append(", ")
+          .append(10_000 + i % 90_000)
+          .append(' ')
+          .append(CITIES[i % CITIES.length])
+          .append(", ")
+          .append(1 + i % 7)
+          .append('\n');
+    }
+    Files.writeString(csvFile, content);
+    Path seedFile = directory.resolve("persons.seed");
+    SeedConverter.convert(csvFile, seedFile);
+
+    csv = new CsvInitialDataProvider(new FileSystemResource(csvFile));
+    parallelCsv = new CsvInitialDataProvider(new FileSystemResource(csvFile), true);
+    seed = new SeedFileInitialDataProvider(new FileSystemResource(seedFile));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (var files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Benchmark
+  public void csv(Blackhole blackhole) throws DataLoadException {
+    csv.forEachBatch(InitialDataProvider.DEFAULT_BATCH_SIZE, blackhole::consume);
+  }
+
+  @Benchmark
+  public void parallelCsv(Blackhole blackhole) throws DataLoadException {
+    parallelCsv.forEachBatch(InitialDataProvider.DEFAULT_BATCH_SIZE, blackhole::consume);
+  }
+
+  @Benchmark
+  public void seedFile(Blackhole blackhole) throws DataLoadException {
+    seed.forEachBatch(InitialDataProvider.DEFAULT_BATCH_SIZE, blackhole::consume);
+  }
+}
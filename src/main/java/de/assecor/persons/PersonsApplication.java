@@ -3,10 +3,18 @@ package de.assecor.persons;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.data.mongodb.autoconfigure.DataMongoAutoConfiguration;
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoReactiveAutoConfiguration;
 import org.springframework.boot.mongodb.autoconfigure.MongoAutoConfiguration;
+import org.springframework.boot.mongodb.autoconfigure.MongoReactiveAutoConfiguration;
 
-// will be included only if 'mongo' profile is active
-@SpringBootApplication(exclude = {MongoAutoConfiguration.class, DataMongoAutoConfiguration.class})
+// will be included only if 'mongo' profile is active, the reactive ones with the 'reactive' profile
+@SpringBootApplication(
+    exclude = {
+      MongoAutoConfiguration.class,
+      DataMongoAutoConfiguration.class,
+      MongoReactiveAutoConfiguration.class,
+      DataMongoReactiveAutoConfiguration.class
+    })
 public class PersonsApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,39 @@
+package de.assecor.persons.config;
+
+import de.assecor.persons.service.impl.store.OffHeapPersonStore;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
+import de.assecor.persons.service.impl.store.PersonStore;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!mongo")
+public class InMemoryStoreConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(InMemoryStoreConfig.class);
+
+  @Value("${persons.memory.storage:heap}")
+  private String storage;
+
+  @Bean
+  public PersonStore personStore() {
+    switch (storage.trim().toLowerCase(Locale.ROOT)) {
+      case "heap" -> {
+        logger.info("Using persistent on-heap person store");
+        return new PersistentPersonStore();
+      }
+      case "offheap" -> {
+        logger.info("Using columnar off-heap person store");
+        return new OffHeapPersonStore();
+      }
+      default ->
+          throw new IllegalStateException(
+              "Unknown in-memory storage '" + storage + "', expected 'heap' or 'offheap'");
+    }
+  }
+}
@@ -3,6 +3,7 @@ package de.assecor.persons.config;
 import de.assecor.persons.service.initialdata.CsvInitialDataProvider;
 import de.assecor.persons.service.initialdata.InitialDataProvider;
 import de.assecor.persons.service.initialdata.ListInitialDataProvider;
+import de.assecor.persons.service.initialdata.SeedFileInitialDataProvider;
 import java.util.Collections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,11 +20,20 @@ public class InitialDataConfig {
   @Value("${initial.data.csv.path:#{null}}")
   private Resource csvResource;
 
+  @Value("${initial.data.csv.parallel:false}")
+  private boolean parallel;
+
   @Bean
   public InitialDataProvider initialDataProvider() {
-    if (csvResource != null && csvResource.exists()) {
+    if (csvResource != null
+        && csvResource.exists()
+        && csvResource.getFilename() != null
+        && csvResource.getFilename().endsWith(SeedFileInitialDataProvider.FILE_EXTENSION)) {
+      logger.info("Configuring seed file initial data provider with file: {}", csvResource);
+      return new SeedFileInitialDataProvider(csvResource);
+    } else if (csvResource != null && csvResource.exists()) {
       logger.info("Configuring CSV initial data provider with file: {}", csvResource);
-      return new CsvInitialDataProvider(csvResource);
+      return new CsvInitialDataProvider(csvResource, parallel);
     } else {
       logger.info("No CSV data configured, using empty initial data provider");
       return new ListInitialDataProvider(Collections.emptyList());
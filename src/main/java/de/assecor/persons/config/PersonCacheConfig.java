@@ -0,0 +1,41 @@
+package de.assecor.persons.config;
+
+import de.assecor.persons.service.impl.CachingDataService;
+import de.assecor.persons.service.impl.MongoDataServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("mongo")
+@ConditionalOnProperty(name = "persons.mongo.cache.enabled", havingValue = "true")
+public class PersonCacheConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersonCacheConfig.class);
+
+  @Value("${persons.mongo.cache.maximum-size:10000}")
+  private long maximumSize;
+
+  @Value("${persons.mongo.cache.ttl-seconds:60}")
+  private long ttlSeconds;
+
+  // primary so the controller and the import go through the cache
+  @Bean
+  @Primary
+  public CachingDataService cachingDataService(
+      MongoDataServiceImpl mongoDataService, MeterRegistry meterRegistry) {
+    logger.info(
+        "Caching up to {} persons by id for {} seconds in front of MongoDB",
+        maximumSize,
+        ttlSeconds);
+    return new CachingDataService(
+        mongoDataService, maximumSize, Duration.ofSeconds(ttlSeconds), meterRegistry);
+  }
+}
@@ -0,0 +1,16 @@
+package de.assecor.persons.config;
+
+import org.springframework.boot.data.mongodb.autoconfigure.DataMongoReactiveAutoConfiguration;
+import org.springframework.boot.mongodb.autoconfigure.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+// the reactive profile runs on top of the mongo profile, which still imports the initial data and
+// creates the indexes at startup
+@Configuration
+@Profile("reactive")
+@Import({MongoReactiveAutoConfiguration.class, DataMongoReactiveAutoConfiguration.class})
+@EnableReactiveMongoRepositories(basePackages = "de.assecor.persons.repository.reactive")
+public class ReactiveMongoProfileConfig {}
@@ -0,0 +1,32 @@
+package de.assecor.persons.config;
+
+import de.assecor.persons.service.impl.durability.SnapshotStore;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!mongo")
+@ConditionalOnProperty(name = "persons.memory.snapshot.enabled", havingValue = "true")
+public class SnapshotConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(SnapshotConfig.class);
+
+  @Value("${persons.memory.snapshot.path:data/persons.snapshot}")
+  private String path;
+
+  @Value("${persons.memory.snapshot.interval-seconds:300}")
+  private long intervalSeconds;
+
+  @Bean
+  public SnapshotStore snapshotStore() {
+    logger.info("Writing snapshots to {} every {} seconds", path, intervalSeconds);
+    return new SnapshotStore(Path.of(path), Duration.ofSeconds(intervalSeconds));
+  }
+}
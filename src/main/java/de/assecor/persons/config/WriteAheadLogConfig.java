@@ -0,0 +1,49 @@
+package de.assecor.persons.config;
+
+import de.assecor.persons.service.impl.durability.FsyncPolicy;
+import de.assecor.persons.service.impl.durability.WriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!mongo")
+@ConditionalOnProperty(name = "persons.memory.wal.enabled", havingValue = "true")
+public class WriteAheadLogConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(WriteAheadLogConfig.class);
+
+  @Value("${persons.memory.wal.path:data/persons.wal}")
+  private String path;
+
+  @Value("${persons.memory.wal.fsync:batched}")
+  private String fsync;
+
+  @Value("${persons.memory.wal.batch-size:64}")
+  private int batchSize;
+
+  @Value("${persons.memory.wal.flush-interval-ms:200}")
+  private long flushIntervalMs;
+
+  @Value("${persons.memory.wal.initial-size-mb:16}")
+  private int initialSizeMb;
+
+  @Bean(destroyMethod = "close")
+  public WriteAheadLog writeAheadLog() throws IOException {
+    FsyncPolicy policy = FsyncPolicy.fromValue(fsync);
+    logger.info("Using write-ahead log at {} with fsync policy {}", path, policy);
+    return WriteAheadLog.open(
+        Path.of(path),
+        policy,
+        batchSize,
+        Duration.ofMillis(flushIntervalMs),
+        initialSizeMb * 1024 * 1024);
+  }
+}
@@ -0,0 +1,51 @@
+package de.assecor.persons.controller;
+
+import de.assecor.persons.controller.request.CreatePersonRequest;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.mapper.PersonApiMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Maps one NDJSON line, a {@link CreatePersonRequest} object as accepted by {@code POST /persons},
+ * to a person for the import. Blank lines map to null, malformed or invalid objects are rejected
+ * with an {@link IllegalArgumentException} naming the reason.
+ */
+public final class NdjsonPersonParser implements Function<String, PersonDto> {
+
+  private final ObjectReader requestReader;
+  private final Validator validator;
+
+  public NdjsonPersonParser(JsonMapper mapper, Validator validator) {
+    this.requestReader = mapper.readerFor(CreatePersonRequest.class);
+    this.validator = validator;
+  }
+
+  @Override
+  public PersonDto apply(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    CreatePersonRequest request;
+    try {
+      request = requestReader.readValue(line);
+    } catch (JacksonException e) {
+      throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+    }
+    Set<ConstraintViolation<CreatePersonRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+              .sorted()
+              .collect(Collectors.joining(", ")));
+    }
+    return PersonApiMapper.toDto(request);
+  }
+}
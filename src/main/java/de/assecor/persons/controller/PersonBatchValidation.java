@@ -0,0 +1,60 @@
+package de.assecor.persons.controller;
+
+import de.assecor.persons.controller.request.CreatePersonRequest;
+import de.assecor.persons.exception.InvalidBatchException;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.mapper.PersonApiMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// shared by the servlet and the reactive controller, so both report invalid batches alike
+final class PersonBatchValidation {
+
+  static final int MAX_BATCH_SIZE = 10_000;
+
+  private PersonBatchValidation() {
+    // Utility class
+  }
+
+  /**
+   * Validates every item up front and maps them, throws an {@link InvalidBatchException} with the
+   * errors by index unless all items are valid.
+   */
+  static List<PersonDto> validate(List<CreatePersonRequest> personRequests, Validator validator) {
+    if (personRequests.isEmpty() || personRequests.size() > MAX_BATCH_SIZE) {
+      throw new InvalidBatchException(
+          "A batch must contain between 1 and " + MAX_BATCH_SIZE + " persons");
+    }
+
+    Map<Integer, Map<String, String>> errors = new TreeMap<>();
+    List<PersonDto> inputs = new ArrayList<>(personRequests.size());
+    for (int i = 0; i < personRequests.size(); i++) {
+      CreatePersonRequest request = personRequests.get(i);
+      if (request == null) {
+        errors.put(i, Map.of("person", "must not be null"));
+        continue;
+      }
+      Set<ConstraintViolation<CreatePersonRequest>> violations = validator.validate(request);
+      if (!violations.isEmpty()) {
+        Map<String, String> fieldErrors = new LinkedHashMap<>();
+        violations.forEach(
+            violation ->
+                fieldErrors.putIfAbsent(
+                    violation.getPropertyPath().toString(), violation.getMessage()));
+        errors.put(i, fieldErrors);
+        continue;
+      }
+      inputs.add(PersonApiMapper.toDto(request));
+    }
+    if (!errors.isEmpty()) {
+      throw new InvalidBatchException(errors.size() + " persons are invalid", errors);
+    }
+    return inputs;
+  }
+}
@@ -2,40 +2,105 @@ package de.assecor.persons.controller;
 
 import de.assecor.persons.controller.request.CreatePersonRequest;
 import de.assecor.persons.controller.request.UpdatePersonRequest;
+import de.assecor.persons.controller.response.ImportResponse;
+import de.assecor.persons.controller.response.PersonPageResponse;
 import de.assecor.persons.controller.response.PersonResponse;
 import de.assecor.persons.model.Color;
 import de.assecor.persons.model.dto.PersonDto;
 import de.assecor.persons.model.mapper.PersonApiMapper;
 import de.assecor.persons.service.DataService;
+import de.assecor.persons.service.PersonImportService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping(value = "/persons")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PersonsController {
 
   private static final Logger logger = LoggerFactory.getLogger(PersonsController.class);
 
+  static final int DEFAULT_PAGE_SIZE = 100;
+  static final int MAX_PAGE_SIZE = 1000;
+
   private final DataService service;
 
+  private final ObjectWriter personWriter;
+  private final Validator validator;
+  private final PersonImportService importService;
+  private final NdjsonPersonParser ndjsonParser;
+
   @Autowired
-  public PersonsController(DataService service) {
+  public PersonsController(
+      DataService service,
+      JsonMapper mapper,
+      Validator validator,
+      PersonImportService importService) {
     this.service = service;
+    this.personWriter = mapper.writerFor(PersonResponse.class);
+    this.validator = validator;
+    this.importService = importService;
+    this.ndjsonParser = new NdjsonPersonParser(mapper, validator);
   }
 
+  // Without limit and after all persons are returned as before, serialized while streaming them off
+  // the store or cursor, otherwise a single page
   @GetMapping
-  public ResponseEntity<List<PersonResponse>> getAll() {
-    logger.info("GET /persons called");
-    List<PersonDto> result = service.getAllPersons();
-    return ResponseEntity.ok(PersonApiMapper.toResponseList(result));
+  public ResponseEntity<?> getAll(
+      @RequestParam(name = "limit", required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+      @RequestParam(name = "after", required = false) Integer after) {
+    if (limit == null && after == null) {
+      logger.info("GET /persons called");
+      // Jackson writes the stream as a JSON array and closes it afterwards
+      return ResponseEntity.ok(service.streamAllPersons().map(PersonApiMapper::toResponse));
+    }
+
+    logger.info("GET /persons called with limit: {}, after: {}", limit, after);
+    PersonPageResponse page =
+        PersonApiMapper.toPageResponse(
+            service.getPersonsPage(
+                after == null ? 0 : after, limit == null ? DEFAULT_PAGE_SIZE : limit));
+    return ResponseEntity.ok(page);
+  }
+
+  // One JSON object per line, written while the persons come off the store or cursor
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAll() {
+    logger.info("GET /persons called for NDJSON stream");
+    StreamingResponseBody body =
+        out -> {
+          try (Stream<PersonDto> persons = service.streamAllPersons()) {
+            boolean first = true;
+            for (PersonDto person : (Iterable<PersonDto>) persons::iterator) {
+              out.write(personWriter.writeValueAsBytes(PersonApiMapper.toResponse(person)));
+              out.write('\n');
+              if (first) {
+                // get the first row to the client right away instead of waiting for a full buffer
+                out.flush();
+                first = false;
+              }
+            }
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
   }
 
   @GetMapping("/{id}")
@@ -46,9 +111,28 @@ public class PersonsController {
   }
 
   @GetMapping("/color/{color}")
-  public ResponseEntity<List<PersonResponse>> getByColor(@PathVariable("color") String color) {
+  public ResponseEntity<Stream<PersonResponse>> getByColor(@PathVariable("color") String color) {
     logger.info("GET /persons/color/{} called", color);
-    List<PersonDto> persons = service.getPersonsByColor(Color.fromName(color));
+    Stream<PersonDto> persons = service.streamPersonsByColor(Color.fromName(color));
+    return ResponseEntity.ok(persons.map(PersonApiMapper::toResponse));
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<List<PersonResponse>> search(
+      @RequestParam(name = "zip", required = false) @Pattern(regexp = "\\d{1,5}") String zip,
+      @RequestParam(name = "city", required = false) String city) {
+    logger.info("GET /persons/search called with zip: {}, city: {}", zip, city);
+    List<PersonDto> persons = service.searchPersons(zip, city);
+    return ResponseEntity.ok(PersonApiMapper.toResponseList(persons));
+  }
+
+  @GetMapping("/search/name")
+  public ResponseEntity<List<PersonResponse>> searchByName(
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "limit", required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit) {
+    logger.info("GET /persons/search/name called with q: {}, limit: {}", query, limit);
+    List<PersonDto> persons =
+        service.searchPersonsByName(query, limit == null ? DEFAULT_PAGE_SIZE : limit);
     return ResponseEntity.ok(PersonApiMapper.toResponseList(persons));
   }
 
@@ -64,6 +148,33 @@ public class PersonsController {
     return ResponseEntity.status(HttpStatus.CREATED).body(PersonApiMapper.toResponse(savedPerson));
   }
 
+  // All items are validated up front, nothing is created unless every item is valid
+  @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<PersonResponse>> addPersons(
+      @RequestBody List<CreatePersonRequest> personRequests) {
+    logger.info("POST /persons/batch called with {} persons", personRequests.size());
+    List<PersonDto> inputs = PersonBatchValidation.validate(personRequests, validator);
+
+    List<PersonDto> savedPersons = service.createPersons(inputs);
+
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(PersonApiMapper.toResponseList(savedPersons));
+  }
+
+  // The upload is parsed while it arrives, it is never held in memory as a whole
+  @PostMapping(value = "/import", consumes = "text/csv")
+  public ResponseEntity<ImportResponse> importCsv(InputStream body) {
+    logger.info("POST /persons/import called with CSV");
+    return ResponseEntity.ok(PersonApiMapper.toImportResponse(importService.importCsv(body)));
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<ImportResponse> importNdjson(InputStream body) {
+    logger.info("POST /persons/import called with NDJSON");
+    return ResponseEntity.ok(
+        PersonApiMapper.toImportResponse(importService.importLines(body, ndjsonParser)));
+  }
+
   @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<PersonResponse> updatePerson(
       @PathVariable("id") int id, @RequestBody @Valid UpdatePersonRequest request) {
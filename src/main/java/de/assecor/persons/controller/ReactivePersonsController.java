@@ -0,0 +1,136 @@
+package de.assecor.persons.controller;
+
+import de.assecor.persons.controller.request.CreatePersonRequest;
+import de.assecor.persons.controller.request.UpdatePersonRequest;
+import de.assecor.persons.controller.response.PersonResponse;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.mapper.PersonApiMapper;
+import de.assecor.persons.service.ReactiveDataService;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux version of {@link PersonsController} for the {@code reactive} profile, with the same
+ * paths, JSON and error responses. Lists are written as JSON arrays element by element while they
+ * come off the cursor. The CSV and NDJSON import is only available on the servlet stack.
+ */
+@RestController
+@RequestMapping(value = "/persons")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePersonsController {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactivePersonsController.class);
+
+  private final ReactiveDataService service;
+  private final Validator validator;
+
+  public ReactivePersonsController(ReactiveDataService service, Validator validator) {
+    this.service = service;
+    this.validator = validator;
+  }
+
+  @GetMapping
+  public ResponseEntity<?> getAll(
+      @RequestParam(name = "limit", required = false) @Min(1) @Max(PersonsController.MAX_PAGE_SIZE)
+          Integer limit,
+      @RequestParam(name = "after", required = false) Integer after) {
+    if (limit == null && after == null) {
+      logger.info("GET /persons called");
+      return ResponseEntity.ok(service.getAllPersons().map(PersonApiMapper::toResponse));
+    }
+
+    logger.info("GET /persons called with limit: {}, after: {}", limit, after);
+    return ResponseEntity.ok(
+        service
+            .getPersonsPage(
+                after == null ? 0 : after,
+                limit == null ? PersonsController.DEFAULT_PAGE_SIZE : limit)
+            .map(PersonApiMapper::toPageResponse));
+  }
+
+  // each person is flushed as one line as soon as it is encoded
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<PersonResponse> streamAll() {
+    logger.info("GET /persons called for NDJSON stream");
+    return service.getAllPersons().map(PersonApiMapper::toResponse);
+  }
+
+  @GetMapping("/{id}")
+  public Mono<PersonResponse> getById(@PathVariable("id") int id) {
+    logger.info("GET /persons/{} called", id);
+    return service.getPersonById(id).map(PersonApiMapper::toResponse);
+  }
+
+  @GetMapping("/color/{color}")
+  public Flux<PersonResponse> getByColor(@PathVariable("color") String color) {
+    logger.info("GET /persons/color/{} called", color);
+    return service.getPersonsByColor(Color.fromName(color)).map(PersonApiMapper::toResponse);
+  }
+
+  @GetMapping("/search")
+  public Flux<PersonResponse> search(
+      @RequestParam(name = "zip", required = false) @Pattern(regexp = "\\d{1,5}") String zip,
+      @RequestParam(name = "city", required = false) String city) {
+    logger.info("GET /persons/search called with zip: {}, city: {}", zip, city);
+    return service.searchPersons(zip, city).map(PersonApiMapper::toResponse);
+  }
+
+  @GetMapping("/search/name")
+  public Flux<PersonResponse> searchByName(
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "limit", required = false) @Min(1) @Max(PersonsController.MAX_PAGE_SIZE)
+          Integer limit) {
+    logger.info("GET /persons/search/name called with q: {}, limit: {}", query, limit);
+    return service
+        .searchPersonsByName(query, limit == null ? PersonsController.DEFAULT_PAGE_SIZE : limit)
+        .map(PersonApiMapper::toResponse);
+  }
+
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public Mono<PersonResponse> addPerson(@RequestBody @Valid CreatePersonRequest personRequest) {
+    logger.info("POST /persons/ called with personRequest: {}", personRequest);
+    return service
+        .createPerson(PersonApiMapper.toDto(personRequest))
+        .map(PersonApiMapper::toResponse);
+  }
+
+  @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public Mono<List<PersonResponse>> addPersons(
+      @RequestBody List<CreatePersonRequest> personRequests) {
+    logger.info("POST /persons/batch called with {} persons", personRequests.size());
+    return service
+        .createPersons(PersonBatchValidation.validate(personRequests, validator))
+        .map(PersonApiMapper::toResponseList);
+  }
+
+  @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<PersonResponse> updatePerson(
+      @PathVariable("id") int id, @RequestBody @Valid UpdatePersonRequest request) {
+    logger.info("PUT /persons/{} called with person: {}", id, request);
+    return service
+        .updatePerson(id, PersonApiMapper.toDto(id, request))
+        .map(PersonApiMapper::toResponse);
+  }
+
+  @DeleteMapping("/{id}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public Mono<Void> deletePerson(@PathVariable("id") int id) {
+    logger.info("DELETE /persons/{} called", id);
+    return service.deletePerson(id);
+  }
+}
@@ -1,8 +1,13 @@
 package de.assecor.persons.controller.advice;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.validation.FieldError;
 
 public class ControllerAdviceUtils {
 
@@ -20,4 +25,19 @@ public class ControllerAdviceUtils {
         pd.setProperty("timestamp", LocalDateTime.now());
         return pd;
     }
+
+    public static ProblemDetail validationProblem(List<FieldError> fieldErrors) {
+        Map<String, String> errors =
+                fieldErrors.stream()
+                        .collect(
+                                Collectors.toMap(
+                                        FieldError::getField,
+                                        DefaultMessageSourceResolvable::getDefaultMessage,
+                                        (a, b) -> a));
+
+        ProblemDetail pd =
+                problem(HttpStatus.BAD_REQUEST, "Validation Failed", "One or more fields are invalid");
+        pd.setProperty("errors", errors);
+        return pd;
+    }
 }
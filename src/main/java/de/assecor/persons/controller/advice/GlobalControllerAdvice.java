@@ -1,13 +1,11 @@
 package de.assecor.persons.controller.advice;
 
 import static de.assecor.persons.controller.advice.ControllerAdviceUtils.problem;
+import static de.assecor.persons.controller.advice.ControllerAdviceUtils.validationProblem;
 
-import java.util.Map;
-import java.util.stream.Collectors;
-import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.*;
-import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,6 +14,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 @RestControllerAdvice
 @Order
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalControllerAdvice extends ResponseEntityExceptionHandler {
 
   @Override
@@ -26,18 +25,7 @@ public class GlobalControllerAdvice extends ResponseEntityExceptionHandler {
       WebRequest request) {
     logger.warn("Validation failed");
 
-    Map<String, String> errors =
-        ex.getBindingResult().getFieldErrors().stream()
-            .collect(
-                Collectors.toMap(
-                    FieldError::getField,
-                    DefaultMessageSourceResolvable::getDefaultMessage,
-                    (a, b) -> a));
-
-    ProblemDetail problemDetail =
-        problem(HttpStatus.BAD_REQUEST, "Validation Failed", "One or more fields are invalid");
-
-    problemDetail.setProperty("errors", errors);
+    ProblemDetail problemDetail = validationProblem(ex.getBindingResult().getFieldErrors());
 
     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
         .contentType(MediaType.APPLICATION_PROBLEM_JSON)
@@ -3,7 +3,10 @@ package de.assecor.persons.controller.advice;
 import static de.assecor.persons.controller.advice.ControllerAdviceUtils.problem;
 
 import de.assecor.persons.controller.PersonsController;
+import de.assecor.persons.controller.ReactivePersonsController;
+import de.assecor.persons.exception.InvalidBatchException;
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +16,8 @@ import org.springframework.http.*;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-@RestControllerAdvice(assignableTypes = PersonsController.class)
+// handles the exceptions of both stacks, errors signalled by a Mono or Flux included
+@RestControllerAdvice(assignableTypes = {PersonsController.class, ReactivePersonsController.class})
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class PersonControllerAdvice {
 
@@ -36,4 +40,25 @@ public class PersonControllerAdvice {
         .contentType(MediaType.APPLICATION_PROBLEM_JSON)
         .body(problem(HttpStatus.BAD_REQUEST, "Invalid Color", ex.getMessage()));
   }
+
+  @ExceptionHandler(InvalidSearchException.class)
+  public ResponseEntity<ProblemDetail> handleInvalidSearch(InvalidSearchException ex) {
+    logger.warn("Invalid search: {}", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(problem(HttpStatus.BAD_REQUEST, "Invalid Search", ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidBatchException.class)
+  public ResponseEntity<ProblemDetail> handleInvalidBatch(InvalidBatchException ex) {
+    logger.warn("Invalid batch: {}", ex.getMessage());
+
+    ProblemDetail problemDetail = problem(HttpStatus.BAD_REQUEST, "Invalid Batch", ex.getMessage());
+    problemDetail.setProperty("errors", ex.getErrors());
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(problemDetail);
+  }
 }
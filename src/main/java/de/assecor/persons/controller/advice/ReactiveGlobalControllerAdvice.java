@@ -0,0 +1,50 @@
+package de.assecor.persons.controller.advice;
+
+import static de.assecor.persons.controller.advice.ControllerAdviceUtils.problem;
+import static de.assecor.persons.controller.advice.ControllerAdviceUtils.validationProblem;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/** {@link GlobalControllerAdvice} for the WebFlux stack, with the same problem responses. */
+@RestControllerAdvice
+@Order
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalControllerAdvice extends ResponseEntityExceptionHandler {
+
+  @Override
+  protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(
+      WebExchangeBindException ex,
+      HttpHeaders headers,
+      HttpStatusCode status,
+      ServerWebExchange exchange) {
+    logger.warn("Validation failed");
+
+    ProblemDetail problemDetail = validationProblem(ex.getFieldErrors());
+
+    return Mono.just(
+        ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .body(problemDetail));
+  }
+
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<ProblemDetail> handleUnexpected(Exception ex) {
+    logger.error("Unexpected error occurred", ex);
+
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(
+            problem(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                "Internal Server Error",
+                "An unexpected error occurred"));
+  }
+}
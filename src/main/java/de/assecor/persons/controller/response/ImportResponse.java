@@ -0,0 +1,13 @@
+package de.assecor.persons.controller.response;
+
+import java.util.List;
+
+public record ImportResponse(
+    long imported,
+    long rejected,
+    List<RejectedLine> rejectedLines,
+    long durationMillis,
+    long rowsPerSecond) {
+
+  public record RejectedLine(long line, String reason) {}
+}
@@ -0,0 +1,7 @@
+package de.assecor.persons.controller.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record PersonPageResponse(
+    @JsonProperty("items") List<PersonResponse> items, @JsonProperty("next") Integer next) {}
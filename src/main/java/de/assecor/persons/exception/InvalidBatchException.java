@@ -0,0 +1,22 @@
+package de.assecor.persons.exception;
+
+import java.util.Map;
+
+/** A batch was rejected as a whole, {@code errors} maps item indexes to their invalid fields. */
+public class InvalidBatchException extends RuntimeException {
+
+  private final Map<Integer, Map<String, String>> errors;
+
+  public InvalidBatchException(String message) {
+    this(message, Map.of());
+  }
+
+  public InvalidBatchException(String message, Map<Integer, Map<String, String>> errors) {
+    super(message);
+    this.errors = errors;
+  }
+
+  public Map<Integer, Map<String, String>> getErrors() {
+    return errors;
+  }
+}
@@ -0,0 +1,8 @@
+package de.assecor.persons.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+  public InvalidSearchException(String message) {
+    super(message);
+  }
+}
@@ -43,6 +43,10 @@ public enum Color {
     return color;
   }
 
+  public static boolean isValidId(int id) {
+    return BY_ID.containsKey(id);
+  }
+
   public static Color fromName(String name) {
     Color color = BY_NAME.get(name.toLowerCase());
     if (color == null) throw new InvalidColorException("Invalid Color name: " + name);
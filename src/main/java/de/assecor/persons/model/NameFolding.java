@@ -0,0 +1,67 @@
+package de.assecor.persons.model;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalization for name search shared by all backends. Names are lower-cased, German umlauts and ß
+ * are transliterated ("Müller" and "Mueller" both become "mueller") and remaining diacritics are
+ * stripped. Searching works on trigrams of the folded names.
+ */
+public final class NameFolding {
+
+  public static final int MIN_QUERY_LENGTH = 3;
+
+  private NameFolding() {
+    // Utility class
+  }
+
+  public static String fold(String name) {
+    if (name == null) {
+      return "";
+    }
+    StringBuilder folded = new StringBuilder(name.length() + 4);
+    String lower = name.strip().toLowerCase(Locale.GERMAN);
+    for (int i = 0; i < lower.length(); i++) {
+      char c = lower.charAt(i);
+      switch (c) {
+        case 'ä' -> folded.append("ae");
+        case 'ö' -> folded.append("oe");
+        case 'ü' -> folded.append("ue");
+        case 'ß' -> folded.append("ss");
+        default -> folded.append(c);
+      }
+    }
+    for (int i = 0; i < folded.length(); i++) {
+      if (folded.charAt(i) > 0x7F) {
+        String decomposed = Normalizer.normalize(folded, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "");
+      }
+    }
+    return folded.toString();
+  }
+
+  /** Returns the distinct trigrams of an already folded name in order of first occurrence. */
+  public static List<String> trigrams(String folded) {
+    Set<String> trigrams = new LinkedHashSet<>();
+    for (int i = 0; i + MIN_QUERY_LENGTH <= folded.length(); i++) {
+      trigrams.add(folded.substring(i, i + MIN_QUERY_LENGTH));
+    }
+    return List.copyOf(trigrams);
+  }
+
+  /** Checks whether the folded first or last name contains an already folded query. */
+  public static boolean matches(String firstName, String lastName, String foldedQuery) {
+    return fold(firstName).contains(foldedQuery) || fold(lastName).contains(foldedQuery);
+  }
+
+  /** Returns the distinct trigrams of both names, a trigram never spans first and last name. */
+  public static List<String> nameTrigrams(String firstName, String lastName) {
+    Set<String> trigrams = new LinkedHashSet<>(trigrams(fold(firstName)));
+    trigrams.addAll(trigrams(fold(lastName)));
+    return List.copyOf(trigrams);
+  }
+}
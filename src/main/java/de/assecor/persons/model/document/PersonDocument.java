@@ -1,15 +1,43 @@
 package de.assecor.persons.model.document;
 
 import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
+import java.util.List;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+/**
+ * Stored person. {@code searchNames} and {@code nameTrigrams} are derived from the names on every
+ * write and back the name search, the trigram index narrows candidates and a regex on the folded
+ * names confirms them. Documents stored before these fields existed are backfilled on startup.
+ */
 @Document(collection = "persons")
+@CompoundIndex(name = "favoriteColor_id", def = "{ 'favoriteColor': 1, '_id': 1 }")
+@CompoundIndex(name = "zipCode_id", def = "{ 'zipCode': 1, '_id': 1 }")
+@CompoundIndex(name = "city_id", def = "{ 'city': 1, '_id': 1 }")
+@CompoundIndex(name = "nameTrigrams_id", def = "{ 'nameTrigrams': 1, '_id': 1 }")
 public record PersonDocument(
     @Id int id,
     @Field(name = "firstName") String firstName,
     @Field(name = "lastName") String lastName,
     @Field(name = "zipCode") String zipCode,
     @Field(name = "city") String city,
-    @Field(name = "favoriteColor") Color favoriteColor) {}
+    @Field(name = "favoriteColor") Color favoriteColor,
+    @Field(name = "searchNames") List<String> searchNames,
+    @Field(name = "nameTrigrams") List<String> nameTrigrams) {
+
+  public PersonDocument(
+      int id, String firstName, String lastName, String zipCode, String city, Color favoriteColor) {
+    this(
+        id,
+        firstName,
+        lastName,
+        zipCode,
+        city,
+        favoriteColor,
+        List.of(NameFolding.fold(firstName), NameFolding.fold(lastName)),
+        NameFolding.nameTrigrams(firstName, lastName));
+  }
+}
@@ -0,0 +1,17 @@
+package de.assecor.persons.model.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code rejectedLines} holds the first rejections only, {@code rejected}
+ * counts all of them.
+ */
+public record ImportResultDto(
+    long imported, long rejected, List<RejectedLine> rejectedLines, long durationMillis) {
+
+  public record RejectedLine(long line, String reason) {}
+
+  public double rowsPerSecond() {
+    return durationMillis == 0 ? imported * 1000.0 : imported * 1000.0 / durationMillis;
+  }
+}
@@ -0,0 +1,19 @@
+package de.assecor.persons.model.dto;
+
+import java.util.List;
+
+/** One page of persons in ascending id order, {@code next} is the cursor of the following page. */
+public record PersonPageDto(List<PersonDto> persons, Integer next) {
+
+  /**
+   * Builds a page from up to {@code limit + 1} persons, the extra one only tells whether another
+   * page follows.
+   */
+  public static PersonPageDto of(List<PersonDto> fetched, int limit) {
+    if (fetched.size() <= limit) {
+      return new PersonPageDto(fetched, null);
+    }
+    List<PersonDto> persons = fetched.subList(0, limit);
+    return new PersonPageDto(persons, persons.getLast().id());
+  }
+}
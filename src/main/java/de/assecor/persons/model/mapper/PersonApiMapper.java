@@ -2,9 +2,13 @@ package de.assecor.persons.model.mapper;
 
 import de.assecor.persons.controller.request.CreatePersonRequest;
 import de.assecor.persons.controller.request.UpdatePersonRequest;
+import de.assecor.persons.controller.response.ImportResponse;
+import de.assecor.persons.controller.response.PersonPageResponse;
 import de.assecor.persons.controller.response.PersonResponse;
 import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.ImportResultDto;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 
 import java.util.List;
 
@@ -37,4 +41,19 @@ public class PersonApiMapper {
   public static List<PersonResponse> toResponseList(List<PersonDto> dtos) {
     return dtos.stream().map(PersonApiMapper::toResponse).toList();
   }
+
+  public static PersonPageResponse toPageResponse(PersonPageDto page) {
+    return new PersonPageResponse(toResponseList(page.persons()), page.next());
+  }
+
+  public static ImportResponse toImportResponse(ImportResultDto result) {
+    return new ImportResponse(
+        result.imported(),
+        result.rejected(),
+        result.rejectedLines().stream()
+            .map(rejected -> new ImportResponse.RejectedLine(rejected.line(), rejected.reason()))
+            .toList(),
+        result.durationMillis(),
+        Math.round(result.rowsPerSecond()));
+  }
 }
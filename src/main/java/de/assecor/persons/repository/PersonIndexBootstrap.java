@@ -0,0 +1,149 @@
+package de.assecor.persons.repository;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on {@link PersonDocument} and checks with {@code explain} that every
+ * query shape of {@link PersonMongoRepository} is answered from an index.
+ *
+ * <p>Runs once all singletons are initialized, after the initial data import and before the web
+ * server accepts requests, so a bulk import builds each index once instead of maintaining it per
+ * insert. Creating an existing index is a no-op. Depending on {@code persons.mongo.indexes.verify}
+ * a collection scan is logged ({@code warn}), aborts the startup ({@code fail}) or is not checked
+ * ({@code off}).
+ */
+@Component
+@Profile("mongo")
+public class PersonIndexBootstrap implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersonIndexBootstrap.class);
+
+  /** A filter and sort as the repository sends them, with placeholder values. */
+  record QueryShape(String name, Document filter, Document sort) {}
+
+  // one per query method of PersonMongoRepository and ReactivePersonMongoRepository, named after
+  // it. PersonIndexBootstrapTest fails for a method without a shape or with a differing one.
+  static final List<QueryShape> QUERY_SHAPES =
+      List.of(
+          new QueryShape(
+              "findByFavoriteColor",
+              new Document("favoriteColor", Color.BLUE.name()),
+              new Document()),
+          new QueryShape(
+              "findByCityOrderByIdAsc", new Document("city", "Berlin"), new Document("_id", 1)),
+          new QueryShape(
+              "findByZipCodeRange",
+              new Document("zipCode", new Document("$gte", "1").append("$lt", "2")),
+              new Document("zipCode", 1).append("_id", 1)),
+          new QueryShape(
+              "findByZipCodeRangeAndCity",
+              new Document("zipCode", new Document("$gte", "1").append("$lt", "2"))
+                  .append("city", "Berlin"),
+              new Document("zipCode", 1).append("_id", 1)),
+          new QueryShape(
+              "findByNameTrigrams",
+              new Document("nameTrigrams", new Document("$all", List.of("mue", "uel")))
+                  .append("searchNames", new Document("$regex", "muel")),
+              new Document("_id", 1)),
+          new QueryShape("findTopByOrderByIdDesc", new Document(), new Document("_id", -1)),
+          new QueryShape(
+              "findByIdGreaterThanOrderByIdAsc",
+              new Document("_id", new Document("$gt", 0)),
+              new Document("_id", 1)));
+
+  private final MongoOperations mongoOperations;
+  private final MongoMappingContext mappingContext;
+  private final String verifyMode;
+
+  public PersonIndexBootstrap(
+      MongoOperations mongoOperations,
+      MongoMappingContext mappingContext,
+      @Value("${persons.mongo.indexes.verify:warn}") String verifyMode) {
+    this.verifyMode = verifyMode.trim().toLowerCase(Locale.ROOT);
+    if (!List.of("off", "warn", "fail").contains(this.verifyMode)) {
+      throw new IllegalStateException(
+          "Unknown index verification '" + verifyMode + "', expected 'off', 'warn' or 'fail'");
+    }
+    this.mongoOperations = mongoOperations;
+    this.mappingContext = mappingContext;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    ensureIndexes();
+    if (!verifyMode.equals("off")) {
+      verifyQueryPlans();
+    }
+  }
+
+  void ensureIndexes() {
+    IndexOperations indexOps = mongoOperations.indexOps(PersonDocument.class);
+    new MongoPersistentEntityIndexResolver(mappingContext)
+        .resolveIndexFor(PersonDocument.class)
+        .forEach(
+            index -> {
+              String name = indexOps.createIndex(index);
+              logger.debug("Ensured index {} on persons", name);
+            });
+  }
+
+  void verifyQueryPlans() {
+    List<String> scans = new ArrayList<>();
+    for (QueryShape shape : QUERY_SHAPES) {
+      Document plan = explain(shape);
+      if (hasCollectionScan(plan.get("queryPlanner"))) {
+        scans.add(shape.name());
+      }
+    }
+    if (scans.isEmpty()) {
+      logger.info("All {} person query shapes use an index", QUERY_SHAPES.size());
+      return;
+    }
+    String message = "Person queries would scan the whole collection: " + String.join(", ", scans);
+    if (verifyMode.equals("fail")) {
+      throw new IllegalStateException(message);
+    }
+    logger.warn(message);
+  }
+
+  Document explain(QueryShape shape) {
+    return mongoOperations
+        .getCollection(mongoOperations.getCollectionName(PersonDocument.class))
+        .find(shape.filter())
+        .sort(shape.sort())
+        .explain();
+  }
+
+  // the plan is a tree of stages, older servers nest it as inputStage(s), newer ones as queryPlan
+  static boolean hasCollectionScan(Object plan) {
+    if (plan instanceof Map<?, ?> stage) {
+      if ("COLLSCAN".equals(stage.get("stage"))) {
+        return true;
+      }
+      // rejected plans do not run
+      return stage.entrySet().stream()
+          .filter(entry -> !"rejectedPlans".equals(entry.getKey()))
+          .anyMatch(entry -> hasCollectionScan(entry.getValue()));
+    }
+    if (plan instanceof List<?> stages) {
+      return stages.stream().anyMatch(PersonIndexBootstrap::hasCollectionScan);
+    }
+    return false;
+  }
+}
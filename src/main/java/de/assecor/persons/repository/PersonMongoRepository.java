@@ -6,14 +6,37 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 @Profile("mongo")
-public interface PersonMongoRepository extends MongoRepository<PersonDocument, Integer> {
+public interface PersonMongoRepository
+    extends MongoRepository<PersonDocument, Integer>, PersonMongoRepositoryCustom {
 
   Optional<PersonDocument> findTopByOrderByIdDesc();
 
   List<PersonDocument> findByFavoriteColor(Color color);
+
+  List<PersonDocument> findByCityOrderByIdAsc(String city);
+
+  // prefix as a half-open string range, answered from the zipCode index without a regex
+  @Query(value = "{ 'zipCode': { $gte: ?0, $lt: ?1 } }", sort = "{ 'zipCode': 1, '_id': 1 }")
+  List<PersonDocument> findByZipCodeRange(String from, String to);
+
+  @Query(
+      value = "{ 'zipCode': { $gte: ?0, $lt: ?1 }, 'city': ?2 }",
+      sort = "{ 'zipCode': 1, '_id': 1 }")
+  List<PersonDocument> findByZipCodeRangeAndCity(String from, String to, String city);
+
+  // the multikey trigram index narrows the candidates, the regex on the folded names confirms them
+  @Query(
+      value = "{ 'nameTrigrams': { $all: ?0 }, 'searchNames': { $regex: ?1 } }",
+      sort = "{ '_id': 1 }")
+  List<PersonDocument> findByNameTrigrams(List<String> trigrams, String regex, Limit limit);
+
+  // range scan on the _id index, the limit keeps Mongo from reading past the page
+  List<PersonDocument> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
 }
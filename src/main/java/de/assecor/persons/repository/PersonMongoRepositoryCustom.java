@@ -0,0 +1,42 @@
+package de.assecor.persons.repository;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Bulk operations and cursors {@link PersonMongoRepository} cannot derive from method names. */
+public interface PersonMongoRepositoryCustom {
+
+  /**
+   * Inserts all documents with one unordered {@code insertMany}. The server may apply them in any
+   * order and keeps going past failing documents, failures are reported once the batch is done.
+   * Returns the number of inserted documents.
+   */
+  int insertUnordered(List<PersonDocument> documents);
+
+  /**
+   * Streams all documents by ascending id from a server-side cursor that fetches {@code batchSize}
+   * documents per round trip. The stream holds the cursor and has to be closed.
+   */
+  Stream<PersonDocument> streamAll(int batchSize);
+
+  /** Like {@link #streamAll(int)}, restricted to persons with the given favorite color. */
+  Stream<PersonDocument> streamByFavoriteColor(Color color, int batchSize);
+
+  /**
+   * Replaces the stored document with the same id in one round trip, without the existence check
+   * of {@code existsById} followed by {@code save}. Returns false if there is no such document.
+   */
+  boolean replaceExisting(PersonDocument document);
+
+  /** Deletes the document with the given id in one round trip, returns false if there was none. */
+  boolean removeById(int id);
+
+  /**
+   * Derives {@code searchNames} and {@code nameTrigrams} for documents stored before the name
+   * search existed, with one unordered bulk write per {@code batchSize} documents. Returns the
+   * number of updated documents.
+   */
+  int backfillSearchFields(int batchSize);
+}
@@ -0,0 +1,93 @@
+package de.assecor.persons.repository;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+class PersonMongoRepositoryCustomImpl implements PersonMongoRepositoryCustom {
+
+  private final MongoOperations mongoOperations;
+
+  PersonMongoRepositoryCustomImpl(MongoOperations mongoOperations) {
+    this.mongoOperations = mongoOperations;
+  }
+
+  @Override
+  public int insertUnordered(List<PersonDocument> documents) {
+    if (documents.isEmpty()) {
+      return 0;
+    }
+    return mongoOperations
+        .bulkOps(BulkOperations.BulkMode.UNORDERED, PersonDocument.class)
+        .insert(documents)
+        .execute()
+        .getInsertedCount();
+  }
+
+  @Override
+  public Stream<PersonDocument> streamAll(int batchSize) {
+    return stream(new Query(), batchSize);
+  }
+
+  @Override
+  public Stream<PersonDocument> streamByFavoriteColor(Color color, int batchSize) {
+    return stream(Query.query(Criteria.where("favoriteColor").is(color)), batchSize);
+  }
+
+  @Override
+  public boolean replaceExisting(PersonDocument document) {
+    return mongoOperations.replace(byId(document.id()), document).getMatchedCount() > 0;
+  }
+
+  @Override
+  public boolean removeById(int id) {
+    return mongoOperations.remove(byId(id), PersonDocument.class).getDeletedCount() > 0;
+  }
+
+  @Override
+  public int backfillSearchFields(int batchSize) {
+    Query missing = Query.query(Criteria.where("nameTrigrams").exists(false));
+    missing.fields().include("firstName", "lastName");
+    int updated = 0;
+    int pending = 0;
+    BulkOperations bulk = null;
+    try (Stream<PersonDocument> documents =
+        mongoOperations.stream(missing.cursorBatchSize(batchSize), PersonDocument.class)) {
+      for (PersonDocument stored : (Iterable<PersonDocument>) documents::iterator) {
+        if (bulk == null) {
+          bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, PersonDocument.class);
+        }
+        // the convenience constructor derives the search fields exactly as on every write
+        PersonDocument derived =
+            new PersonDocument(stored.id(), stored.firstName(), stored.lastName(), null, null, null);
+        bulk.updateOne(
+            byId(stored.id()),
+            new Update()
+                .set("searchNames", derived.searchNames())
+                .set("nameTrigrams", derived.nameTrigrams()));
+        if (++pending == batchSize) {
+          updated += bulk.execute().getModifiedCount();
+          bulk = null;
+          pending = 0;
+        }
+      }
+    }
+    return bulk == null ? updated : updated + bulk.execute().getModifiedCount();
+  }
+
+  private static Query byId(int id) {
+    return Query.query(Criteria.where("_id").is(id));
+  }
+
+  private Stream<PersonDocument> stream(Query query, int batchSize) {
+    return mongoOperations.stream(
+        query.with(Sort.by("_id")).cursorBatchSize(batchSize), PersonDocument.class);
+  }
+}
@@ -0,0 +1,37 @@
+package de.assecor.persons.repository.reactive;
+
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.List;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link de.assecor.persons.repository.PersonMongoRepository}, the
+ * queries and their index use are the same.
+ */
+@Repository
+@Profile("reactive")
+public interface ReactivePersonMongoRepository
+    extends ReactiveMongoRepository<PersonDocument, Integer>, ReactivePersonMongoRepositoryCustom {
+
+  Flux<PersonDocument> findByCityOrderByIdAsc(String city);
+
+  @Query(value = "{ 'zipCode': { $gte: ?0, $lt: ?1 } }", sort = "{ 'zipCode': 1, '_id': 1 }")
+  Flux<PersonDocument> findByZipCodeRange(String from, String to);
+
+  @Query(
+      value = "{ 'zipCode': { $gte: ?0, $lt: ?1 }, 'city': ?2 }",
+      sort = "{ 'zipCode': 1, '_id': 1 }")
+  Flux<PersonDocument> findByZipCodeRangeAndCity(String from, String to, String city);
+
+  @Query(
+      value = "{ 'nameTrigrams': { $all: ?0 }, 'searchNames': { $regex: ?1 } }",
+      sort = "{ '_id': 1 }")
+  Flux<PersonDocument> findByNameTrigrams(List<String> trigrams, String regex, Limit limit);
+
+  Flux<PersonDocument> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+}
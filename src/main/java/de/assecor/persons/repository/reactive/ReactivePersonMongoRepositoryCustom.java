@@ -0,0 +1,25 @@
+package de.assecor.persons.repository.reactive;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Cursors and single round trip writes {@link ReactivePersonMongoRepository} cannot derive. */
+public interface ReactivePersonMongoRepositoryCustom {
+
+  /**
+   * Emits all documents by ascending id. The cursor fetches {@code batchSize} documents per round
+   * trip and only as far as the subscriber requests them.
+   */
+  Flux<PersonDocument> streamAll(int batchSize);
+
+  /** Like {@link #streamAll(int)}, restricted to persons with the given favorite color. */
+  Flux<PersonDocument> streamByFavoriteColor(Color color, int batchSize);
+
+  /** Replaces the stored document with the same id, emits false if there is no such document. */
+  Mono<Boolean> replaceExisting(PersonDocument document);
+
+  /** Deletes the document with the given id, emits false if there was none. */
+  Mono<Boolean> removeById(int id);
+}
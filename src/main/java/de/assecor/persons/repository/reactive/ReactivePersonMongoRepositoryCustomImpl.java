@@ -0,0 +1,52 @@
+package de.assecor.persons.repository.reactive;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactivePersonMongoRepositoryCustomImpl implements ReactivePersonMongoRepositoryCustom {
+
+  private final ReactiveMongoOperations mongoOperations;
+
+  ReactivePersonMongoRepositoryCustomImpl(ReactiveMongoOperations mongoOperations) {
+    this.mongoOperations = mongoOperations;
+  }
+
+  @Override
+  public Flux<PersonDocument> streamAll(int batchSize) {
+    return find(new Query(), batchSize);
+  }
+
+  @Override
+  public Flux<PersonDocument> streamByFavoriteColor(Color color, int batchSize) {
+    return find(Query.query(Criteria.where("favoriteColor").is(color)), batchSize);
+  }
+
+  @Override
+  public Mono<Boolean> replaceExisting(PersonDocument document) {
+    return mongoOperations
+        .replace(byId(document.id()), document)
+        .map(result -> result.getMatchedCount() > 0);
+  }
+
+  @Override
+  public Mono<Boolean> removeById(int id) {
+    return mongoOperations
+        .remove(byId(id), PersonDocument.class)
+        .map(result -> result.getDeletedCount() > 0);
+  }
+
+  private static Query byId(int id) {
+    return Query.query(Criteria.where("_id").is(id));
+  }
+
+  private Flux<PersonDocument> find(Query query, int batchSize) {
+    return mongoOperations.find(
+        query.with(Sort.by("_id")).cursorBatchSize(batchSize), PersonDocument.class);
+  }
+}
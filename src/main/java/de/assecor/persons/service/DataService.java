@@ -2,18 +2,54 @@ package de.assecor.persons.service;
 
 import de.assecor.persons.model.Color;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface DataService {
   List<PersonDto> getAllPersons();
 
+  /** Returns up to {@code limit} persons with an id greater than {@code afterId}, by ascending id. */
+  PersonPageDto getPersonsPage(int afterId, int limit);
+
+  /**
+   * Streams all persons in ascending id order without loading them all into memory. The stream
+   * may hold resources such as a database cursor and has to be closed.
+   */
+  Stream<PersonDto> streamAllPersons();
+
   PersonDto getPersonById(int id);
 
   PersonDto createPerson(PersonDto person);
 
+  /**
+   * Creates all persons with consecutive ids in one write and returns them in input order. The
+   * persons are expected to be validated already.
+   */
+  List<PersonDto> createPersons(List<PersonDto> persons);
+
   PersonDto updatePerson(int id, PersonDto person);
 
   void deletePerson(int id);
 
   List<PersonDto> getPersonsByColor(Color color);
+
+  /**
+   * Streams the persons with the given color in ascending id order, see {@link
+   * #streamAllPersons()}.
+   */
+  Stream<PersonDto> streamPersonsByColor(Color color);
+
+  /**
+   * Returns all persons whose zip code starts with {@code zipPrefix} and who live in exactly {@code
+   * city}, ordered by zip code and id. Either criterion may be null, but not both.
+   */
+  List<PersonDto> searchPersons(String zipPrefix, String city);
+
+  /**
+   * Returns up to {@code limit} persons whose first or last name contains {@code query}, ignoring
+   * case, umlaut spelling and diacritics, in ascending id order. The query needs at least three
+   * characters.
+   */
+  List<PersonDto> searchPersonsByName(String query, int limit);
 }
@@ -0,0 +1,12 @@
+package de.assecor.persons.service;
+
+/**
+ * Persons held by this node that have to be dropped when another node changes them, see {@link
+ * PersonChangeStreamWatcher}.
+ */
+public interface LocalPersonCache {
+
+  void invalidate(int id);
+
+  void invalidateAll();
+}
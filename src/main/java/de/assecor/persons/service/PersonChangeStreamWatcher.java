@@ -0,0 +1,285 @@
+package de.assecor.persons.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops persons from the {@link LocalPersonCache}s of this node when any node writes them. Watches
+ * the persons collection through a change stream and invalidates the id of every inserted, updated,
+ * replaced or deleted document, and all persons when the collection is dropped or renamed.
+ *
+ * <p>The resume token is stored per node in {@value #TOKEN_COLLECTION}, at most once per second
+ * and on shutdown, so a restarted watcher continues after the last event it has seen. Replayed
+ * events only invalidate again. When the stream fails or its history is lost the caches are
+ * cleared, as events may have been missed. Change streams need a replica set, against a standalone
+ * server the watcher logs a warning and the caches rely on their TTL.
+ */
+@Service
+@Profile("mongo")
+@ConditionalOnProperty(name = "persons.mongo.change-stream.enabled", havingValue = "true")
+public class PersonChangeStreamWatcher implements SmartLifecycle {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersonChangeStreamWatcher.class);
+
+  static final String TOKEN_COLLECTION = "changeStreamTokens";
+
+  private static final long TOKEN_SAVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_AWAIT_MILLIS = 1_000;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+  // the server is not part of a replica set
+  private static final int CHANGE_STREAMS_NOT_SUPPORTED = 40573;
+  // ChangeStreamFatalError and ChangeStreamHistoryLost, the token cannot be resumed from
+  private static final Set<Integer> HISTORY_LOST = Set.of(280, 286);
+
+  // only the fields the invalidation needs are sent, not the documents
+  private static final List<Bson> PIPELINE =
+      List.of(
+          Aggregates.match(
+              Filters.in(
+                  "operationType",
+                  "insert",
+                  "update",
+                  "replace",
+                  "delete",
+                  "drop",
+                  "rename",
+                  "dropDatabase")),
+          Aggregates.project(Projections.include("operationType", "documentKey")));
+
+  private final MongoOperations mongoOperations;
+  private final ObjectProvider<LocalPersonCache> cacheProvider;
+  private final String tokenKey;
+
+  private volatile boolean running;
+  private Thread thread;
+  private List<LocalPersonCache> caches = List.of();
+  // confined to the watcher thread while it runs
+  private BsonDocument resumeToken;
+  private BsonDocument savedToken;
+  private long savedAt;
+
+  public PersonChangeStreamWatcher(
+      MongoOperations mongoOperations,
+      ObjectProvider<LocalPersonCache> cacheProvider,
+      @Value("${persons.mongo.change-stream.node-id:${HOSTNAME:local}}") String nodeId) {
+    this.mongoOperations = mongoOperations;
+    this.cacheProvider = cacheProvider;
+    this.tokenKey = "persons:" + nodeId;
+  }
+
+  // opens the stream before the web server starts, so no request can cache a person unwatched
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 2048;
+  }
+
+  @Override
+  public void start() {
+    caches = cacheProvider.orderedStream().toList();
+    if (caches.isEmpty()) {
+      logger.info("No local person caches, not watching persons for changes");
+      return;
+    }
+    resumeToken = loadToken();
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = null;
+    try {
+      cursor = open();
+    } catch (MongoCommandException e) {
+      if (e.getErrorCode() == CHANGE_STREAMS_NOT_SUPPORTED) {
+        logger.warn(
+            "MongoDB is not a replica set, writes of other nodes reach the person caches only"
+                + " when their entries expire");
+        return;
+      }
+      logger.warn("Failed to open the persons change stream, retrying", e);
+    } catch (MongoException | DataAccessException e) {
+      logger.warn("Failed to open the persons change stream, retrying", e);
+    }
+    running = true;
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> first = cursor;
+    thread =
+        Thread.ofPlatform().name("persons-change-stream").daemon().start(() -> watch(first));
+    logger.info("Watching persons for changes, resuming: {}", resumeToken != null);
+  }
+
+  @Override
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      thread.join(2 * MAX_AWAIT_MILLIS);
+      if (thread.isAlive()) {
+        // still backing off after a failure
+        thread.interrupt();
+        thread.join(MAX_AWAIT_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      saveToken(true);
+    } catch (DataAccessException e) {
+      logger.warn("Failed to save the persons change stream resume token", e);
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void watch(MongoChangeStreamCursor<ChangeStreamDocument<Document>> first) {
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = first;
+    boolean stale = cursor == null;
+    int failures = 0;
+    while (running) {
+      try {
+        if (cursor == null) {
+          cursor = open();
+        }
+        if (stale) {
+          invalidateAll();
+          stale = false;
+        }
+        failures = 0;
+        pump(cursor);
+      } catch (MongoException | DataAccessException e) {
+        if (!running) {
+          break;
+        }
+        if (e instanceof MongoException mongoException
+            && HISTORY_LOST.contains(mongoException.getCode())) {
+          resumeToken = null;
+          deleteToken();
+        }
+        invalidateAll();
+        stale = true;
+        long backoff = Math.min(1_000L << Math.min(failures++, 5), MAX_BACKOFF_MILLIS);
+        logger.warn("Persons change stream failed, reconnecting in {} ms", backoff, e);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      } finally {
+        if (cursor != null) {
+          cursor.close();
+          cursor = null;
+        }
+      }
+    }
+  }
+
+  // returns once the stream is invalidated or the watcher stops
+  private void pump(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+    while (running) {
+      ChangeStreamDocument<Document> event = cursor.tryNext();
+      BsonDocument token = cursor.getResumeToken();
+      if (token != null) {
+        resumeToken = token;
+      }
+      if (event != null) {
+        apply(event.getOperationType(), event.getDocumentKey());
+        if (event.getOperationType() == OperationType.INVALIDATE) {
+          resumeToken = event.getResumeToken();
+          return;
+        }
+      }
+      saveToken(false);
+    }
+  }
+
+  MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+    ChangeStreamIterable<Document> stream =
+        mongoOperations
+            .getCollection(mongoOperations.getCollectionName(PersonDocument.class))
+            .watch(PIPELINE)
+            .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+    // unlike resumeAfter, startAfter also continues behind an invalidate event
+    return (resumeToken == null ? stream : stream.startAfter(resumeToken)).cursor();
+  }
+
+  void apply(OperationType type, BsonDocument documentKey) {
+    switch (type) {
+      case INSERT, UPDATE, REPLACE, DELETE -> {
+        BsonValue id = documentKey == null ? null : documentKey.get("_id");
+        if (id != null && id.isNumber()) {
+          int personId = id.asNumber().intValue();
+          caches.forEach(cache -> cache.invalidate(personId));
+        } else {
+          invalidateAll();
+        }
+      }
+      default -> invalidateAll();
+    }
+  }
+
+  private void invalidateAll() {
+    caches.forEach(LocalPersonCache::invalidateAll);
+  }
+
+  private BsonDocument loadToken() {
+    try {
+      Document stored = mongoOperations.findById(tokenKey, Document.class, TOKEN_COLLECTION);
+      return stored == null ? null : BsonDocument.parse(stored.getString("token"));
+    } catch (DataAccessException e) {
+      logger.warn("Failed to load the persons change stream resume token", e);
+      return null;
+    }
+  }
+
+  private void saveToken(boolean force) {
+    BsonDocument token = resumeToken;
+    if (token == null
+        || token.equals(savedToken)
+        || (!force && System.nanoTime() - savedAt < TOKEN_SAVE_INTERVAL_NANOS)) {
+      return;
+    }
+    mongoOperations.upsert(
+        Query.query(Criteria.where("_id").is(tokenKey)),
+        Update.update("token", token.toJson()),
+        TOKEN_COLLECTION);
+    savedToken = token;
+    savedAt = System.nanoTime();
+  }
+
+  private void deleteToken() {
+    savedToken = null;
+    try {
+      mongoOperations.remove(Query.query(Criteria.where("_id").is(tokenKey)), TOKEN_COLLECTION);
+    } catch (DataAccessException e) {
+      logger.warn("Failed to delete the persons change stream resume token", e);
+    }
+  }
+}
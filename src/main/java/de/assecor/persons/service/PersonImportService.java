@@ -0,0 +1,189 @@
+package de.assecor.persons.service;
+
+import de.assecor.persons.model.dto.ImportResultDto;
+import de.assecor.persons.model.dto.ImportResultDto.RejectedLine;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.initialdata.CsvLineParser;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports persons from an uploaded CSV or NDJSON stream into the active {@link DataService}.
+ *
+ * <p>The request thread parses lines into batches of {@code batch-size} persons and hands them to a
+ * writer thread through a queue of {@code queue-capacity} batches. When the writer falls behind the
+ * queue fills up and the reader stops pulling bytes from the upload, so memory stays bounded no
+ * matter how large the file is. Batches are committed as they are written, a failed import keeps
+ * everything written before the failure. At most {@code max-concurrent} imports write at a time,
+ * further ones wait for a writer thread.
+ */
+@Service
+public class PersonImportService {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersonImportService.class);
+
+  private static final long PROGRESS_INTERVAL = 100_000;
+
+  // marks the end of the input for the writer, compared by identity
+  private static final List<PersonDto> END = new ArrayList<>();
+
+  private final DataService dataService;
+  private final int batchSize;
+  private final int queueCapacity;
+  private final int maxRejectedLines;
+  private final ExecutorService writers;
+
+  @Autowired
+  public PersonImportService(
+      DataService dataService,
+      @Value("${persons.import.batch-size:1000}") int batchSize,
+      @Value("${persons.import.queue-capacity:4}") int queueCapacity,
+      @Value("${persons.import.max-rejected-lines:100}") int maxRejectedLines,
+      @Value("${persons.import.max-concurrent:4}") int maxConcurrent) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("Maximum of concurrent imports must be positive");
+    }
+    this.dataService = dataService;
+    this.batchSize = batchSize;
+    this.queueCapacity = queueCapacity;
+    this.maxRejectedLines = maxRejectedLines;
+    this.writers =
+        Executors.newFixedThreadPool(
+            maxConcurrent, Thread.ofPlatform().name("person-import-", 0).factory());
+  }
+
+  /** Imports lines in the {@link CsvLineParser CSV format} of the initial data. */
+  public ImportResultDto importCsv(InputStream input) {
+    return importLines(input, CsvLineParser::parse);
+  }
+
+  /**
+   * Imports one person per line as mapped by the parser, which returns null for lines to skip and
+   * throws an {@link IllegalArgumentException} with the reason for lines to reject.
+   */
+  public ImportResultDto importLines(InputStream input, Function<String, PersonDto> parser) {
+    long start = System.nanoTime();
+    BlockingQueue<List<PersonDto>> batches = new ArrayBlockingQueue<>(queueCapacity);
+    Future<Long> writer = writers.submit(() -> write(batches));
+
+    long lineNumber = 0;
+    long rejected = 0;
+    List<RejectedLine> rejectedLines = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      List<PersonDto> batch = new ArrayList<>(batchSize);
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        PersonDto person;
+        try {
+          person = parser.apply(line);
+        } catch (IllegalArgumentException e) {
+          rejected++;
+          if (rejectedLines.size() < maxRejectedLines) {
+            rejectedLines.add(new RejectedLine(lineNumber, e.getMessage()));
+          }
+          continue;
+        }
+        if (person == null) {
+          continue;
+        }
+        batch.add(person);
+        if (batch.size() == batchSize) {
+          enqueue(batches, batch, writer);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        enqueue(batches, batch, writer);
+      }
+      enqueue(batches, END, writer);
+    } catch (IOException e) {
+      writer.cancel(true);
+      throw new UncheckedIOException("Failed to read import after line " + lineNumber, e);
+    } catch (RuntimeException e) {
+      writer.cancel(true);
+      throw e;
+    }
+
+    long imported = awaitWriter(writer);
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    ImportResultDto result =
+        new ImportResultDto(imported, rejected, List.copyOf(rejectedLines), durationMillis);
+    logger.info(
+        "Imported {} persons, rejected {} lines in {} ms ({} rows/s)",
+        imported,
+        rejected,
+        durationMillis,
+        Math.round(result.rowsPerSecond()));
+    return result;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    writers.shutdownNow();
+  }
+
+  private long write(BlockingQueue<List<PersonDto>> batches) throws InterruptedException {
+    long written = 0;
+    for (List<PersonDto> batch = batches.take(); batch != END; batch = batches.take()) {
+      written += dataService.createPersons(batch).size();
+      if (written / PROGRESS_INTERVAL != (written - batch.size()) / PROGRESS_INTERVAL) {
+        logger.info("Import progress: {} persons written", written);
+      }
+    }
+    return written;
+  }
+
+  // blocks while the writer is behind, but gives up as soon as the writer has failed
+  private void enqueue(
+      BlockingQueue<List<PersonDto>> batches, List<PersonDto> batch, Future<Long> writer) {
+    try {
+      while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+        if (writer.isDone()) {
+          awaitWriter(writer);
+          throw new IllegalStateException("Import writer stopped unexpectedly");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      writer.cancel(true);
+      throw new IllegalStateException("Import was interrupted", e);
+    }
+  }
+
+  private static long awaitWriter(Future<Long> writer) {
+    try {
+      return writer.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      writer.cancel(true);
+      throw new IllegalStateException("Import was interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Import failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package de.assecor.persons.service;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link DataService} with the same semantics. Failures such as {@link
+ * de.assecor.persons.exception.PersonNotFoundException} are emitted as error signals instead of
+ * being thrown.
+ */
+public interface ReactiveDataService {
+
+  /** Emits all persons in ascending id order, as fast as the subscriber requests them. */
+  Flux<PersonDto> getAllPersons();
+
+  Mono<PersonPageDto> getPersonsPage(int afterId, int limit);
+
+  Mono<PersonDto> getPersonById(int id);
+
+  Mono<PersonDto> createPerson(PersonDto person);
+
+  Mono<List<PersonDto>> createPersons(List<PersonDto> persons);
+
+  Mono<PersonDto> updatePerson(int id, PersonDto person);
+
+  Mono<Void> deletePerson(int id);
+
+  Flux<PersonDto> getPersonsByColor(Color color);
+
+  Flux<PersonDto> searchPersons(String zipPrefix, String city);
+
+  Flux<PersonDto> searchPersonsByName(String query, int limit);
+}
@@ -1,7 +1,12 @@
 package de.assecor.persons.service;
 
 import de.assecor.persons.model.document.SequenceDocument;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoOperations;
@@ -14,11 +19,32 @@ import org.springframework.stereotype.Service;
 @Profile("mongo")
 public class SequenceGeneratorService {
 
+  private static final int DEFAULT_BLOCK_SIZE = 100;
+  private static final int DEFAULT_MAX_BLOCK_SIZE = 10_000;
+  // blocks used up faster than this grow, blocks lasting ten times as long shrink again
+  private static final long TARGET_BLOCK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   private final MongoOperations mongoOperations;
+  private final int blockSize;
+  private final int maxBlockSize;
+  private final ConcurrentMap<String, IdBlocks> blocks = new ConcurrentHashMap<>();
 
-  @Autowired
   public SequenceGeneratorService(MongoOperations mongoOperations) {
+    this(mongoOperations, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCK_SIZE);
+  }
+
+  @Autowired
+  public SequenceGeneratorService(
+      MongoOperations mongoOperations,
+      @Value("${persons.mongo.sequence.block-size:100}") int blockSize,
+      @Value("${persons.mongo.sequence.max-block-size:10000}") int maxBlockSize) {
+    if (blockSize < 1 || maxBlockSize < blockSize) {
+      throw new IllegalArgumentException(
+          "Block size must be positive and at most the max block size");
+    }
     this.mongoOperations = mongoOperations;
+    this.blockSize = blockSize;
+    this.maxBlockSize = maxBlockSize;
   }
 
   public int generateSequence(String sequenceName) {
@@ -36,6 +62,35 @@ public class SequenceGeneratorService {
     return counter.seq();
   }
 
+  /**
+   * Hands out the next value of a block this node reserved with a single {@code $inc}, so most
+   * calls never reach the database and nodes do not contend on the sequence document. Values are
+   * unique across nodes but not in call order between them, values of a block not handed out
+   * before shutdown are skipped.
+   */
+  public int nextValue(String sequenceName) {
+    return blocks.computeIfAbsent(sequenceName, IdBlocks::new).next();
+  }
+
+  /** Reserves {@code count} consecutive values in one round trip and returns the first of them. */
+  public int reserveRange(String sequenceName, int count) {
+    if (count < 1) {
+      throw new IllegalArgumentException("count must be positive, was " + count);
+    }
+    SequenceDocument counter =
+        mongoOperations.findAndModify(
+            Query.query(Criteria.where("_id").is(sequenceName)),
+            new Update().inc("seq", count),
+            FindAndModifyOptions.options().returnNew(true).upsert(true),
+            SequenceDocument.class);
+
+    if (counter == null) {
+      throw new IllegalStateException("Failed to reserve sequence range for: " + sequenceName);
+    }
+
+    return counter.seq() - count + 1;
+  }
+
   public void initializeSequence(String sequenceName, int value) {
     SequenceDocument existing = mongoOperations.findById(sequenceName, SequenceDocument.class);
 
@@ -43,4 +98,49 @@ public class SequenceGeneratorService {
       mongoOperations.save(new SequenceDocument(sequenceName, value));
     }
   }
+
+  // Values of the current block are taken lock-free, only reserving the next block is serialized
+  private final class IdBlocks {
+
+    private record Block(AtomicInteger next, int last) {}
+
+    private final String sequenceName;
+    private volatile Block current = new Block(new AtomicInteger(1), 0);
+    private int size = blockSize;
+    private long reservedAt;
+
+    IdBlocks(String sequenceName) {
+      this.sequenceName = sequenceName;
+    }
+
+    int next() {
+      while (true) {
+        Block block = current;
+        int value = block.next().getAndIncrement();
+        if (value <= block.last()) {
+          return value;
+        }
+        synchronized (this) {
+          if (current == block) {
+            current = reserve();
+          }
+        }
+      }
+    }
+
+    private Block reserve() {
+      long now = System.nanoTime();
+      if (reservedAt != 0) {
+        long elapsed = now - reservedAt;
+        if (elapsed < TARGET_BLOCK_NANOS) {
+          size = Math.min(size * 2, maxBlockSize);
+        } else if (elapsed > 10 * TARGET_BLOCK_NANOS) {
+          size = Math.max(size / 2, blockSize);
+        }
+      }
+      reservedAt = now;
+      int first = reserveRange(sequenceName, size);
+      return new Block(new AtomicInteger(first), first + size - 1);
+    }
+  }
 }
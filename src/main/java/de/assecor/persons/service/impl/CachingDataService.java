@@ -0,0 +1,140 @@
+package de.assecor.persons.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
+import de.assecor.persons.service.DataService;
+import de.assecor.persons.service.LocalPersonCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of persons by id in front of another {@link DataService}. Entries are evicted
+ * by size and after a fixed time since they were loaded, writes through this service invalidate the
+ * ids they touch. Writes by other nodes are invalidated through {@link LocalPersonCache}, or become
+ * visible once the entry expires. Hits, misses and evictions are published as the Micrometer cache
+ * metrics of {@code persons.byId}.
+ */
+public class CachingDataService implements DataService, LocalPersonCache {
+
+  public static final String CACHE_NAME = "persons.byId";
+
+  private final DataService delegate;
+  private final Cache<Integer, PersonDto> byId;
+
+  public CachingDataService(
+      DataService delegate, long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+    this(delegate, maximumSize, ttl, meterRegistry, Ticker.systemTicker());
+  }
+
+  CachingDataService(
+      DataService delegate,
+      long maximumSize,
+      Duration ttl,
+      MeterRegistry meterRegistry,
+      Ticker ticker) {
+    this.delegate = delegate;
+    this.byId =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, byId, CACHE_NAME);
+  }
+
+  @Override
+  public void invalidate(int id) {
+    byId.invalidate(id);
+  }
+
+  @Override
+  public void invalidateAll() {
+    byId.invalidateAll();
+  }
+
+  // evictions are applied asynchronously, tests run them before asserting
+  void cleanUp() {
+    byId.cleanUp();
+  }
+
+  @Override
+  public PersonDto getPersonById(int id) {
+    // PersonNotFoundException passes through, missing ids are not cached
+    return byId.get(id, delegate::getPersonById);
+  }
+
+  @Override
+  public PersonDto createPerson(PersonDto person) {
+    PersonDto created = delegate.createPerson(person);
+    byId.invalidate(created.id());
+    return created;
+  }
+
+  @Override
+  public List<PersonDto> createPersons(List<PersonDto> persons) {
+    List<PersonDto> created = delegate.createPersons(persons);
+    byId.invalidateAll(created.stream().map(PersonDto::id).toList());
+    return created;
+  }
+
+  @Override
+  public PersonDto updatePerson(int id, PersonDto person) {
+    try {
+      return delegate.updatePerson(id, person);
+    } finally {
+      byId.invalidate(id);
+    }
+  }
+
+  @Override
+  public void deletePerson(int id) {
+    try {
+      delegate.deletePerson(id);
+    } finally {
+      byId.invalidate(id);
+    }
+  }
+
+  @Override
+  public List<PersonDto> getAllPersons() {
+    return delegate.getAllPersons();
+  }
+
+  @Override
+  public PersonPageDto getPersonsPage(int afterId, int limit) {
+    return delegate.getPersonsPage(afterId, limit);
+  }
+
+  @Override
+  public Stream<PersonDto> streamAllPersons() {
+    return delegate.streamAllPersons();
+  }
+
+  @Override
+  public List<PersonDto> getPersonsByColor(Color color) {
+    return delegate.getPersonsByColor(color);
+  }
+
+  @Override
+  public Stream<PersonDto> streamPersonsByColor(Color color) {
+    return delegate.streamPersonsByColor(color);
+  }
+
+  @Override
+  public List<PersonDto> searchPersons(String zipPrefix, String city) {
+    return delegate.searchPersons(zipPrefix, city);
+  }
+
+  @Override
+  public List<PersonDto> searchPersonsByName(String query, int limit) {
+    return delegate.searchPersonsByName(query, limit);
+  }
+}
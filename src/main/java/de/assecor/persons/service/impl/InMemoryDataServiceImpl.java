@@ -1,12 +1,21 @@
 package de.assecor.persons.service.impl;
 
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import de.assecor.persons.service.DataService;
 import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.service.impl.durability.SnapshotStore;
+import de.assecor.persons.service.impl.durability.WriteAheadLog;
+import de.assecor.persons.service.impl.durability.WriteAheadLog.Operation;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
+import de.assecor.persons.service.impl.store.PersonStore;
 import de.assecor.persons.service.initialdata.InitialDataProvider;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +23,20 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.util.Collections;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Service
 @Profile("!mongo")
@@ -27,29 +46,63 @@ public class InMemoryDataServiceImpl implements DataService {
 
   private final AtomicInteger nextId = new AtomicInteger(1);
 
-  // Thread-safe in-memory store for person data
-  private final List<PersonDto> persons = new CopyOnWriteArrayList<>();
+  // Thread-safe in-memory store for person data, indexed by id and color
+  private final PersonStore persons;
 
   private final InitialDataProvider initialDataProvider;
 
-  @Autowired(required = false)
+  // Optional, null when the write-ahead log is disabled
+  private final WriteAheadLog writeAheadLog;
+
+  // Optional, null when snapshots are disabled
+  private final SnapshotStore snapshotStore;
+
+  // Orders log appends with store mutations so replay reproduces the same state
+  private final Object writeLock = new Object();
+
+  private ScheduledExecutorService snapshotScheduler;
+
   public InMemoryDataServiceImpl(InitialDataProvider initialDataProvider) {
+    this(initialDataProvider, new PersistentPersonStore(), null, null);
+  }
+
+  @Autowired
+  public InMemoryDataServiceImpl(
+      InitialDataProvider initialDataProvider,
+      PersonStore persons,
+      @Nullable WriteAheadLog writeAheadLog,
+      @Nullable SnapshotStore snapshotStore) {
     this.initialDataProvider = initialDataProvider;
+    this.persons = persons;
+    this.writeAheadLog = writeAheadLog;
+    this.snapshotStore = snapshotStore;
   }
 
   @PostConstruct
   public void init() {
-    if (!persons.isEmpty()) {
+    if (persons.size() > 0) {
       logger.warn("InMemoryDataService initialized with non-empty dataset, skipping data load");
       return;
     }
 
+    if (!recover()) {
+      loadInitialData();
+    }
+    startSnapshots();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (snapshotScheduler != null) {
+      snapshotScheduler.shutdown();
+      snapshot();
+    }
+  }
+
+  private void loadInitialData() {
     if (initialDataProvider != null && initialDataProvider.isAvailable()) {
       try {
-        List<PersonDto> loadedPersons = initialDataProvider.loadData();
-        for (PersonDto person : loadedPersons) {
-          createPerson(person);
-        }
+        bulkLoad();
         logger.info("Initialized InMemoryDataService with {} persons", persons.size());
       } catch (DataLoadException e) {
         logger.error("Failed to load initial data from data source", e);
@@ -59,17 +112,208 @@ public class InMemoryDataServiceImpl implements DataService {
     }
   }
 
+  // Streams the initial data into the store batch by batch and publishes it at once. The log is
+  // only written after a complete load, a failing source leaves neither store nor log half filled.
+  private void bulkLoad() throws DataLoadException {
+    PersonStore.BulkLoader loader = persons.bulkLoader();
+    int[] next = {nextId.get()};
+    initialDataProvider.forEachBatch(
+        InitialDataProvider.DEFAULT_BATCH_SIZE,
+        batch -> {
+          for (PersonDto person : batch) {
+            if (person != null) {
+              loader.add(
+                  new PersonDto(
+                      next[0]++,
+                      person.firstName(),
+                      person.lastName(),
+                      person.zipCode(),
+                      person.city(),
+                      person.favoriteColor()));
+            }
+          }
+        });
+    loader.publish();
+    nextId.set(next[0]);
+    if (writeAheadLog != null) {
+      for (PersonDto person : persons.view()) {
+        writeAheadLog.append(Operation.CREATE, person);
+      }
+      writeAheadLog.flush();
+    }
+  }
+
+  // Restores the newest snapshot followed by the log records it does not cover yet,
+  // returns false if there was nothing to restore
+  private boolean recover() {
+    long snapshotSequence = -1;
+    if (snapshotStore != null) {
+      snapshotSequence = loadSnapshot();
+    }
+    if (writeAheadLog != null && snapshotSequence > writeAheadLog.sequence()) {
+      alignWriteAheadLog(snapshotSequence);
+    }
+    boolean replayed =
+        writeAheadLog != null && recoverFromWriteAheadLog(Math.max(0, snapshotSequence));
+    return snapshotSequence >= 0 || replayed;
+  }
+
+  // Returns the last log sequence the snapshot covers, or -1 if there is no snapshot
+  private long loadSnapshot() {
+    long start = System.nanoTime();
+    PersonStore.BulkLoader loader = persons.bulkLoader();
+    Optional<SnapshotStore.Metadata> metadata;
+    try {
+      metadata = snapshotStore.load(loader::add);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load snapshot " + snapshotStore.getPath(), e);
+    }
+    if (metadata.isEmpty()) {
+      return -1;
+    }
+
+    loader.publish();
+    nextId.set(metadata.get().nextId());
+    logger.info(
+        "Loaded {} persons from snapshot {} in {} ms",
+        metadata.get().count(),
+        snapshotStore.getPath(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return metadata.get().walSequence();
+  }
+
+  // The snapshot covers records the log no longer holds. New records must continue after the
+  // snapshot's sequence, otherwise the next restart skips them as already covered.
+  private void alignWriteAheadLog(long snapshotSequence) {
+    if (writeAheadLog.isCreated()) {
+      // don't leave the fresh file behind, the next start would adopt it as an empty log
+      try {
+        writeAheadLog.close();
+        Files.deleteIfExists(writeAheadLog.getPath());
+      } catch (IOException e) {
+        logger.warn("Failed to remove write-ahead log {}", writeAheadLog.getPath(), e);
+      }
+      throw new IllegalStateException(
+          "Snapshot "
+              + snapshotStore.getPath()
+              + " covers write-ahead log records up to "
+              + snapshotSequence
+              + " but the log "
+              + writeAheadLog.getPath()
+              + " is missing, restore it or remove the snapshot");
+    }
+    logger.warn(
+        "Write-ahead log {} ends at sequence {} before snapshot {} at {}, continuing after the"
+            + " snapshot",
+        writeAheadLog.getPath(),
+        writeAheadLog.sequence(),
+        snapshotStore.getPath(),
+        snapshotSequence);
+    writeAheadLog.rebase(snapshotSequence);
+  }
+
+  // Applies the log records following the given sequence, returns false if there were none
+  private boolean recoverFromWriteAheadLog(long afterSequence) {
+    int[] maxId = {nextId.get() - 1};
+    int entries =
+        writeAheadLog.replay(
+            afterSequence,
+            entry -> {
+              switch (entry.operation()) {
+                case CREATE -> persons.insert(entry.person());
+                case UPDATE -> persons.replace(entry.person());
+                case DELETE -> persons.remove(entry.id());
+              }
+              maxId[0] = Math.max(maxId[0], entry.id());
+            });
+    if (entries == 0) {
+      return false;
+    }
+
+    nextId.set(maxId[0] + 1);
+    logger.info(
+        "Recovered {} persons from {} write-ahead log entries in {}",
+        persons.size(),
+        entries,
+        writeAheadLog.getPath());
+    return true;
+  }
+
+  private void startSnapshots() {
+    if (snapshotStore == null) {
+      return;
+    }
+    long interval = Math.max(1, snapshotStore.getInterval().toMillis());
+    snapshotScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "snapshot-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    snapshotScheduler.scheduleWithFixedDelay(
+        this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // Captures a consistent view under the write lock, the slow part runs without any lock
+  synchronized void snapshot() {
+    Collection<PersonDto> view;
+    int currentNextId;
+    long sequence;
+    synchronized (writeLock) {
+      view = persons.view();
+      currentNextId = nextId.get();
+      sequence = writeAheadLog == null ? 0 : writeAheadLog.sequence();
+    }
+
+    long start = System.nanoTime();
+    try {
+      snapshotStore.write(currentNextId, sequence, view);
+      if (writeAheadLog != null) {
+        writeAheadLog.discardUpTo(sequence);
+      }
+      logger.info(
+          "Wrote snapshot of {} persons to {} in {} ms",
+          view.size(),
+          snapshotStore.getPath(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (IOException | RuntimeException e) {
+      logger.error("Failed to write snapshot to {}", snapshotStore.getPath(), e);
+    }
+  }
+
+  private long log(Operation operation, PersonDto person) {
+    return writeAheadLog == null ? 0 : writeAheadLog.append(operation, person);
+  }
+
+  private void commit(long sequence) {
+    if (writeAheadLog != null) {
+      writeAheadLog.commit(sequence);
+    }
+  }
+
   @Override
   public List<PersonDto> getAllPersons() {
-    return Collections.unmodifiableList(persons);
+    return persons.getAll();
+  }
+
+  @Override
+  public Stream<PersonDto> streamAllPersons() {
+    return persons.stream();
+  }
+
+  @Override
+  public PersonPageDto getPersonsPage(int afterId, int limit) {
+    return PersonPageDto.of(persons.getAfter(afterId, limit + 1), limit);
   }
 
   @Override
   public PersonDto getPersonById(int id) {
-    return persons.stream()
-        .filter(person -> person.id() == id)
-        .findFirst()
-        .orElseThrow(() -> new PersonNotFoundException("Person not found with id: " + id));
+    PersonDto person = persons.get(id);
+    if (person == null) {
+      throw new PersonNotFoundException("Person not found with id: " + id);
+    }
+    return person;
   }
 
   @Override
@@ -78,36 +322,59 @@ public class InMemoryDataServiceImpl implements DataService {
       throw new IllegalArgumentException("Person cannot be null");
     }
 
-    PersonDto newPerson =
-        new PersonDto(
-            nextId.getAndIncrement(),
-            person.firstName(),
-            person.lastName(),
-            person.zipCode(),
-            person.city(),
-            person.favoriteColor());
-
-    persons.add(newPerson);
+    PersonDto newPerson;
+    long sequence;
+    synchronized (writeLock) {
+      newPerson =
+          new PersonDto(
+              nextId.getAndIncrement(),
+              person.firstName(),
+              person.lastName(),
+              person.zipCode(),
+              person.city(),
+              person.favoriteColor());
+      sequence = log(Operation.CREATE, newPerson);
+      persons.insert(newPerson);
+    }
+    commit(sequence);
     logger.debug("Created person with id: {}", newPerson.id());
     return newPerson;
   }
 
   @Override
-  public PersonDto updatePerson(int id, PersonDto person) {
-    if (person == null) {
-      throw new IllegalArgumentException("Person cannot be null");
+  public List<PersonDto> createPersons(List<PersonDto> batch) {
+    if (batch == null || batch.stream().anyMatch(Objects::isNull)) {
+      throw new IllegalArgumentException("Persons cannot be null");
     }
 
-    int index = -1;
-    for (int i = 0; i < persons.size(); i++) {
-      if (persons.get(i).id() == id) {
-        index = i;
-        break;
+    List<PersonDto> newPersons = new ArrayList<>(batch.size());
+    long sequence = 0;
+    synchronized (writeLock) {
+      int firstId = nextId.getAndAdd(batch.size());
+      for (PersonDto person : batch) {
+        PersonDto newPerson =
+            new PersonDto(
+                firstId + newPersons.size(),
+                person.firstName(),
+                person.lastName(),
+                person.zipCode(),
+                person.city(),
+                person.favoriteColor());
+        sequence = log(Operation.CREATE, newPerson);
+        newPersons.add(newPerson);
       }
+      persons.insertAll(newPersons);
     }
+    // one group commit covers every record of the batch
+    commit(sequence);
+    logger.debug("Created {} persons", newPersons.size());
+    return newPersons;
+  }
 
-    if (index == -1) {
-      throw new PersonNotFoundException("Person not found with id: " + id);
+  @Override
+  public PersonDto updatePerson(int id, PersonDto person) {
+    if (person == null) {
+      throw new IllegalArgumentException("Person cannot be null");
     }
 
     PersonDto updatedPerson =
@@ -119,18 +386,31 @@ public class InMemoryDataServiceImpl implements DataService {
             person.city(),
             person.favoriteColor());
 
-    persons.set(index, updatedPerson);
+    long sequence;
+    synchronized (writeLock) {
+      if (persons.get(id) == null) {
+        throw new PersonNotFoundException("Person not found with id: " + id);
+      }
+      sequence = log(Operation.UPDATE, updatedPerson);
+      persons.replace(updatedPerson);
+    }
+    commit(sequence);
     logger.debug("Updated person with id: {}", id);
     return updatedPerson;
   }
 
   @Override
   public void deletePerson(int id) {
-    boolean removed = persons.removeIf(person -> person.id() == id);
-
-    if (!removed) {
-      throw new PersonNotFoundException("Person not found with id: " + id);
+    long sequence;
+    synchronized (writeLock) {
+      PersonDto existing = persons.get(id);
+      if (existing == null) {
+        throw new PersonNotFoundException("Person not found with id: " + id);
+      }
+      sequence = log(Operation.DELETE, existing);
+      persons.remove(id);
     }
+    commit(sequence);
 
     logger.debug("Deleted person with id: {}", id);
   }
@@ -141,7 +421,36 @@ public class InMemoryDataServiceImpl implements DataService {
       throw new InvalidColorException("Color cannot be null");
     }
 
-    return persons.stream().filter(person -> person.favoriteColor() == color.getId()).toList();
+    return persons.getByColor(color);
+  }
+
+  @Override
+  public Stream<PersonDto> streamPersonsByColor(Color color) {
+    return getPersonsByColor(color).stream();
+  }
+
+  @Override
+  public List<PersonDto> searchPersons(String zipPrefix, String city) {
+    if (zipPrefix == null && city == null) {
+      throw new InvalidSearchException("Either zip code prefix or city is required");
+    }
+    if (zipPrefix == null) {
+      return persons.findByCity(city);
+    }
+    List<PersonDto> byZip = persons.findByZipPrefix(zipPrefix);
+    if (city == null) {
+      return byZip;
+    }
+    return byZip.stream().filter(person -> city.equals(person.city())).toList();
+  }
+
+  @Override
+  public List<PersonDto> searchPersonsByName(String query, int limit) {
+    if (NameFolding.fold(query).length() < NameFolding.MIN_QUERY_LENGTH) {
+      throw new InvalidSearchException(
+          "Name query needs at least " + NameFolding.MIN_QUERY_LENGTH + " characters");
+    }
+    return persons.findByName(query, limit);
   }
 
   // @VisibleForTesting(otherwise = VisibleForTesting.AccessModifier.PRIVATE)
@@ -1,10 +1,14 @@
 package de.assecor.persons.service.impl;
 
+import de.assecor.persons.exception.DataLoadException;
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
 import de.assecor.persons.model.document.PersonDocument;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import de.assecor.persons.model.mapper.PersonMapper;
 import de.assecor.persons.repository.PersonMongoRepository;
 import de.assecor.persons.service.SequenceGeneratorService;
@@ -15,28 +19,66 @@ import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 @Profile("mongo")
 public class MongoDataServiceImpl implements DataService {
 
   private static final Logger logger = LoggerFactory.getLogger(MongoDataServiceImpl.class);
+  private static final int DEFAULT_IMPORT_PARALLELISM = 4;
+  private static final int DEFAULT_CURSOR_BATCH_SIZE = 1_000;
   private final PersonMongoRepository repository;
   private final InitialDataProvider initialDataProvider;
   private final SequenceGeneratorService sequenceGeneratorService;
+  private final int importBatchSize;
+  private final int importParallelism;
+  private final int cursorBatchSize;
 
-  @Autowired
   public MongoDataServiceImpl(
       PersonMongoRepository repository,
       InitialDataProvider initialDataProvider,
       SequenceGeneratorService sequenceGeneratorService) {
+    this(
+        repository,
+        initialDataProvider,
+        sequenceGeneratorService,
+        InitialDataProvider.DEFAULT_BATCH_SIZE,
+        DEFAULT_IMPORT_PARALLELISM,
+        DEFAULT_CURSOR_BATCH_SIZE);
+  }
+
+  @Autowired
+  public MongoDataServiceImpl(
+      PersonMongoRepository repository,
+      InitialDataProvider initialDataProvider,
+      SequenceGeneratorService sequenceGeneratorService,
+      @Value("${persons.mongo.import.batch-size:1000}") int importBatchSize,
+      @Value("${persons.mongo.import.parallelism:4}") int importParallelism,
+      @Value("${persons.mongo.cursor-batch-size:1000}") int cursorBatchSize) {
+    if (importBatchSize < 1 || importParallelism < 1 || cursorBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "Import batch size, parallelism and cursor batch size must be positive");
+    }
     this.repository = repository;
     this.initialDataProvider = initialDataProvider;
     this.sequenceGeneratorService = sequenceGeneratorService;
+    this.importBatchSize = importBatchSize;
+    this.importParallelism = importParallelism;
+    this.cursorBatchSize = cursorBatchSize;
   }
 
   @PostConstruct
@@ -44,20 +86,91 @@ public class MongoDataServiceImpl implements DataService {
     if (repository.count() > 0) {
       logger.info("MongoDB already contains data.");
       initializeSequenceFromExistingData();
+      backfillSearchFields();
       return;
     }
     if (initialDataProvider != null && initialDataProvider.isAvailable()) {
       logger.info("Importing initial data into MongoDB...");
       try {
-        List<PersonDto> initialData = initialDataProvider.loadData();
-        initialData.forEach(this::createPerson);
-        logger.info("Imported {} persons into MongoDB.", initialData.size());
+        importInitialData();
       } catch (Exception e) {
         logger.error("Error importing initial data", e);
       }
     }
   }
 
+  /**
+   * Reserves the ids of each batch with one {@code $inc} on the sequence before writing it, then
+   * writes unordered insertMany batches on up to {@code importParallelism} threads. Ids are never
+   * ahead of the sequence, even if the import fails halfway, and nodes importing at the same time
+   * never share ids. At most one batch per writer is in flight, so memory stays bounded for any
+   * source size.
+   */
+  private void importInitialData() throws DataLoadException {
+    long start = System.nanoTime();
+    int[] imported = {0};
+    Semaphore inFlight = new Semaphore(importParallelism);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    ExecutorService writers =
+        Executors.newFixedThreadPool(
+            importParallelism, Thread.ofPlatform().name("mongo-import-", 0).factory());
+    try {
+      initialDataProvider.forEachBatch(
+          importBatchSize,
+          batch -> {
+            if (batch.isEmpty()) {
+              return;
+            }
+            int firstId =
+                sequenceGeneratorService.reserveRange(
+                    SequenceDocument.PERSON_SEQUENCE, batch.size());
+            List<PersonDocument> docs = new ArrayList<>(batch.size());
+            for (PersonDto person : batch) {
+              docs.add(PersonMapper.toDocumentWithId(firstId + docs.size(), person));
+            }
+            imported[0] += docs.size();
+            inFlight.acquireUninterruptibly();
+            if (failure.get() != null) {
+              inFlight.release();
+              throw failure.get();
+            }
+            writers.execute(
+                () -> {
+                  try {
+                    repository.insertUnordered(docs);
+                  } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                  } finally {
+                    inFlight.release();
+                  }
+                });
+          });
+    } finally {
+      // waits for the batches still being written
+      inFlight.acquireUninterruptibly(importParallelism);
+      writers.shutdown();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    logger.info(
+        "Imported {} persons into MongoDB in {} ms.",
+        imported[0],
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  // documents written before the name search lack its fields and would never match
+  private void backfillSearchFields() {
+    long start = System.nanoTime();
+    int updated = repository.backfillSearchFields(importBatchSize);
+    if (updated > 0) {
+      logger.info(
+          "Derived name search fields for {} persons in {} ms.",
+          updated,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
   private void initializeSequenceFromExistingData() {
     repository
         .findTopByOrderByIdDesc()
@@ -73,6 +186,20 @@ public class MongoDataServiceImpl implements DataService {
     return repository.findAll().stream().map(PersonMapper::toDto).toList();
   }
 
+  @Override
+  public Stream<PersonDto> streamAllPersons() {
+    return repository.streamAll(cursorBatchSize).map(PersonMapper::toDto);
+  }
+
+  @Override
+  public PersonPageDto getPersonsPage(int afterId, int limit) {
+    List<PersonDto> fetched =
+        repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1)).stream()
+            .map(PersonMapper::toDto)
+            .toList();
+    return PersonPageDto.of(fetched, limit);
+  }
+
   @Override
   public PersonDto getPersonById(int id) {
     return repository
@@ -83,7 +210,7 @@ public class MongoDataServiceImpl implements DataService {
 
   @Override
   public PersonDto createPerson(PersonDto person) {
-    int newId = sequenceGeneratorService.generateSequence(SequenceDocument.PERSON_SEQUENCE);
+    int newId = sequenceGeneratorService.nextValue(SequenceDocument.PERSON_SEQUENCE);
 
     PersonDocument doc = PersonMapper.toDocumentWithId(newId, person);
 
@@ -93,24 +220,43 @@ public class MongoDataServiceImpl implements DataService {
     return PersonMapper.toDto(savedDoc);
   }
 
+  @Override
+  public List<PersonDto> createPersons(List<PersonDto> persons) {
+    if (persons.isEmpty()) {
+      return List.of();
+    }
+    int firstId =
+        sequenceGeneratorService.reserveRange(SequenceDocument.PERSON_SEQUENCE, persons.size());
+
+    List<PersonDocument> docs = new ArrayList<>(persons.size());
+    for (PersonDto person : persons) {
+      docs.add(PersonMapper.toDocumentWithId(firstId + docs.size(), person));
+    }
+
+    // insert skips the per-document upsert check of save and sends a single insertMany
+    List<PersonDocument> savedDocs = repository.insert(docs);
+    logger.debug("Created {} Mongo Persons starting at ID {}", savedDocs.size(), firstId);
+
+    return savedDocs.stream().map(PersonMapper::toDto).toList();
+  }
+
   @Override
   public PersonDto updatePerson(int id, PersonDto person) {
-    if (!repository.existsById(id)) {
+    PersonDocument doc = PersonMapper.toDocumentWithId(id, person);
+    // the matched count replaces a separate existence check and its race with deletes
+    if (!repository.replaceExisting(doc)) {
       throw new PersonNotFoundException("Person with id " + id + " not found for update");
     }
-    PersonDocument doc = PersonMapper.toDocumentWithId(id, person);
-    PersonDocument updatedDoc = repository.save(doc);
-    logger.debug("Updated Mongo Person with ID {}", updatedDoc.id());
+    logger.debug("Updated Mongo Person with ID {}", id);
 
-    return PersonMapper.toDto(updatedDoc);
+    return PersonMapper.toDto(doc);
   }
 
   @Override
   public void deletePerson(int id) {
-    if (!repository.existsById(id)) {
+    if (!repository.removeById(id)) {
       throw new PersonNotFoundException("Person with id " + id + " not found for deletion");
     }
-    repository.deleteById(id);
     logger.debug("Deleted Mongo Person with ID {}", id);
   }
 
@@ -122,4 +268,54 @@ public class MongoDataServiceImpl implements DataService {
 
     return repository.findByFavoriteColor(color).stream().map(PersonMapper::toDto).toList();
   }
+
+  @Override
+  public Stream<PersonDto> streamPersonsByColor(Color color) {
+    if (color == null) {
+      throw new InvalidColorException("Color cannot be null");
+    }
+
+    return repository.streamByFavoriteColor(color, cursorBatchSize).map(PersonMapper::toDto);
+  }
+
+  @Override
+  public List<PersonDto> searchPersons(String zipPrefix, String city) {
+    if (zipPrefix == null && city == null) {
+      throw new InvalidSearchException("Either zip code prefix or city is required");
+    }
+    if (zipPrefix != null && zipPrefix.isEmpty()) {
+      throw new InvalidSearchException("Zip code prefix must not be empty");
+    }
+
+    List<PersonDocument> documents;
+    if (zipPrefix == null) {
+      documents = repository.findByCityOrderByIdAsc(city);
+    } else if (city == null) {
+      documents = repository.findByZipCodeRange(zipPrefix, prefixUpperBound(zipPrefix));
+    } else {
+      documents =
+          repository.findByZipCodeRangeAndCity(zipPrefix, prefixUpperBound(zipPrefix), city);
+    }
+    return documents.stream().map(PersonMapper::toDto).toList();
+  }
+
+  @Override
+  public List<PersonDto> searchPersonsByName(String query, int limit) {
+    String folded = NameFolding.fold(query);
+    if (folded.length() < NameFolding.MIN_QUERY_LENGTH) {
+      throw new InvalidSearchException(
+          "Name query needs at least " + NameFolding.MIN_QUERY_LENGTH + " characters");
+    }
+    return repository
+        .findByNameTrigrams(NameFolding.trigrams(folded), Pattern.quote(folded), Limit.of(limit))
+        .stream()
+        .map(PersonMapper::toDto)
+        .toList();
+  }
+
+  // smallest string greater than every string starting with the prefix, "67" -> "68"
+  static String prefixUpperBound(String prefix) {
+    int last = prefix.length() - 1;
+    return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+  }
 }
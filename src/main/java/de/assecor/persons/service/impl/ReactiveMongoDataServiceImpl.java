@@ -0,0 +1,182 @@
+package de.assecor.persons.service.impl;
+
+import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
+import de.assecor.persons.exception.PersonNotFoundException;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.document.PersonDocument;
+import de.assecor.persons.model.document.SequenceDocument;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
+import de.assecor.persons.model.mapper.PersonMapper;
+import de.assecor.persons.repository.reactive.ReactivePersonMongoRepository;
+import de.assecor.persons.service.ReactiveDataService;
+import de.assecor.persons.service.SequenceGeneratorService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ReactiveDataService} on the reactive streams driver, no thread waits for MongoDB. Ids come
+ * from the blocking {@link SequenceGeneratorService}: most are handed out from a reserved block in
+ * memory, reserving the next block runs on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveMongoDataServiceImpl implements ReactiveDataService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveMongoDataServiceImpl.class);
+
+  private final ReactivePersonMongoRepository repository;
+  private final SequenceGeneratorService sequenceGeneratorService;
+  private final int cursorBatchSize;
+
+  public ReactiveMongoDataServiceImpl(
+      ReactivePersonMongoRepository repository,
+      SequenceGeneratorService sequenceGeneratorService,
+      @Value("${persons.mongo.cursor-batch-size:1000}") int cursorBatchSize) {
+    if (cursorBatchSize < 1) {
+      throw new IllegalArgumentException("Cursor batch size must be positive");
+    }
+    this.repository = repository;
+    this.sequenceGeneratorService = sequenceGeneratorService;
+    this.cursorBatchSize = cursorBatchSize;
+  }
+
+  @Override
+  public Flux<PersonDto> getAllPersons() {
+    return repository.streamAll(cursorBatchSize).map(PersonMapper::toDto);
+  }
+
+  @Override
+  public Mono<PersonPageDto> getPersonsPage(int afterId, int limit) {
+    return repository
+        .findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1))
+        .map(PersonMapper::toDto)
+        .collectList()
+        .map(fetched -> PersonPageDto.of(fetched, limit));
+  }
+
+  @Override
+  public Mono<PersonDto> getPersonById(int id) {
+    return repository
+        .findById(id)
+        .map(PersonMapper::toDto)
+        .switchIfEmpty(
+            Mono.error(() -> new PersonNotFoundException("Person with id " + id + " not found")));
+  }
+
+  @Override
+  public Mono<PersonDto> createPerson(PersonDto person) {
+    return Mono.fromCallable(
+            () -> sequenceGeneratorService.nextValue(SequenceDocument.PERSON_SEQUENCE))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(id -> repository.insert(PersonMapper.toDocumentWithId(id, person)))
+        .doOnNext(saved -> logger.debug("Created Mongo Person with ID {}", saved.id()))
+        .map(PersonMapper::toDto);
+  }
+
+  @Override
+  public Mono<List<PersonDto>> createPersons(List<PersonDto> persons) {
+    if (persons.isEmpty()) {
+      return Mono.just(List.of());
+    }
+    return Mono.fromCallable(
+            () ->
+                sequenceGeneratorService.reserveRange(
+                    SequenceDocument.PERSON_SEQUENCE, persons.size()))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(
+            firstId -> {
+              List<PersonDocument> docs = new ArrayList<>(persons.size());
+              for (PersonDto person : persons) {
+                docs.add(PersonMapper.toDocumentWithId(firstId + docs.size(), person));
+              }
+              // one insertMany, as in the blocking service
+              return repository.insert(docs).map(PersonMapper::toDto).collectList();
+            });
+  }
+
+  @Override
+  public Mono<PersonDto> updatePerson(int id, PersonDto person) {
+    PersonDocument doc = PersonMapper.toDocumentWithId(id, person);
+    return repository
+        .replaceExisting(doc)
+        .flatMap(
+            replaced ->
+                replaced
+                    ? Mono.just(PersonMapper.toDto(doc))
+                    : Mono.error(
+                        new PersonNotFoundException(
+                            "Person with id " + id + " not found for update")));
+  }
+
+  @Override
+  public Mono<Void> deletePerson(int id) {
+    return repository
+        .removeById(id)
+        .flatMap(
+            removed ->
+                removed
+                    ? Mono.<Void>empty()
+                    : Mono.error(
+                        new PersonNotFoundException(
+                            "Person with id " + id + " not found for deletion")));
+  }
+
+  @Override
+  public Flux<PersonDto> getPersonsByColor(Color color) {
+    if (color == null) {
+      return Flux.error(new InvalidColorException("Color cannot be null"));
+    }
+
+    return repository.streamByFavoriteColor(color, cursorBatchSize).map(PersonMapper::toDto);
+  }
+
+  @Override
+  public Flux<PersonDto> searchPersons(String zipPrefix, String city) {
+    if (zipPrefix == null && city == null) {
+      return Flux.error(new InvalidSearchException("Either zip code prefix or city is required"));
+    }
+    if (zipPrefix != null && zipPrefix.isEmpty()) {
+      return Flux.error(new InvalidSearchException("Zip code prefix must not be empty"));
+    }
+
+    Flux<PersonDocument> documents;
+    if (zipPrefix == null) {
+      documents = repository.findByCityOrderByIdAsc(city);
+    } else if (city == null) {
+      documents =
+          repository.findByZipCodeRange(
+              zipPrefix, MongoDataServiceImpl.prefixUpperBound(zipPrefix));
+    } else {
+      documents =
+          repository.findByZipCodeRangeAndCity(
+              zipPrefix, MongoDataServiceImpl.prefixUpperBound(zipPrefix), city);
+    }
+    return documents.map(PersonMapper::toDto);
+  }
+
+  @Override
+  public Flux<PersonDto> searchPersonsByName(String query, int limit) {
+    String folded = NameFolding.fold(query);
+    if (folded.length() < NameFolding.MIN_QUERY_LENGTH) {
+      return Flux.error(
+          new InvalidSearchException(
+              "Name query needs at least " + NameFolding.MIN_QUERY_LENGTH + " characters"));
+    }
+    return repository
+        .findByNameTrigrams(NameFolding.trigrams(folded), Pattern.quote(folded), Limit.of(limit))
+        .map(PersonMapper::toDto);
+  }
+}
@@ -0,0 +1,21 @@
+package de.assecor.persons.service.impl.durability;
+
+import java.util.Locale;
+
+public enum FsyncPolicy {
+  // every commit waits until its record is on disk, concurrent commits share one fsync
+  PER_OP,
+  // fsync once batch-size records are pending, at the latest after the flush interval
+  BATCHED,
+  // fsync only from the background flusher, once per flush interval
+  INTERVAL;
+
+  public static FsyncPolicy fromValue(String value) {
+    try {
+      return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Unknown fsync policy '" + value + "', expected 'per-op', 'batched' or 'interval'", e);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package de.assecor.persons.service.impl.durability;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a single person shared by the write-ahead log and snapshots: id and color as
+ * ints, followed by the four string fields as int length (-1 for null) and UTF-8 bytes.
+ */
+public final class PersonBinaryCodec {
+
+  private PersonBinaryCodec() {
+    // Utility class
+  }
+
+  public static int maxEncodedSize(PersonDto person) {
+    return 2 * Integer.BYTES
+        + maxEncodedSize(person.firstName())
+        + maxEncodedSize(person.lastName())
+        + maxEncodedSize(person.zipCode())
+        + maxEncodedSize(person.city());
+  }
+
+  public static void write(ByteBuffer target, PersonDto person) {
+    target.putInt(person.id());
+    target.putInt(person.favoriteColor());
+    writeString(target, person.firstName());
+    writeString(target, person.lastName());
+    writeString(target, person.zipCode());
+    writeString(target, person.city());
+  }
+
+  public static PersonDto read(ByteBuffer source) {
+    int id = source.getInt();
+    int color = source.getInt();
+    String firstName = readString(source);
+    String lastName = readString(source);
+    String zipCode = readString(source);
+    String city = readString(source);
+    return new PersonDto(id, firstName, lastName, zipCode, city, color);
+  }
+
+  private static int maxEncodedSize(String value) {
+    // UTF-8 never needs more than three bytes per UTF-16 char
+    return Integer.BYTES + (value == null ? 0 : value.length() * 3);
+  }
+
+  private static void writeString(ByteBuffer target, String value) {
+    if (value == null) {
+      target.putInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    target.putInt(bytes.length);
+    target.put(bytes);
+  }
+
+  private static String readString(ByteBuffer source) {
+    int length = source.getInt();
+    if (length < 0) {
+      return null;
+    }
+    if (length > source.remaining()) {
+      throw new IllegalArgumentException("String length " + length + " exceeds remaining bytes");
+    }
+    byte[] bytes = new byte[length];
+    source.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,138 @@
+package de.assecor.persons.service.impl.durability;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes binary snapshots of the whole person store.
+ *
+ * <p>A snapshot is a header ({@code magic, version, nextId, walSequence, count}), the persons in
+ * ascending id order as encoded by {@link PersonBinaryCodec} and a trailing CRC32C of everything
+ * before it. New snapshots are written to a temporary file that atomically replaces the previous
+ * one, so the file on disk is always the newest complete snapshot.
+ */
+public class SnapshotStore {
+
+  private static final int MAGIC = 0x50534E50; // "PSNP"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+  private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+  /** Describes a loaded snapshot, {@code walSequence} is the last log record it covers. */
+  public record Metadata(int nextId, long walSequence, int count) {}
+
+  private final Path path;
+  private final Duration interval;
+
+  public SnapshotStore(Path path, Duration interval) {
+    this.path = path;
+    this.interval = interval;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public Duration getInterval() {
+    return interval;
+  }
+
+  public void write(int nextId, long walSequence, Collection<PersonDto> persons)
+      throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    CRC32C checksum = new CRC32C();
+    try (FileChannel channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+      buffer
+          .putInt(MAGIC)
+          .putInt(VERSION)
+          .putInt(nextId)
+          .putLong(walSequence)
+          .putInt(persons.size());
+      for (PersonDto person : persons) {
+        int size = PersonBinaryCodec.maxEncodedSize(person);
+        if (buffer.remaining() < size) {
+          drain(channel, buffer, checksum);
+        }
+        if (buffer.remaining() < size) {
+          ByteBuffer large = ByteBuffer.allocate(size);
+          PersonBinaryCodec.write(large, person);
+          drain(channel, large, checksum);
+        } else {
+          PersonBinaryCodec.write(buffer, person);
+        }
+      }
+      drain(channel, buffer, checksum);
+      buffer.putInt((int) checksum.getValue()).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Verifies the newest snapshot and feeds its persons to the consumer in ascending id order.
+   * Returns empty if no snapshot exists.
+   */
+  public Optional<Metadata> load(Consumer<PersonDto> consumer) throws IOException {
+    if (!Files.exists(path)) {
+      return Optional.empty();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE + Integer.BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot " + path + " has an unsupported size of " + size);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException(path + " is not a snapshot of a supported version");
+      }
+      int end = (int) size - Integer.BYTES;
+      CRC32C checksum = new CRC32C();
+      checksum.update(buffer.slice(0, end));
+      if ((int) checksum.getValue() != buffer.getInt(end)) {
+        throw new IOException("Snapshot " + path + " is corrupt, checksum mismatch");
+      }
+
+      buffer.position(2 * Integer.BYTES).limit(end);
+      Metadata metadata = new Metadata(buffer.getInt(), buffer.getLong(), buffer.getInt());
+      for (int i = 0; i < metadata.count(); i++) {
+        consumer.accept(PersonBinaryCodec.read(buffer));
+      }
+      return Optional.of(metadata);
+    }
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C checksum)
+      throws IOException {
+    buffer.flip();
+    checksum.update(buffer.duplicate());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
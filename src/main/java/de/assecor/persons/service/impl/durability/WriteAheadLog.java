@@ -0,0 +1,436 @@
+package de.assecor.persons.service.impl.durability;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, memory-mapped log of person writes.
+ *
+ * <p>Each record is {@code [int length][int crc32c][byte operation][payload]}. Writers append
+ * under a short lock and then {@link #commit(long)} outside of it. Concurrent commits are grouped,
+ * so whichever thread forces the mapping first makes the records of all waiting threads durable.
+ * Replay stops at the first record that is incomplete or fails its checksum, which is where a crash
+ * may have torn the tail of the log.
+ *
+ * <p>Sequence numbers keep counting across restarts. The file header stores the sequence the
+ * first record follows, so records already covered by a snapshot can be discarded.
+ */
+public class WriteAheadLog implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+  private static final int MAGIC = 0x5057414C; // "PWAL"
+  private static final int VERSION = 2;
+  private static final int FILE_HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+  private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+  public enum Operation {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+
+  /** A replayed log record. {@code person} is null for deletes. */
+  public record Entry(Operation operation, int id, PersonDto person) {}
+
+  private final Path path;
+  private final FsyncPolicy fsyncPolicy;
+  private final int batchSize;
+  private final int initialSize;
+  private final ScheduledExecutorService flusher;
+  private final boolean created;
+
+  // guarded by this
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private long baseSequence;
+  private int position;
+  private long writtenSequence;
+  private ByteBuffer scratch = ByteBuffer.allocate(512);
+  private final CRC32C checksum = new CRC32C();
+
+  // guarded by syncLock, syncedSequence is also read without it as a fast path
+  private final Object syncLock = new Object();
+  private volatile long syncedSequence;
+  private int syncedPosition;
+
+  private WriteAheadLog(
+      Path path, FsyncPolicy fsyncPolicy, int batchSize, Duration flushInterval, int initialSize)
+      throws IOException {
+    this.path = path;
+    this.fsyncPolicy = fsyncPolicy;
+    this.batchSize = Math.max(1, batchSize);
+    this.initialSize = Math.max(initialSize, FILE_HEADER_SIZE);
+
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long existingSize = channel.size();
+      created = existingSize == 0;
+      if (existingSize > 0) {
+        verifyHeader(existingSize);
+      }
+      buffer = map(Math.max(existingSize, this.initialSize));
+      if (existingSize == 0) {
+        buffer.put(0, header(0), 0, FILE_HEADER_SIZE);
+        position = FILE_HEADER_SIZE;
+        buffer.force();
+      } else {
+        baseSequence = buffer.getLong(2 * Integer.BYTES);
+        writtenSequence = baseSequence;
+        position = findEnd();
+        clearTail();
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    syncedPosition = position;
+    syncedSequence = writtenSequence;
+
+    if (fsyncPolicy == FsyncPolicy.PER_OP) {
+      flusher = null;
+    } else {
+      flusher =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+              });
+      long millis = Math.max(1, flushInterval.toMillis());
+      flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public static WriteAheadLog open(
+      Path path, FsyncPolicy fsyncPolicy, int batchSize, Duration flushInterval, int initialSize)
+      throws IOException {
+    return new WriteAheadLog(path, fsyncPolicy, batchSize, flushInterval, initialSize);
+  }
+
+  /** Feeds every intact record to the consumer in log order and returns the number of records. */
+  public synchronized int replay(Consumer<Entry> consumer) {
+    return replay(baseSequence, consumer);
+  }
+
+  /**
+   * Feeds the intact records following the given sequence number to the consumer in log order and
+   * returns their number.
+   */
+  public synchronized int replay(long afterSequence, Consumer<Entry> consumer) {
+    if (afterSequence < baseSequence) {
+      throw new IllegalStateException(
+          "Write-ahead log "
+              + path
+              + " starts after sequence "
+              + baseSequence
+              + ", records up to "
+              + afterSequence
+              + " are required");
+    }
+    ByteBuffer view = buffer.duplicate();
+    int offset = FILE_HEADER_SIZE;
+    long sequence = baseSequence;
+    int count = 0;
+    while (offset < position) {
+      int length = view.getInt(offset);
+      if (++sequence > afterSequence) {
+        view.limit(offset + RECORD_HEADER_SIZE + length).position(offset + RECORD_HEADER_SIZE);
+        consumer.accept(decode(view));
+        view.limit(view.capacity());
+        count++;
+      }
+      offset += RECORD_HEADER_SIZE + length;
+    }
+    return count;
+  }
+
+  /** Returns the sequence number of the last appended record. */
+  public synchronized long sequence() {
+    return writtenSequence;
+  }
+
+  /**
+   * Drops all records up to and including the given sequence number, typically once a snapshot
+   * covering them is durable. The remaining records are copied into a new file that atomically
+   * replaces the current one.
+   */
+  public void discardUpTo(long sequence) throws IOException {
+    synchronized (syncLock) {
+      synchronized (this) {
+        if (sequence <= baseSequence) {
+          return;
+        }
+        if (sequence > writtenSequence) {
+          throw new IllegalArgumentException(
+              "Sequence " + sequence + " has not been written yet, last is " + writtenSequence);
+        }
+        int offset = FILE_HEADER_SIZE;
+        for (long skipped = baseSequence; skipped < sequence; skipped++) {
+          offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+        }
+        int remaining = position - offset;
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel target =
+            FileChannel.open(
+                temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+          ByteBuffer content =
+              ByteBuffer.allocate(FILE_HEADER_SIZE + remaining)
+                  .put(header(sequence))
+                  .put(buffer.slice(offset, remaining))
+                  .flip();
+          while (content.hasRemaining()) {
+            target.write(content);
+          }
+          target.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = map(Math.max(initialSize, FILE_HEADER_SIZE + remaining));
+        baseSequence = sequence;
+        position = FILE_HEADER_SIZE + remaining;
+        syncedPosition = position;
+        syncedSequence = writtenSequence;
+      }
+    }
+  }
+
+  /**
+   * Drops all records and continues counting after the given sequence number. Used when a snapshot
+   * covers more than the log still holds, so new records are not mistaken for covered ones.
+   */
+  public void rebase(long sequence) {
+    synchronized (syncLock) {
+      synchronized (this) {
+        if (sequence < writtenSequence) {
+          throw new IllegalArgumentException(
+              "Sequence " + sequence + " is behind the last record " + writtenSequence);
+        }
+        // records go first, a crash in between leaves an empty log that is rebased again
+        position = FILE_HEADER_SIZE;
+        clearTail();
+        buffer.put(0, header(sequence), 0, FILE_HEADER_SIZE);
+        buffer.force();
+        baseSequence = sequence;
+        writtenSequence = sequence;
+        syncedPosition = position;
+        syncedSequence = sequence;
+      }
+    }
+  }
+
+  /** Appends a record and returns its sequence number, to be passed to {@link #commit(long)}. */
+  public synchronized long append(Operation operation, PersonDto person) {
+    encode(operation, person);
+    int length = scratch.remaining();
+    checksum.reset();
+    checksum.update(scratch.array(), 0, length);
+
+    ensureCapacity(RECORD_HEADER_SIZE + length);
+    buffer.putInt(position, length);
+    buffer.putInt(position + Integer.BYTES, (int) checksum.getValue());
+    buffer.put(position + RECORD_HEADER_SIZE, scratch.array(), 0, length);
+    position += RECORD_HEADER_SIZE + length;
+    return ++writtenSequence;
+  }
+
+  /** Makes the record with the given sequence number durable as required by the fsync policy. */
+  public void commit(long sequence) {
+    switch (fsyncPolicy) {
+      case PER_OP -> sync(sequence);
+      case BATCHED -> {
+        if (sequence - syncedSequence >= batchSize) {
+          sync(sequence);
+        }
+      }
+      case INTERVAL -> {
+        // the background flusher takes care of it
+      }
+    }
+  }
+
+  /** Forces everything appended so far to disk, regardless of the fsync policy. */
+  public void flush() {
+    long sequence;
+    synchronized (this) {
+      sequence = writtenSequence;
+    }
+    sync(sequence);
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /** Returns whether the log file was missing or empty and has been created by this instance. */
+  public boolean isCreated() {
+    return created;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (flusher != null) {
+      flusher.shutdown();
+    }
+    flush();
+    synchronized (this) {
+      channel.close();
+    }
+  }
+
+  private void sync(long sequence) {
+    if (syncedSequence >= sequence) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (syncedSequence >= sequence) {
+        return;
+      }
+      MappedByteBuffer target;
+      int end;
+      long written;
+      synchronized (this) {
+        target = buffer;
+        end = position;
+        written = writtenSequence;
+      }
+      target.force(syncedPosition, end - syncedPosition);
+      syncedPosition = end;
+      syncedSequence = written;
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      logger.error("Failed to flush write-ahead log {}", path, e);
+    }
+  }
+
+  private void encode(Operation operation, PersonDto person) {
+    int required =
+        1
+            + (operation == Operation.DELETE
+                ? Integer.BYTES
+                : PersonBinaryCodec.maxEncodedSize(person));
+    if (scratch.capacity() < required) {
+      scratch = ByteBuffer.allocate(Math.max(required, scratch.capacity() * 2));
+    }
+    scratch.clear();
+    scratch.put((byte) operation.ordinal());
+    if (operation == Operation.DELETE) {
+      scratch.putInt(person.id());
+    } else {
+      PersonBinaryCodec.write(scratch, person);
+    }
+    scratch.flip();
+  }
+
+  private static Entry decode(ByteBuffer record) {
+    Operation operation = Operation.values()[record.get()];
+    if (operation == Operation.DELETE) {
+      return new Entry(operation, record.getInt(), null);
+    }
+    PersonDto person = PersonBinaryCodec.read(record);
+    return new Entry(operation, person.id(), person);
+  }
+
+  private void ensureCapacity(int bytes) {
+    long required = (long) position + bytes;
+    if (required <= buffer.capacity()) {
+      return;
+    }
+    if (required > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Write-ahead log " + path + " exceeds 2 GB");
+    }
+    buffer.force();
+    try {
+      buffer = map(Math.min(Integer.MAX_VALUE, Math.max(required, 2L * buffer.capacity())));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to grow write-ahead log " + path, e);
+    }
+  }
+
+  private static ByteBuffer header(long baseSequence) {
+    return ByteBuffer.allocate(FILE_HEADER_SIZE)
+        .putInt(MAGIC)
+        .putInt(VERSION)
+        .putLong(baseSequence)
+        .flip();
+  }
+
+  private MappedByteBuffer map(long size) throws IOException {
+    return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+  }
+
+  // Checked before mapping, which would otherwise grow a foreign file to the initial size
+  private void verifyHeader(long existingSize) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+    if (existingSize >= FILE_HEADER_SIZE) {
+      channel.read(header, 0);
+    }
+    if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException(path + " is not a write-ahead log of a supported version");
+    }
+  }
+
+  // Scans for the end of the last intact record, counting records along the way
+  private int findEnd() {
+    CRC32C crc = new CRC32C();
+    int offset = FILE_HEADER_SIZE;
+    while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(offset);
+      if (length <= 0 || (long) offset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+        break;
+      }
+      crc.reset();
+      crc.update(buffer.slice(offset + RECORD_HEADER_SIZE, length));
+      if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+        logger.warn("Write-ahead log {} has a torn record at offset {}", path, offset);
+        break;
+      }
+      offset += RECORD_HEADER_SIZE + length;
+      writtenSequence++;
+    }
+    return offset;
+  }
+
+  // Zeroes everything behind the last intact record so stale bytes are never mistaken for records
+  private void clearTail() {
+    byte[] zeros = new byte[64 * 1024];
+    for (int offset = position; offset < buffer.capacity(); offset += zeros.length) {
+      buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+    }
+    buffer.force();
+  }
+}
@@ -0,0 +1,280 @@
+package de.assecor.persons.service.impl.store;
+
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Mutable counterpart of {@link SearchIndex} for stores that resolve persons by id. Every posting
+ * list is a sorted primitive int array, so an indexed person costs four bytes per zip code, city
+ * and name trigram instead of a map node and a boxed id each. Not thread-safe, the owning store
+ * guards it with its own lock.
+ */
+final class IdSearchIndex {
+
+  private final Postings byZip = new Postings();
+  private final Postings byCity = new Postings();
+  private final Postings byTrigram = new Postings();
+
+  // zip keys with at least one person in ascending order, so prefix lookups skip absent zip codes
+  private int[] zipKeys = new int[16];
+  private int zipKeyCount;
+
+  void add(PersonDto person) {
+    int zip = SearchIndex.zipKey(person.zipCode());
+    if (zip >= 0) {
+      byZip.add(zip, person.id());
+      addZipKey(zip);
+    }
+    if (person.city() != null) {
+      byCity.add(person.city().hashCode(), person.id());
+    }
+    for (String trigram : NameFolding.nameTrigrams(person.firstName(), person.lastName())) {
+      byTrigram.add(SearchIndex.trigramKey(trigram), person.id());
+    }
+  }
+
+  void remove(PersonDto person) {
+    int zip = SearchIndex.zipKey(person.zipCode());
+    if (zip >= 0) {
+      byZip.remove(zip, person.id());
+      if (byZip.sizeOf(zip) == 0) {
+        removeZipKey(zip);
+      }
+    }
+    if (person.city() != null) {
+      byCity.remove(person.city().hashCode(), person.id());
+    }
+    for (String trigram : NameFolding.nameTrigrams(person.firstName(), person.lastName())) {
+      byTrigram.remove(SearchIndex.trigramKey(trigram), person.id());
+    }
+  }
+
+  /** Releases the spare capacity of all posting lists, typically once a bulk load is complete. */
+  void trimToSize() {
+    byZip.trimToSize();
+    byCity.trimToSize();
+    byTrigram.trimToSize();
+    zipKeys = Arrays.copyOf(zipKeys, zipKeyCount);
+  }
+
+  /**
+   * Visits the ids of all persons whose zip code starts with the given digits, by zip code and id.
+   * Only zip codes that exist are looked up, so the cost depends on the matches, not the prefix.
+   */
+  void forEachByZipPrefix(String prefix, IntConsumer action) {
+    int[] range = SearchIndex.zipKeyRange(prefix);
+    if (range == null) {
+      return;
+    }
+    int position = Arrays.binarySearch(zipKeys, 0, zipKeyCount, range[0]);
+    for (int i = position < 0 ? -position - 1 : position; i < zipKeyCount; i++) {
+      if (zipKeys[i] > range[1]) {
+        return;
+      }
+      byZip.forEach(zipKeys[i], action);
+    }
+  }
+
+  /** Visits the ids of all persons with the given city, plus hash collisions. */
+  void forEachCityCandidate(String city, IntConsumer action) {
+    byCity.forEach(city.hashCode(), action);
+  }
+
+  /**
+   * Visits ids of persons containing all trigrams of the folded query in ascending order until the
+   * action returns false. Walks the smallest posting list and probes the others by binary search.
+   */
+  void forEachNameCandidate(String foldedQuery, IntPredicate action) {
+    List<String> trigrams = NameFolding.trigrams(foldedQuery);
+    if (trigrams.isEmpty()) {
+      return;
+    }
+    int[] slots = new int[trigrams.size()];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = byTrigram.slotOf(SearchIndex.trigramKey(trigrams.get(i)));
+      if (slots[i] < 0 || byTrigram.sizes[slots[i]] == 0) {
+        return;
+      }
+    }
+    int smallest = slots[0];
+    for (int slot : slots) {
+      if (byTrigram.sizes[slot] < byTrigram.sizes[smallest]) {
+        smallest = slot;
+      }
+    }
+    int[] candidates = byTrigram.ids[smallest];
+    for (int i = 0; i < byTrigram.sizes[smallest]; i++) {
+      if (inAll(slots, smallest, candidates[i]) && !action.test(candidates[i])) {
+        return;
+      }
+    }
+  }
+
+  private void addZipKey(int zip) {
+    int position = Arrays.binarySearch(zipKeys, 0, zipKeyCount, zip);
+    if (position >= 0) {
+      return;
+    }
+    position = -position - 1;
+    if (zipKeyCount == zipKeys.length) {
+      zipKeys = Arrays.copyOf(zipKeys, Math.max(16, zipKeyCount + (zipKeyCount >> 1)));
+    }
+    System.arraycopy(zipKeys, position, zipKeys, position + 1, zipKeyCount - position);
+    zipKeys[position] = zip;
+    zipKeyCount++;
+  }
+
+  private void removeZipKey(int zip) {
+    int position = Arrays.binarySearch(zipKeys, 0, zipKeyCount, zip);
+    if (position >= 0) {
+      System.arraycopy(zipKeys, position + 1, zipKeys, position, zipKeyCount - position - 1);
+      zipKeyCount--;
+    }
+  }
+
+  private boolean inAll(int[] slots, int skipped, int id) {
+    for (int slot : slots) {
+      if (slot != skipped && !byTrigram.contains(slot, id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Open-addressing map from an int key to a sorted, growable int array. */
+  private static final class Postings {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] keys = new int[16];
+    // null marks a free slot, lists that became empty stay behind as EMPTY
+    private int[][] ids = new int[16][];
+    private int[] sizes = new int[16];
+    private int used;
+
+    private int slotOf(int key) {
+      int mask = keys.length - 1;
+      for (int slot = mix(key) & mask; ids[slot] != null; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    private void add(int key, int id) {
+      int slot = slotOf(key);
+      if (slot < 0) {
+        slot = insert(key);
+      }
+      int size = sizes[slot];
+      int[] list = ids[slot];
+      // ids mostly arrive in ascending order, so appending is the common case
+      int position =
+          size == 0 || list[size - 1] < id ? size : Arrays.binarySearch(list, 0, size, id);
+      if (position >= 0 && position < size) {
+        return;
+      }
+      position = position < 0 ? -position - 1 : position;
+      if (size == list.length) {
+        list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+        ids[slot] = list;
+      }
+      System.arraycopy(list, position, list, position + 1, size - position);
+      list[position] = id;
+      sizes[slot] = size + 1;
+    }
+
+    private void remove(int key, int id) {
+      int slot = slotOf(key);
+      if (slot < 0) {
+        return;
+      }
+      int size = sizes[slot];
+      int[] list = ids[slot];
+      int position = Arrays.binarySearch(list, 0, size, id);
+      if (position < 0) {
+        return;
+      }
+      System.arraycopy(list, position + 1, list, position, size - position - 1);
+      sizes[slot] = size - 1;
+      if (size == 1) {
+        ids[slot] = EMPTY;
+      }
+    }
+
+    private int sizeOf(int key) {
+      int slot = slotOf(key);
+      return slot < 0 ? 0 : sizes[slot];
+    }
+
+    private boolean contains(int slot, int id) {
+      return Arrays.binarySearch(ids[slot], 0, sizes[slot], id) >= 0;
+    }
+
+    private void forEach(int key, IntConsumer action) {
+      int slot = slotOf(key);
+      if (slot < 0) {
+        return;
+      }
+      int[] list = ids[slot];
+      for (int i = 0; i < sizes[slot]; i++) {
+        action.accept(list[i]);
+      }
+    }
+
+    private void trimToSize() {
+      for (int slot = 0; slot < ids.length; slot++) {
+        if (ids[slot] != null && ids[slot].length > sizes[slot]) {
+          ids[slot] = sizes[slot] == 0 ? EMPTY : Arrays.copyOf(ids[slot], sizes[slot]);
+        }
+      }
+    }
+
+    private int insert(int key) {
+      if (2 * (used + 1) > keys.length) {
+        resize(2 * keys.length);
+      }
+      int mask = keys.length - 1;
+      int slot = mix(key) & mask;
+      while (ids[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      ids[slot] = EMPTY;
+      used++;
+      return slot;
+    }
+
+    private void resize(int capacity) {
+      int[] oldKeys = keys;
+      int[][] oldIds = ids;
+      int[] oldSizes = sizes;
+      keys = new int[capacity];
+      ids = new int[capacity][];
+      sizes = new int[capacity];
+      int mask = capacity - 1;
+      for (int old = 0; old < oldIds.length; old++) {
+        if (oldIds[old] != null) {
+          int slot = mix(oldKeys[old]) & mask;
+          while (ids[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[old];
+          ids[slot] = oldIds[old];
+          sizes[slot] = oldSizes[old];
+        }
+      }
+    }
+
+    // zip codes and packed trigrams are clustered, spread them before masking
+    private static int mix(int key) {
+      int hash = key * 0x9E3779B9;
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
@@ -0,0 +1,671 @@
+package de.assecor.persons.service.impl.store;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar person store that keeps all data in direct (off-heap) buffers. Ids and color ids are
+ * stored as primitive int columns, the four string fields of a row as consecutive length-prefixed
+ * UTF-8 values in one shared byte region. {@link PersonDto} instances are only created when a row
+ * is read, so the heap holds little more than the per-color id bitmaps and the search postings,
+ * which are primitive int arrays of ids.
+ *
+ * <p>Updates write the new strings to the end of the byte region and deletes only clear the row,
+ * the space left behind is reclaimed by compacting all columns once it outweighs the live data.
+ *
+ * <p>{@link #view()} freezes the current column buffers instead of copying them. The first write
+ * after that copies an int column before changing a slot the view can see, the append-only byte
+ * region is never copied.
+ */
+public class OffHeapPersonStore implements PersonStore {
+
+  private static final int INITIAL_ROWS = 1024;
+  private static final int INITIAL_STRING_BYTES = 64 * 1024;
+  private static final int MIN_COMPACTION_BYTES = 1024 * 1024;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by lock
+  private Columns columns = new Columns(INITIAL_ROWS, INITIAL_STRING_BYTES);
+
+  @Override
+  public PersonDto get(int id) {
+    lock.readLock().lock();
+    try {
+      int row = columns.rowOf(id);
+      return row < 0 ? null : columns.read(row);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> getAll() {
+    lock.readLock().lock();
+    try {
+      List<PersonDto> result = new ArrayList<>(columns.liveRows);
+      for (int id = 1; id <= columns.maxId; id++) {
+        int row = columns.rowOf(id);
+        if (row >= 0) {
+          result.add(columns.read(row));
+        }
+      }
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> getAfter(int afterId, int limit) {
+    lock.readLock().lock();
+    try {
+      List<PersonDto> result = new ArrayList<>(Math.min(limit, columns.liveRows));
+      for (int id = Math.max(afterId, 0) + 1; id <= columns.maxId && result.size() < limit; id++) {
+        int row = columns.rowOf(id);
+        if (row >= 0) {
+          result.add(columns.read(row));
+        }
+      }
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> getByColor(Color color) {
+    lock.readLock().lock();
+    try {
+      BitSet ids = columns.idsByColor.get(color);
+      List<PersonDto> result = new ArrayList<>(ids.cardinality());
+      for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+        result.add(columns.read(columns.rowOf(id)));
+      }
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> findByZipPrefix(String prefix) {
+    lock.readLock().lock();
+    try {
+      List<PersonDto> result = new ArrayList<>();
+      columns.search.forEachByZipPrefix(prefix, id -> result.add(columns.read(columns.rowOf(id))));
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> findByCity(String city) {
+    lock.readLock().lock();
+    try {
+      List<PersonDto> result = new ArrayList<>();
+      columns.search.forEachCityCandidate(
+          city,
+          id -> {
+            PersonDto person = columns.read(columns.rowOf(id));
+            if (city.equals(person.city())) {
+              result.add(person);
+            }
+          });
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<PersonDto> findByName(String query, int limit) {
+    String folded = NameFolding.fold(query);
+    lock.readLock().lock();
+    try {
+      List<PersonDto> result = new ArrayList<>();
+      columns.search.forEachNameCandidate(
+          folded,
+          id -> {
+            PersonDto person = columns.read(columns.rowOf(id));
+            if (NameFolding.matches(person.firstName(), person.lastName(), folded)) {
+              result.add(person);
+            }
+            return result.size() < limit;
+          });
+      return Collections.unmodifiableList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return columns.liveRows;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // takes the write lock only to mark the buffers as shared, which is O(1)
+  @Override
+  public Collection<PersonDto> view() {
+    lock.writeLock().lock();
+    try {
+      return columns.freeze();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void insert(PersonDto person) {
+    lock.writeLock().lock();
+    try {
+      if (columns.rowOf(person.id()) >= 0) {
+        throw new IllegalStateException("Person with id " + person.id() + " already exists");
+      }
+      columns.append(person);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void insertAll(List<PersonDto> persons) {
+    lock.writeLock().lock();
+    try {
+      for (PersonDto person : persons) {
+        if (columns.rowOf(person.id()) >= 0) {
+          throw new IllegalStateException("Person with id " + person.id() + " already exists");
+        }
+      }
+      persons.forEach(columns::append);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public PersonDto replace(PersonDto person) {
+    lock.writeLock().lock();
+    try {
+      int row = columns.rowOf(person.id());
+      if (row < 0) {
+        return null;
+      }
+      PersonDto previous = columns.read(row);
+      columns.overwrite(row, previous, person);
+      compactIfNeeded();
+      return previous;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public PersonDto remove(int id) {
+    lock.writeLock().lock();
+    try {
+      int row = columns.rowOf(id);
+      if (row < 0) {
+        return null;
+      }
+      PersonDto previous = columns.read(row);
+      columns.delete(row, previous);
+      compactIfNeeded();
+      return previous;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public BulkLoader bulkLoader() {
+    return new OffHeapBulkLoader();
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      columns = new Columns(INITIAL_ROWS, INITIAL_STRING_BYTES);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // @VisibleForTesting(otherwise = VisibleForTesting.AccessModifier.PRIVATE)
+  long offHeapBytes() {
+    lock.readLock().lock();
+    try {
+      return columns.capacityBytes();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void compactIfNeeded() {
+    Columns current = columns;
+    long garbage = current.garbageBytes;
+    boolean stringsWasted = garbage > MIN_COMPACTION_BYTES && garbage > current.stringsEnd / 2;
+    boolean rowsWasted =
+        current.rowCount > INITIAL_ROWS && current.rowCount - current.liveRows > current.liveRows;
+    if (stringsWasted || rowsWasted) {
+      columns = current.compact();
+    }
+  }
+
+  private final class OffHeapBulkLoader implements BulkLoader {
+
+    private final Columns loaded = new Columns(INITIAL_ROWS, INITIAL_STRING_BYTES);
+    private int lastId;
+
+    @Override
+    public BulkLoader add(PersonDto person) {
+      if (person.id() <= lastId) {
+        throw new IllegalArgumentException(
+            "Ids must be added in ascending order, got " + person.id());
+      }
+      loaded.append(person);
+      lastId = person.id();
+      return this;
+    }
+
+    @Override
+    public int size() {
+      return loaded.liveRows;
+    }
+
+    @Override
+    public void publish() {
+      loaded.search.trimToSize();
+      lock.writeLock().lock();
+      try {
+        columns = loaded;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** One generation of column buffers. Not thread-safe, guarded by the enclosing store's lock. */
+  private static final class Columns {
+
+    private static final int NO_ROW = 0;
+
+    // id -> row + 1, so the zeroed memory of a fresh buffer means "no row"
+    private IntBuffer rowById;
+    private IntBuffer ids;
+    private IntBuffer colors;
+    private IntBuffer stringOffsets;
+    private ByteBuffer strings;
+
+    // int columns a frozen view still reads, copied before the next write to one of them
+    private final Set<IntBuffer> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int sharedMaxId;
+
+    private final Map<Color, BitSet> idsByColor = new EnumMap<>(Color.class);
+    // lookups only need the id, the person is read from the columns
+    private final IdSearchIndex search;
+
+    private int rowCount;
+    private int liveRows;
+    private int maxId;
+    private int stringsEnd;
+    private long garbageBytes;
+
+    private Columns(int rows, int stringBytes) {
+      this(rows, stringBytes, new IdSearchIndex());
+    }
+
+    // compaction only moves rows, so the new generation takes over the search index
+    private Columns(int rows, int stringBytes, IdSearchIndex search) {
+      this.search = search;
+      rowById = allocateInts(rows);
+      ids = allocateInts(rows);
+      colors = allocateInts(rows);
+      stringOffsets = allocateInts(rows);
+      strings = ByteBuffer.allocateDirect(stringBytes);
+      for (Color color : Color.values()) {
+        idsByColor.put(color, new BitSet());
+      }
+    }
+
+    private int rowOf(int id) {
+      if (id <= 0 || id >= rowById.capacity()) {
+        return -1;
+      }
+      return rowById.get(id) - 1;
+    }
+
+    private PersonDto read(int row) {
+      return read(ids, colors, stringOffsets, strings, row);
+    }
+
+    private Frozen freeze() {
+      shared.clear();
+      shared.addAll(List.of(rowById, ids, colors, stringOffsets));
+      sharedMaxId = maxId;
+      return new Frozen(rowById, ids, colors, stringOffsets, strings, maxId, liveRows);
+    }
+
+    private IntBuffer writable(IntBuffer column) {
+      return shared.remove(column) ? copyInts(column, column.capacity()) : column;
+    }
+
+    private void append(PersonDto person) {
+      if (person.id() <= 0) {
+        throw new IllegalArgumentException("Person id must be positive, got " + person.id());
+      }
+      ensureRowCapacity(rowCount + 1);
+      ensureIdCapacity(person.id());
+
+      // a frozen view reads rows below its row count and ids up to its max id only
+      if (person.id() <= sharedMaxId) {
+        rowById = writable(rowById);
+      }
+      int row = rowCount++;
+      ids.put(row, person.id());
+      colors.put(row, person.favoriteColor());
+      stringOffsets.put(row, writeStrings(person));
+      rowById.put(person.id(), row + 1);
+      index(person);
+      liveRows++;
+      maxId = Math.max(maxId, person.id());
+    }
+
+    private void overwrite(int row, PersonDto previous, PersonDto person) {
+      garbageBytes += recordLength(stringOffsets.get(row));
+      colors = writable(colors);
+      stringOffsets = writable(stringOffsets);
+      colors.put(row, person.favoriteColor());
+      stringOffsets.put(row, writeStrings(person));
+      unindex(previous);
+      index(person);
+    }
+
+    private void delete(int row, PersonDto previous) {
+      garbageBytes += recordLength(stringOffsets.get(row));
+      rowById = writable(rowById);
+      ids = writable(ids);
+      rowById.put(previous.id(), NO_ROW);
+      ids.put(row, 0);
+      unindex(previous);
+      liveRows--;
+    }
+
+    // Copies all live rows in id order into fresh, right-sized buffers
+    private Columns compact() {
+      long liveBytes = stringsEnd - garbageBytes;
+      Columns compacted =
+          new Columns(
+              Math.max(INITIAL_ROWS, liveRows + (liveRows >> 1)),
+              (int) Math.max(INITIAL_STRING_BYTES, liveBytes + (liveBytes >> 1)),
+              search);
+      compacted.ensureIdCapacity(maxId);
+      for (int id = 1; id <= maxId; id++) {
+        int row = rowOf(id);
+        if (row >= 0) {
+          int offset = stringOffsets.get(row);
+          int length = recordLength(offset);
+          int newRow = compacted.rowCount++;
+          compacted.ids.put(newRow, id);
+          compacted.colors.put(newRow, colors.get(row));
+          compacted.stringOffsets.put(newRow, compacted.stringsEnd);
+          compacted.strings.put(compacted.stringsEnd, strings, offset, length);
+          compacted.stringsEnd += length;
+          compacted.rowById.put(id, newRow + 1);
+          compacted.liveRows++;
+        }
+      }
+      compacted.maxId = maxId;
+      idsByColor.forEach((color, colorIds) -> compacted.idsByColor.put(color, colorIds));
+      return compacted;
+    }
+
+    private long capacityBytes() {
+      long intColumns =
+          (long) rowById.capacity() + ids.capacity() + colors.capacity() + stringOffsets.capacity();
+      return intColumns * Integer.BYTES + strings.capacity();
+    }
+
+    private void index(PersonDto person) {
+      if (Color.isValidId(person.favoriteColor())) {
+        idsByColor.get(Color.fromId(person.favoriteColor())).set(person.id());
+      }
+      search.add(person);
+    }
+
+    private void unindex(PersonDto person) {
+      if (Color.isValidId(person.favoriteColor())) {
+        idsByColor.get(Color.fromId(person.favoriteColor())).clear(person.id());
+      }
+      search.remove(person);
+    }
+
+    private int writeStrings(PersonDto person) {
+      byte[] firstName = encode(person.firstName());
+      byte[] lastName = encode(person.lastName());
+      byte[] zipCode = encode(person.zipCode());
+      byte[] city = encode(person.city());
+      ensureStringCapacity(
+          stringsEnd
+              + 4 * 5
+              + lengthOf(firstName)
+              + lengthOf(lastName)
+              + lengthOf(zipCode)
+              + lengthOf(city));
+
+      int offset = stringsEnd;
+      writeString(firstName);
+      writeString(lastName);
+      writeString(zipCode);
+      writeString(city);
+      return offset;
+    }
+
+    // A length prefix of 0 marks null, otherwise it is the UTF-8 byte length plus one
+    private void writeString(byte[] value) {
+      stringsEnd = writeVarInt(value == null ? 0 : value.length + 1);
+      if (value != null) {
+        strings.put(stringsEnd, value);
+        stringsEnd += value.length;
+      }
+    }
+
+    private static PersonDto read(
+        IntBuffer ids, IntBuffer colors, IntBuffer stringOffsets, ByteBuffer strings, int row) {
+      int[] cursor = {stringOffsets.get(row)};
+      String firstName = readString(strings, cursor);
+      String lastName = readString(strings, cursor);
+      String zipCode = readString(strings, cursor);
+      String city = readString(strings, cursor);
+      return new PersonDto(ids.get(row), firstName, lastName, zipCode, city, colors.get(row));
+    }
+
+    private static String readString(ByteBuffer strings, int[] cursor) {
+      int prefix = readVarInt(strings, cursor);
+      if (prefix == 0) {
+        return null;
+      }
+      int length = prefix - 1;
+      byte[] bytes = new byte[length];
+      strings.get(cursor[0], bytes);
+      cursor[0] += length;
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int recordLength(int offset) {
+      int[] cursor = {offset};
+      for (int field = 0; field < 4; field++) {
+        int prefix = readVarInt(strings, cursor);
+        cursor[0] += Math.max(0, prefix - 1);
+      }
+      return cursor[0] - offset;
+    }
+
+    private int writeVarInt(int value) {
+      int position = stringsEnd;
+      while ((value & ~0x7F) != 0) {
+        strings.put(position++, (byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      strings.put(position++, (byte) value);
+      return position;
+    }
+
+    private static int readVarInt(ByteBuffer strings, int[] cursor) {
+      int value = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = strings.get(cursor[0]++);
+        value |= (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0);
+      return value;
+    }
+
+    private void ensureRowCapacity(int rows) {
+      if (rows > ids.capacity()) {
+        int capacity = grow(ids.capacity(), rows);
+        shared.removeAll(List.of(ids, colors, stringOffsets));
+        ids = copyInts(ids, capacity);
+        colors = copyInts(colors, capacity);
+        stringOffsets = copyInts(stringOffsets, capacity);
+      }
+    }
+
+    private void ensureIdCapacity(int id) {
+      if (id >= rowById.capacity()) {
+        shared.remove(rowById);
+        rowById = copyInts(rowById, grow(rowById.capacity(), id + 1));
+      }
+    }
+
+    private void ensureStringCapacity(long bytes) {
+      if (bytes > Integer.MAX_VALUE - 8) {
+        throw new IllegalStateException("Off-heap string region exceeds 2 GB");
+      }
+      if (bytes > strings.capacity()) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(grow(strings.capacity(), (int) bytes));
+        grown.put(0, strings, 0, stringsEnd);
+        strings = grown;
+      }
+    }
+
+    private static int grow(int current, int required) {
+      long capacity = Math.max((long) current + (current >> 1), required);
+      return (int) Math.min(capacity, Integer.MAX_VALUE - 8);
+    }
+
+    private static IntBuffer allocateInts(int capacity) {
+      return ByteBuffer.allocateDirect(capacity * Integer.BYTES)
+          .order(ByteOrder.nativeOrder())
+          .asIntBuffer();
+    }
+
+    private static IntBuffer copyInts(IntBuffer source, int capacity) {
+      IntBuffer copy = allocateInts(capacity);
+      copy.put(0, source, 0, source.capacity());
+      return copy;
+    }
+
+    private static byte[] encode(String value) {
+      return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] value) {
+      return value == null ? 0 : value.length;
+    }
+  }
+
+  /**
+   * Point-in-time view over one set of column buffers. The owning store never writes to a slot the
+   * view reads, so it is iterated without the lock.
+   */
+  private static final class Frozen extends AbstractCollection<PersonDto> {
+
+    private final IntBuffer rowById;
+    private final IntBuffer ids;
+    private final IntBuffer colors;
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer strings;
+    private final int maxId;
+    private final int size;
+
+    private Frozen(
+        IntBuffer rowById,
+        IntBuffer ids,
+        IntBuffer colors,
+        IntBuffer stringOffsets,
+        ByteBuffer strings,
+        int maxId,
+        int size) {
+      this.rowById = rowById;
+      this.ids = ids;
+      this.colors = colors;
+      this.stringOffsets = stringOffsets;
+      this.strings = strings;
+      this.maxId = maxId;
+      this.size = size;
+    }
+
+    @Override
+    public Iterator<PersonDto> iterator() {
+      return new Iterator<>() {
+        private int id = nextId(0);
+
+        @Override
+        public boolean hasNext() {
+          return id <= maxId;
+        }
+
+        @Override
+        public PersonDto next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int row = rowById.get(id) - 1;
+          id = nextId(id);
+          return Columns.read(ids, colors, stringOffsets, strings, row);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    private int nextId(int id) {
+      do {
+        id++;
+      } while (id <= maxId && rowById.get(id) == Columns.NO_ROW);
+      return id;
+    }
+  }
+}
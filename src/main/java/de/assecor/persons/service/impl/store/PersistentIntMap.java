@@ -0,0 +1,392 @@
+package de.assecor.persons.service.impl.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Immutable map with primitive {@code int} keys, implemented as a bitmap compressed 32-way trie
+ * (HAMT style array mapped nodes) over the key bits. Every update copies only the path from the
+ * root to the changed leaf and shares all other nodes with the previous version, so writes cost
+ * O(log32 n) and any version can be read concurrently without locking.
+ *
+ * <p>The trie consumes the key from its most significant bits downwards, which makes iteration
+ * order ascending by key (keys are compared as unsigned values).
+ */
+public final class PersistentIntMap<V> implements Iterable<V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_SHIFT = 30;
+
+  private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0, 0);
+
+  private final Node root;
+  private final int shift;
+  private final int size;
+
+  private PersistentIntMap(Node root, int shift, int size) {
+    this.root = root;
+    this.shift = shift;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentIntMap<V> empty() {
+    return (PersistentIntMap<V>) EMPTY;
+  }
+
+  public static <V> Builder<V> builder() {
+    return new Builder<>();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(int key) {
+    if (root == null || !fits(key, shift)) {
+      return null;
+    }
+    Node node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Node) node.child((key >>> level) & MASK);
+      if (node == null) {
+        return null;
+      }
+    }
+    return (V) node.child(key & MASK);
+  }
+
+  public boolean containsKey(int key) {
+    return get(key) != null;
+  }
+
+  public PersistentIntMap<V> put(int key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported");
+    }
+
+    Node newRoot = root;
+    int newShift = root == null ? 0 : shift;
+    while (!fits(key, newShift)) {
+      // grow the trie by one level, the current root becomes the first child of the new root
+      if (newRoot != null) {
+        newRoot = new Node(1, new Object[] {newRoot});
+      }
+      newShift += BITS;
+    }
+
+    boolean[] added = new boolean[1];
+    Node updated = put(newRoot, newShift, key, value, added);
+    return new PersistentIntMap<>(updated, newShift, added[0] ? size + 1 : size);
+  }
+
+  public PersistentIntMap<V> remove(int key) {
+    if (!containsKey(key)) {
+      return this;
+    }
+    Node updated = remove(root, shift, key);
+    return updated == null ? empty() : new PersistentIntMap<>(updated, shift, size - 1);
+  }
+
+  /** Visits all values in ascending key order. */
+  public void forEach(Consumer<? super V> action) {
+    if (root != null) {
+      forEach(root, shift, action);
+    }
+  }
+
+  /** Visits the values of all keys between both bounds (inclusive) in ascending key order. */
+  public void forEachInRange(int fromKey, int toKey, Consumer<? super V> action) {
+    if (root != null && Integer.compareUnsigned(fromKey, toKey) <= 0) {
+      forEachInRange(root, shift, 0, fromKey, toKey, action);
+    }
+  }
+
+  /** Iterates all values in ascending key order. */
+  @Override
+  public Iterator<V> iterator() {
+    return new ValueIterator<>(root, shift);
+  }
+
+  /** Iterates the values of all keys greater than the given one in ascending key order. */
+  public Iterator<V> iteratorAfter(int key) {
+    ValueIterator<V> iterator = new ValueIterator<>(null, shift);
+    if (root != null && fits(key, shift)) {
+      iterator.seekAfter(root, shift, key);
+    }
+    return iterator;
+  }
+
+  public List<V> values() {
+    List<V> values = new ArrayList<>(size);
+    forEach(values::add);
+    return values;
+  }
+
+  /**
+   * Builds a map from entries added in strictly ascending key order in a single bottom-up pass,
+   * without creating the intermediate versions that repeated {@link #put} calls would.
+   */
+  public static final class Builder<V> {
+
+    private int[] keys = new int[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    private Builder() {}
+
+    public Builder<V> add(int key, V value) {
+      if (value == null) {
+        throw new IllegalArgumentException("Null values are not supported");
+      }
+      if (size > 0 && Integer.compareUnsigned(key, keys[size - 1]) <= 0) {
+        throw new IllegalArgumentException("Keys must be added in ascending order, got " + key);
+      }
+      if (size == keys.length) {
+        int capacity = size + (size >> 1);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+      }
+      keys[size] = key;
+      values[size] = value;
+      size++;
+      return this;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public PersistentIntMap<V> build() {
+      if (size == 0) {
+        return empty();
+      }
+      int shift = 0;
+      while (!fits(keys[size - 1], shift)) {
+        shift += BITS;
+      }
+      return new PersistentIntMap<>(build(0, size, shift), shift, size);
+    }
+
+    private Node build(int from, int to, int level) {
+      int bitmap = 0;
+      Object[] children = new Object[Math.min(to - from, MASK + 1)];
+      int count = 0;
+      int start = from;
+      while (start < to) {
+        int index = (keys[start] >>> level) & MASK;
+        int end = start + 1;
+        while (end < to && ((keys[end] >>> level) & MASK) == index) {
+          end++;
+        }
+        bitmap |= 1 << index;
+        children[count++] = level == 0 ? values[start] : build(start, end, level - BITS);
+        start = end;
+      }
+      return new Node(bitmap, count < children.length ? Arrays.copyOf(children, count) : children);
+    }
+  }
+
+  private static Node put(Node node, int level, int key, Object value, boolean[] added) {
+    int index = (key >>> level) & MASK;
+    if (level == 0) {
+      if (node == null || !node.has(index)) {
+        added[0] = true;
+      }
+      return node == null ? new Node(1 << index, new Object[] {value}) : node.with(index, value);
+    }
+
+    Node child = node == null ? null : (Node) node.child(index);
+    Node updatedChild = put(child, level - BITS, key, value, added);
+    if (node == null) {
+      return new Node(1 << index, new Object[] {updatedChild});
+    }
+    return node.with(index, updatedChild);
+  }
+
+  private static Node remove(Node node, int level, int key) {
+    int index = (key >>> level) & MASK;
+    if (level == 0) {
+      return node.without(index);
+    }
+    Node updatedChild = remove((Node) node.child(index), level - BITS, key);
+    return updatedChild == null ? node.without(index) : node.with(index, updatedChild);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void forEach(Node node, int level, Consumer<? super V> action) {
+    for (Object child : node.children) {
+      if (level == 0) {
+        action.accept((V) child);
+      } else {
+        forEach((Node) child, level - BITS, action);
+      }
+    }
+  }
+
+  // Only descends into children whose key range overlaps the requested one
+  @SuppressWarnings("unchecked")
+  private static <V> void forEachInRange(
+      Node node, int level, int prefix, int from, int to, Consumer<? super V> action) {
+    int position = 0;
+    for (int bits = node.bitmap; bits != 0; bits &= bits - 1, position++) {
+      int low = prefix | (Integer.numberOfTrailingZeros(bits) << level);
+      int high = low | ((1 << level) - 1);
+      if (Integer.compareUnsigned(high, from) < 0) {
+        continue;
+      }
+      if (Integer.compareUnsigned(low, to) > 0) {
+        return;
+      }
+      Object child = node.children[position];
+      if (level == 0) {
+        action.accept((V) child);
+      } else {
+        forEachInRange((Node) child, level - BITS, low, from, to, action);
+      }
+    }
+  }
+
+  // Depth-first walk with an explicit stack, the trie is at most seven levels deep
+  private static final class ValueIterator<V> implements Iterator<V> {
+
+    private final Node[] nodes = new Node[MAX_SHIFT / BITS + 1];
+    private final int[] positions = new int[nodes.length];
+    private int depth = -1;
+    private int leafDepth;
+    private Object next;
+
+    private ValueIterator(Node root, int shift) {
+      if (root != null) {
+        leafDepth = shift / BITS;
+        nodes[0] = root;
+        depth = 0;
+        advance();
+      }
+    }
+
+    // Positions the stack on the path of the given key, skipping everything up to and including it
+    private void seekAfter(Node root, int shift, int key) {
+      leafDepth = shift / BITS;
+      nodes[0] = root;
+      depth = 0;
+      for (int level = shift; ; level -= BITS) {
+        Node node = nodes[depth];
+        int index = (key >>> level) & MASK;
+        int below = Integer.bitCount(node.bitmap & ((1 << index) - 1));
+        if (depth == leafDepth) {
+          positions[depth] = node.has(index) ? below + 1 : below;
+          break;
+        }
+        if (!node.has(index)) {
+          positions[depth] = below;
+          break;
+        }
+        positions[depth] = below + 1;
+        nodes[++depth] = (Node) node.children[below];
+      }
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Object current = next;
+      advance();
+      return (V) current;
+    }
+
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Node node = nodes[depth];
+        int position = positions[depth];
+        if (position == node.children.length) {
+          positions[depth--] = 0;
+          continue;
+        }
+        positions[depth] = position + 1;
+        if (depth == leafDepth) {
+          next = node.children[position];
+          return;
+        }
+        nodes[++depth] = (Node) node.children[position];
+      }
+    }
+  }
+
+  private static boolean fits(int key, int shift) {
+    return shift >= MAX_SHIFT || (key >>> (shift + BITS)) == 0;
+  }
+
+  private static final class Node {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private Node(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private boolean has(int index) {
+      return (bitmap & (1 << index)) != 0;
+    }
+
+    private Object child(int index) {
+      int bit = 1 << index;
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      return children[Integer.bitCount(bitmap & (bit - 1))];
+    }
+
+    private Node with(int index, Object child) {
+      int bit = 1 << index;
+      int position = Integer.bitCount(bitmap & (bit - 1));
+      if ((bitmap & bit) != 0) {
+        Object[] copy = children.clone();
+        copy[position] = child;
+        return new Node(bitmap, copy);
+      }
+      Object[] copy = new Object[children.length + 1];
+      System.arraycopy(children, 0, copy, 0, position);
+      copy[position] = child;
+      System.arraycopy(children, position, copy, position + 1, children.length - position);
+      return new Node(bitmap | bit, copy);
+    }
+
+    private Node without(int index) {
+      int bit = 1 << index;
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      if (children.length == 1) {
+        return null;
+      }
+      int position = Integer.bitCount(bitmap & (bit - 1));
+      Object[] copy = new Object[children.length - 1];
+      System.arraycopy(children, 0, copy, 0, position);
+      System.arraycopy(children, position + 1, copy, position, copy.length - position);
+      return new Node(bitmap & ~bit, copy);
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package de.assecor.persons.service.impl.store;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Person store built on {@link PersistentIntMap}. Every write publishes a new immutable {@link
+ * Snapshot}, so readers never lock and always see a consistent view, while writers only copy the
+ * O(log n) trie paths they touch.
+ */
+public class PersistentPersonStore implements PersonStore {
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  @Override
+  public PersonDto get(int id) {
+    return snapshot.byId.get(id);
+  }
+
+  @Override
+  public List<PersonDto> getAll() {
+    return new ValuesView(snapshot.byId);
+  }
+
+  @Override
+  public List<PersonDto> getAfter(int afterId, int limit) {
+    PersistentIntMap<PersonDto> byId = snapshot.byId;
+    Iterator<PersonDto> iterator = afterId < 0 ? byId.iterator() : byId.iteratorAfter(afterId);
+    List<PersonDto> result = new ArrayList<>(Math.min(limit, byId.size()));
+    while (result.size() < limit && iterator.hasNext()) {
+      result.add(iterator.next());
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public List<PersonDto> getByColor(Color color) {
+    return Collections.unmodifiableList(snapshot.byColor.get(color).values());
+  }
+
+  @Override
+  public List<PersonDto> findByZipPrefix(String prefix) {
+    List<PersonDto> result = new ArrayList<>();
+    snapshot.search.forEachByZipPrefix(prefix, result::add);
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public List<PersonDto> findByCity(String city) {
+    List<PersonDto> result = new ArrayList<>();
+    snapshot.search.forEachCityCandidate(
+        city,
+        person -> {
+          if (city.equals(person.city())) {
+            result.add(person);
+          }
+        });
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public List<PersonDto> findByName(String query, int limit) {
+    String folded = NameFolding.fold(query);
+    List<PersonDto> result = new ArrayList<>();
+    snapshot.search.forEachNameCandidate(
+        folded,
+        PersonDto::id,
+        person -> {
+          if (NameFolding.matches(person.firstName(), person.lastName(), folded)) {
+            result.add(person);
+          }
+          return result.size() < limit;
+        });
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public int size() {
+    return snapshot.byId.size();
+  }
+
+  @Override
+  public Collection<PersonDto> view() {
+    return getAll();
+  }
+
+  // iterates one immutable version, so the stream is consistent and copies nothing
+  @Override
+  public Stream<PersonDto> stream() {
+    return view().stream();
+  }
+
+  @Override
+  public synchronized void insert(PersonDto person) {
+    Snapshot current = snapshot;
+    snapshot =
+        new Snapshot(
+            current.byId.put(person.id(), person),
+            withColor(current.byColor, person),
+            current.search.with(person, person));
+  }
+
+  // applies all puts to one version and publishes it once
+  @Override
+  public synchronized void insertAll(List<PersonDto> persons) {
+    Snapshot current = snapshot;
+    PersistentIntMap<PersonDto> byId = current.byId;
+    Map<Color, PersistentIntMap<PersonDto>> byColor = new EnumMap<>(current.byColor);
+    SearchIndex<PersonDto> search = current.search;
+    for (PersonDto person : persons) {
+      byId = byId.put(person.id(), person);
+      if (Color.isValidId(person.favoriteColor())) {
+        Color color = Color.fromId(person.favoriteColor());
+        byColor.put(color, byColor.get(color).put(person.id(), person));
+      }
+      search = search.with(person, person);
+    }
+    snapshot = new Snapshot(byId, byColor, search);
+  }
+
+  @Override
+  public synchronized PersonDto replace(PersonDto person) {
+    Snapshot current = snapshot;
+    PersonDto previous = current.byId.get(person.id());
+    if (previous == null) {
+      return null;
+    }
+    Map<Color, PersistentIntMap<PersonDto>> byColor = withoutColor(current.byColor, previous);
+    snapshot =
+        new Snapshot(
+            current.byId.put(person.id(), person),
+            withColor(byColor, person),
+            current.search.without(previous).with(person, person));
+    return previous;
+  }
+
+  @Override
+  public synchronized PersonDto remove(int id) {
+    Snapshot current = snapshot;
+    PersonDto previous = current.byId.get(id);
+    if (previous == null) {
+      return null;
+    }
+    snapshot =
+        new Snapshot(
+            current.byId.remove(id),
+            withoutColor(current.byColor, previous),
+            current.search.without(previous));
+    return previous;
+  }
+
+  @Override
+  public BulkLoader bulkLoader() {
+    return new PersistentBulkLoader();
+  }
+
+  @Override
+  public synchronized void clear() {
+    snapshot = Snapshot.EMPTY;
+  }
+
+  // persons with an unknown color id can never be queried by color, so they are not indexed
+  private static Map<Color, PersistentIntMap<PersonDto>> withColor(
+      Map<Color, PersistentIntMap<PersonDto>> byColor, PersonDto person) {
+    if (!Color.isValidId(person.favoriteColor())) {
+      return byColor;
+    }
+    Color color = Color.fromId(person.favoriteColor());
+    Map<Color, PersistentIntMap<PersonDto>> copy = new EnumMap<>(byColor);
+    copy.put(color, byColor.get(color).put(person.id(), person));
+    return copy;
+  }
+
+  private static Map<Color, PersistentIntMap<PersonDto>> withoutColor(
+      Map<Color, PersistentIntMap<PersonDto>> byColor, PersonDto person) {
+    if (!Color.isValidId(person.favoriteColor())) {
+      return byColor;
+    }
+    Color color = Color.fromId(person.favoriteColor());
+    Map<Color, PersistentIntMap<PersonDto>> copy = new EnumMap<>(byColor);
+    copy.put(color, byColor.get(color).remove(person.id()));
+    return copy;
+  }
+
+  /**
+   * Collects persons in ascending id order and builds the id and color tries bottom-up in one
+   * pass. Nothing is visible to readers until {@link #publish()} swaps in the finished snapshot.
+   */
+  private final class PersistentBulkLoader implements BulkLoader {
+
+    private final PersistentIntMap.Builder<PersonDto> byId = PersistentIntMap.builder();
+    private final Map<Color, PersistentIntMap.Builder<PersonDto>> byColor =
+        new EnumMap<>(Color.class);
+    private final SearchIndex.Builder<PersonDto> search = SearchIndex.builder();
+
+    private PersistentBulkLoader() {
+      for (Color color : Color.values()) {
+        byColor.put(color, PersistentIntMap.builder());
+      }
+    }
+
+    @Override
+    public BulkLoader add(PersonDto person) {
+      byId.add(person.id(), person);
+      if (Color.isValidId(person.favoriteColor())) {
+        byColor.get(Color.fromId(person.favoriteColor())).add(person.id(), person);
+      }
+      search.add(person, person);
+      return this;
+    }
+
+    @Override
+    public int size() {
+      return byId.size();
+    }
+
+    @Override
+    public void publish() {
+      Map<Color, PersistentIntMap<PersonDto>> colorIndex = new EnumMap<>(Color.class);
+      byColor.forEach((color, builder) -> colorIndex.put(color, builder.build()));
+      Snapshot loaded = new Snapshot(byId.build(), colorIndex, search.build());
+      synchronized (PersistentPersonStore.this) {
+        snapshot = loaded;
+      }
+    }
+  }
+
+  /**
+   * Unmodifiable list over one immutable id trie. Size, iteration and streams read the trie
+   * directly, so taking the list is O(1). Only positional access copies the values, once per view.
+   */
+  private static final class ValuesView extends AbstractList<PersonDto> {
+
+    private final PersistentIntMap<PersonDto> byId;
+    private volatile List<PersonDto> values;
+
+    private ValuesView(PersistentIntMap<PersonDto> byId) {
+      this.byId = byId;
+    }
+
+    @Override
+    public PersonDto get(int index) {
+      Objects.checkIndex(index, byId.size());
+      if (values == null) {
+        values = byId.values();
+      }
+      return values.get(index);
+    }
+
+    @Override
+    public PersonDto getFirst() {
+      if (byId.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      return byId.iterator().next();
+    }
+
+    @Override
+    public Iterator<PersonDto> iterator() {
+      return byId.iterator();
+    }
+
+    @Override
+    public int size() {
+      return byId.size();
+    }
+  }
+
+  private static final class Snapshot {
+
+    private static final Snapshot EMPTY =
+        new Snapshot(PersistentIntMap.empty(), emptyColorIndex(), SearchIndex.empty());
+
+    private final PersistentIntMap<PersonDto> byId;
+    private final Map<Color, PersistentIntMap<PersonDto>> byColor;
+    private final SearchIndex<PersonDto> search;
+
+    private Snapshot(
+        PersistentIntMap<PersonDto> byId,
+        Map<Color, PersistentIntMap<PersonDto>> byColor,
+        SearchIndex<PersonDto> search) {
+      this.byId = byId;
+      this.byColor = byColor;
+      this.search = search;
+    }
+
+    private static Map<Color, PersistentIntMap<PersonDto>> emptyColorIndex() {
+      Map<Color, PersistentIntMap<PersonDto>> index = new EnumMap<>(Color.class);
+      for (Color color : Color.values()) {
+        index.put(color, PersistentIntMap.empty());
+      }
+      return index;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package de.assecor.persons.service.impl.store;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** Storage engine behind the in-memory data service. Implementations must be thread-safe. */
+public interface PersonStore {
+
+  /** Returns the person with the given id, or null if absent. */
+  PersonDto get(int id);
+
+  /** Returns all persons in ascending id order. */
+  List<PersonDto> getAll();
+
+  /** Returns up to {@code limit} persons with an id greater than {@code afterId}, by ascending id. */
+  List<PersonDto> getAfter(int afterId, int limit);
+
+  /**
+   * Streams all persons in ascending id order without materializing them all at once. The default
+   * reads pages through {@link #getAfter}, so it reflects writes made while streaming.
+   */
+  default Stream<PersonDto> stream() {
+    Iterator<PersonDto> iterator =
+        new Iterator<>() {
+          private static final int PAGE_SIZE = 1024;
+          private List<PersonDto> page = getAfter(0, PAGE_SIZE);
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            if (index == page.size() && page.size() == PAGE_SIZE) {
+              page = getAfter(page.getLast().id(), PAGE_SIZE);
+              index = 0;
+            }
+            return index < page.size();
+          }
+
+          @Override
+          public PersonDto next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return page.get(index++);
+          }
+        };
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(
+            iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+        false);
+  }
+
+  /** Returns all persons with the given color in ascending id order. */
+  List<PersonDto> getByColor(Color color);
+
+  /** Returns all persons whose zip code starts with the given digits, by zip code and id. */
+  List<PersonDto> findByZipPrefix(String prefix);
+
+  /** Returns all persons living in exactly the given city in ascending id order. */
+  List<PersonDto> findByCity(String city);
+
+  /**
+   * Returns up to {@code limit} persons whose folded first or last name contains the folded query,
+   * in ascending id order. Queries shorter than a trigram match nobody.
+   */
+  List<PersonDto> findByName(String query, int limit);
+
+  int size();
+
+  /**
+   * Returns a point-in-time view of all persons in ascending id order that is not affected by
+   * later writes. Taking the view should be cheap, iterating it may happen without any lock held.
+   */
+  Collection<PersonDto> view();
+
+  void insert(PersonDto person);
+
+  /** Inserts all persons at once, readers see either none or all of them. */
+  void insertAll(List<PersonDto> persons);
+
+  /** Replaces the stored person with the same id and returns the previous one, or null if absent. */
+  PersonDto replace(PersonDto person);
+
+  /** Removes the person with the given id and returns it, or null if absent. */
+  PersonDto remove(int id);
+
+  /** Starts a bulk load that replaces the whole content of this store once published. */
+  BulkLoader bulkLoader();
+
+  void clear();
+
+  interface BulkLoader {
+
+    /** Adds a person, persons have to be added in ascending id order. */
+    BulkLoader add(PersonDto person);
+
+    int size();
+
+    void publish();
+  }
+}
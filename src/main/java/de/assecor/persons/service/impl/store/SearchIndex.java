@@ -0,0 +1,231 @@
+package de.assecor.persons.service.impl.store;
+
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable secondary index over zip code and city, values are whatever the owning store needs to
+ * resolve a person. Five digit zip codes are keyed by their numeric value, so a prefix like "67"
+ * is the contiguous key range 67000..67999. Cities are keyed by hash code, so city lookups return
+ * candidates and callers have to drop other cities sharing the hash.
+ *
+ * <p>Names are indexed as an inverted trigram index over the {@link NameFolding folded} first and
+ * last names. A person containing all trigrams of a query is only a candidate, callers have to
+ * check that one of the names really contains the query.
+ */
+final class SearchIndex<V> {
+
+  private static final int ZIP_LENGTH = 5;
+
+  private static final SearchIndex<?> EMPTY =
+      new SearchIndex<>(
+          PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty());
+
+  private final PersistentIntMap<PersistentIntMap<V>> byZip;
+  private final PersistentIntMap<PersistentIntMap<V>> byCity;
+  private final PersistentIntMap<PersistentIntMap<V>> byTrigram;
+
+  private SearchIndex(
+      PersistentIntMap<PersistentIntMap<V>> byZip,
+      PersistentIntMap<PersistentIntMap<V>> byCity,
+      PersistentIntMap<PersistentIntMap<V>> byTrigram) {
+    this.byZip = byZip;
+    this.byCity = byCity;
+    this.byTrigram = byTrigram;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <V> SearchIndex<V> empty() {
+    return (SearchIndex<V>) EMPTY;
+  }
+
+  static <V> Builder<V> builder() {
+    return new Builder<>();
+  }
+
+  SearchIndex<V> with(PersonDto person, V value) {
+    int zip = zipKey(person.zipCode());
+    PersistentIntMap<PersistentIntMap<V>> trigrams = byTrigram;
+    for (String trigram : NameFolding.nameTrigrams(person.firstName(), person.lastName())) {
+      trigrams = add(trigrams, trigramKey(trigram), person.id(), value);
+    }
+    return new SearchIndex<>(
+        zip < 0 ? byZip : add(byZip, zip, person.id(), value),
+        person.city() == null ? byCity : add(byCity, person.city().hashCode(), person.id(), value),
+        trigrams);
+  }
+
+  SearchIndex<V> without(PersonDto person) {
+    int zip = zipKey(person.zipCode());
+    PersistentIntMap<PersistentIntMap<V>> trigrams = byTrigram;
+    for (String trigram : NameFolding.nameTrigrams(person.firstName(), person.lastName())) {
+      trigrams = remove(trigrams, trigramKey(trigram), person.id());
+    }
+    return new SearchIndex<>(
+        zip < 0 ? byZip : remove(byZip, zip, person.id()),
+        person.city() == null ? byCity : remove(byCity, person.city().hashCode(), person.id()),
+        trigrams);
+  }
+
+  /** Visits the values of all persons whose zip code starts with the given digits. */
+  void forEachByZipPrefix(String prefix, Consumer<? super V> action) {
+    int[] range = zipKeyRange(prefix);
+    if (range != null) {
+      byZip.forEachInRange(range[0], range[1], persons -> persons.forEach(action));
+    }
+  }
+
+  /** Visits the values of all persons with the given city, plus hash collisions. */
+  void forEachCityCandidate(String city, Consumer<? super V> action) {
+    PersistentIntMap<V> persons = byCity.get(city.hashCode());
+    if (persons != null) {
+      persons.forEach(action);
+    }
+  }
+
+  /**
+   * Visits persons containing all trigrams of the folded query in ascending id order until the
+   * action returns false. Walks the smallest posting list and probes the others by id.
+   */
+  void forEachNameCandidate(
+      String foldedQuery, ToIntFunction<? super V> idOf, Predicate<? super V> action) {
+    List<String> trigrams = NameFolding.trigrams(foldedQuery);
+    if (trigrams.isEmpty()) {
+      return;
+    }
+    List<PersistentIntMap<V>> postings = new ArrayList<>(trigrams.size());
+    for (String trigram : trigrams) {
+      PersistentIntMap<V> posting = byTrigram.get(trigramKey(trigram));
+      if (posting == null) {
+        return;
+      }
+      postings.add(posting);
+    }
+    postings.sort(Comparator.comparingInt(PersistentIntMap::size));
+    Iterator<V> candidates = postings.getFirst().iterator();
+    while (candidates.hasNext()) {
+      V candidate = candidates.next();
+      if (inAll(postings, idOf.applyAsInt(candidate)) && !action.test(candidate)) {
+        return;
+      }
+    }
+  }
+
+  private static boolean inAll(List<? extends PersistentIntMap<?>> postings, int id) {
+    for (int i = 1; i < postings.size(); i++) {
+      if (!postings.get(i).containsKey(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // three chars below 1024 are packed losslessly, anything else is hashed into a disjoint range
+  static int trigramKey(String trigram) {
+    char a = trigram.charAt(0);
+    char b = trigram.charAt(1);
+    char c = trigram.charAt(2);
+    if ((a | b | c) < 1024) {
+      return a << 20 | b << 10 | c;
+    }
+    return (trigram.hashCode() & 0x3FFFFFFF) | 0x40000000;
+  }
+
+  // -1 for zip codes that are not exactly five digits, those cannot be searched by prefix
+  static int zipKey(String zipCode) {
+    if (zipCode == null || zipCode.length() != ZIP_LENGTH || !isDigits(zipCode)) {
+      return -1;
+    }
+    return Integer.parseInt(zipCode);
+  }
+
+  // the inclusive zip keys starting with the prefix, null if it cannot match any zip code
+  static int[] zipKeyRange(String prefix) {
+    if (prefix == null || prefix.isEmpty() || prefix.length() > ZIP_LENGTH || !isDigits(prefix)) {
+      return null;
+    }
+    int scale = 1;
+    for (int i = prefix.length(); i < ZIP_LENGTH; i++) {
+      scale *= 10;
+    }
+    int from = Integer.parseInt(prefix) * scale;
+    return new int[] {from, from + scale - 1};
+  }
+
+  private static boolean isDigits(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <V> PersistentIntMap<PersistentIntMap<V>> add(
+      PersistentIntMap<PersistentIntMap<V>> index, int key, int id, V value) {
+    PersistentIntMap<V> persons = index.get(key);
+    return index.put(key, (persons == null ? PersistentIntMap.<V>empty() : persons).put(id, value));
+  }
+
+  private static <V> PersistentIntMap<PersistentIntMap<V>> remove(
+      PersistentIntMap<PersistentIntMap<V>> index, int key, int id) {
+    PersistentIntMap<V> persons = index.get(key);
+    if (persons == null) {
+      return index;
+    }
+    PersistentIntMap<V> remaining = persons.remove(id);
+    return remaining.isEmpty() ? index.remove(key) : index.put(key, remaining);
+  }
+
+  /** Collects entries in ascending id order and builds every bucket bottom-up. */
+  static final class Builder<V> {
+
+    private final Map<Integer, PersistentIntMap.Builder<V>> byZip =
+        new TreeMap<>(Integer::compareUnsigned);
+    private final Map<Integer, PersistentIntMap.Builder<V>> byCity =
+        new TreeMap<>(Integer::compareUnsigned);
+    private final Map<Integer, PersistentIntMap.Builder<V>> byTrigram =
+        new TreeMap<>(Integer::compareUnsigned);
+
+    private Builder() {}
+
+    Builder<V> add(PersonDto person, V value) {
+      int zip = zipKey(person.zipCode());
+      if (zip >= 0) {
+        byZip.computeIfAbsent(zip, key -> PersistentIntMap.builder()).add(person.id(), value);
+      }
+      if (person.city() != null) {
+        byCity
+            .computeIfAbsent(person.city().hashCode(), key -> PersistentIntMap.builder())
+            .add(person.id(), value);
+      }
+      for (String trigram : NameFolding.nameTrigrams(person.firstName(), person.lastName())) {
+        byTrigram
+            .computeIfAbsent(trigramKey(trigram), key -> PersistentIntMap.builder())
+            .add(person.id(), value);
+      }
+      return this;
+    }
+
+    SearchIndex<V> build() {
+      return new SearchIndex<>(build(byZip), build(byCity), build(byTrigram));
+    }
+
+    private static <V> PersistentIntMap<PersistentIntMap<V>> build(
+        Map<Integer, PersistentIntMap.Builder<V>> buckets) {
+      PersistentIntMap.Builder<PersistentIntMap<V>> index = PersistentIntMap.builder();
+      buckets.forEach((key, bucket) -> index.add(key, bucket.build()));
+      return index.build();
+    }
+  }
+}
@@ -1,63 +1,101 @@
 package de.assecor.persons.service.initialdata;
 
-import de.assecor.persons.model.Color;
 import de.assecor.persons.model.dto.PersonDto;
 import de.assecor.persons.exception.DataLoadException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class CsvInitialDataProvider implements InitialDataProvider {
 
   private static final Logger logger = LoggerFactory.getLogger(CsvInitialDataProvider.class);
 
+  // smaller chunks cost more in scheduling than they gain in parallelism
+  private static final long MIN_CHUNK_SIZE = 1 << 20;
+  // at most one window of parsed chunks is held at a time, this caps its size for any file size
+  private static final long MAX_CHUNK_SIZE = 8 << 20;
+  private static final int BLOCK_SIZE = 64 * 1024;
+
   private final Resource csvResource;
 
+  // Parse file-backed resources in memory-mapped chunks on the common ForkJoin pool
+  private final boolean parallel;
+  private final long minChunkSize;
+
   public CsvInitialDataProvider(Resource csvResource) {
+    this(csvResource, false);
+  }
+
+  public CsvInitialDataProvider(Resource csvResource, boolean parallel) {
+    this(csvResource, parallel, MIN_CHUNK_SIZE);
+  }
+
+  // @VisibleForTesting(otherwise = VisibleForTesting.AccessModifier.PRIVATE)
+  CsvInitialDataProvider(Resource csvResource, boolean parallel, long minChunkSize) {
     this.csvResource = csvResource;
+    this.parallel = parallel;
+    this.minChunkSize = minChunkSize;
   }
 
   public CsvInitialDataProvider() {
-    this.csvResource = null;
+    this(null);
   }
 
   @Override
   public List<PersonDto> loadData() throws DataLoadException {
+    List<PersonDto> persons = new ArrayList<>();
+    forEachBatch(DEFAULT_BATCH_SIZE, persons::addAll);
+    return persons;
+  }
+
+  @Override
+  public void forEachBatch(int batchSize, Consumer<? super List<PersonDto>> consumer)
+      throws DataLoadException {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
     if (csvResource == null || !csvResource.exists()) {
       logger.info("No CSV resource available, returning empty list");
-      return new ArrayList<>();
+      return;
+    }
+    Batches batches = new Batches(batchSize, consumer);
+    // classpath entries inside a jar and plain streams cannot be mapped
+    if (parallel && csvResource.isFile()) {
+      try {
+        loadParallel(csvResource.getFile().toPath(), batches);
+        return;
+      } catch (IOException | UncheckedIOException e) {
+        throw new DataLoadException("Failed to read CSV file", e);
+      }
     }
 
-    List<PersonDto> persons = new ArrayList<>();
-    int lineNumber = 0;
-
-    try (BufferedReader reader =
-        new BufferedReader(
-            new InputStreamReader(csvResource.getInputStream(), StandardCharsets.UTF_8))) {
-
-      String line;
-      while ((line = reader.readLine()) != null) {
-        lineNumber++;
-        try {
-          PersonDto person = parseCsvLine(line, lineNumber);
-          if (person != null) {
-            persons.add(person);
-          }
-        } catch (Exception e) {
-          logger.warn("Failed to parse line {}: {}. Error: {}", lineNumber, line, e.getMessage());
-          // continue processing other lines
-        }
+    try (InputStream input = csvResource.getInputStream()) {
+      CsvLines lines = new CsvLines(batches);
+      byte[] block = new byte[BLOCK_SIZE];
+      int read;
+      while ((read = input.read(block)) >= 0) {
+        lines.feed(block, 0, read);
+        logRejected(lines, 0);
       }
+      lines.finish();
+      logRejected(lines, 0);
+      batches.flush();
 
-      logger.info("Successfully loaded {} persons from CSV", persons.size());
-      return persons;
+      logger.info("Successfully loaded {} persons from CSV", lines.accepted());
 
     } catch (IOException e) {
       throw new DataLoadException("Failed to read CSV file", e);
@@ -69,47 +107,130 @@ public class CsvInitialDataProvider implements InitialDataProvider {
     return csvResource != null && csvResource.exists();
   }
 
-  private PersonDto parseCsvLine(String line, int lineNumber) {
-    if (line == null || line.trim().isEmpty()) {
-      return null;
+  private static void logRejected(CsvLines lines, long linesBefore) {
+    for (CsvLines.Rejected rejected : lines.rejected()) {
+      logger.warn(
+          "Failed to parse line {}: {}. Error: {}",
+          linesBefore + rejected.line(),
+          rejected.text(),
+          rejected.reason());
     }
+    lines.rejected().clear();
+  }
 
-    String[] parts = line.split(",");
-
-    if (parts.length < 4) {
-      logger.warn("Line {} has insufficient fields: {}", lineNumber, line);
-      return null;
+  /**
+   * Splits the file into newline-aligned chunks and parses them in parallel, one window of as many
+   * chunks as the common pool has threads at a time. Each window is handed on in file order before
+   * the next one is parsed, so ids are assigned exactly as by the sequential path and memory stays
+   * bounded by the window.
+   */
+  private void loadParallel(Path path, Batches batches) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel);
+      int chunks = bounds.length - 1;
+      int window = ForkJoinPool.getCommonPoolParallelism();
+      long linesBefore = 0;
+      long persons = 0;
+      for (int first = 0; first < chunks; first += window) {
+        List<CsvLines> parsed =
+            IntStream.range(first, Math.min(first + window, chunks))
+                .parallel()
+                .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1]))
+                .toList();
+        for (CsvLines chunk : parsed) {
+          logRejected(chunk, linesBefore);
+          chunk.persons().forEach(batches);
+          linesBefore += chunk.lines();
+          persons += chunk.accepted();
+        }
+      }
+      batches.flush();
+      logger.info(
+          "Successfully loaded {} persons from CSV in {} parallel chunks", persons, chunks);
     }
+  }
 
-    String lastName = parts[0].trim();
-    String firstName = parts[1].trim();
-    String zipAndCity = parts[2].trim();
-    String colorIdStr = parts[3].trim();
+  // chunk i spans [bounds[i], bounds[i + 1]), every inner bound directly follows a newline
+  private long[] chunkBounds(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long chunkSize =
+        Math.clamp(
+            size / (ForkJoinPool.getCommonPoolParallelism() * 4L), minChunkSize, MAX_CHUNK_SIZE);
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    ByteBuffer probe = ByteBuffer.allocate(8192);
+    long position = chunkSize;
+    while (position < size) {
+      long newline = -1;
+      while (newline < 0 && position < size) {
+        probe.clear();
+        int read = channel.read(probe, position);
+        for (int i = 0; i < read; i++) {
+          if (probe.get(i) == '\n') {
+            newline = position + i;
+            break;
+          }
+        }
+        position += Math.max(read, 0);
+      }
+      if (newline < 0) {
+        break;
+      }
+      bounds.add(newline + 1);
+      position = newline + 1 + chunkSize;
+    }
+    if (bounds.getLast() < size) {
+      bounds.add(size);
+    }
+    return bounds.stream().mapToLong(Long::longValue).toArray();
+  }
 
-    String[] zipCityParts = zipAndCity.split("\\s+", 2);
-    if (zipCityParts.length < 2) {
-      logger.warn("Line {} has invalid zip/city format: {}", lineNumber, zipAndCity);
-      return null;
+  private static CsvLines parseChunk(FileChannel channel, long start, long end) {
+    MappedByteBuffer buffer;
+    try {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
+    CsvLines lines = new CsvLines();
+    byte[] block = new byte[BLOCK_SIZE];
+    while (buffer.hasRemaining()) {
+      int length = Math.min(block.length, buffer.remaining());
+      buffer.get(block, 0, length);
+      lines.feed(block, 0, length);
+    }
+    lines.finish();
+    return lines;
+  }
 
-    String zipCode = zipCityParts[0].trim();
+  // Groups persons into batches and hands every full batch to the consumer
+  private static final class Batches implements Consumer<PersonDto> {
 
-    if (!zipCode.matches(PersonDto.ZIP_CODE_REGEX)) {
-      logger.warn("Line {} has invalid zip code: {}", lineNumber, zipCityParts[0]);
-      return null;
-    }
+    private final int batchSize;
+    private final Consumer<? super List<PersonDto>> consumer;
+    private List<PersonDto> batch;
 
-    String city = zipCityParts[1].trim();
+    Batches(int batchSize, Consumer<? super List<PersonDto>> consumer) {
+      this.batchSize = batchSize;
+      this.consumer = consumer;
+    }
 
-    int colorId;
-    try {
-      colorId = Integer.parseInt(colorIdStr);
-      Color.fromId(colorId);
-    } catch (IllegalArgumentException e) {
-      logger.warn("Line {} has invalid color ID: {}", lineNumber, colorIdStr);
-      return null;
+    @Override
+    public void accept(PersonDto person) {
+      if (batch == null) {
+        batch = new ArrayList<>(batchSize);
+      }
+      batch.add(person);
+      if (batch.size() == batchSize) {
+        flush();
+      }
     }
 
-    return new PersonDto(0, firstName, lastName, zipCode, city, colorId);
+    void flush() {
+      if (batch != null) {
+        consumer.accept(batch);
+        batch = null;
+      }
+    }
   }
 }
@@ -0,0 +1,218 @@
+package de.assecor.persons.service.initialdata;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one line of the person CSV format ({@code lastName, firstName, zip city, colorId}). Shared
+ * by the initial data load and the import endpoint so both accept exactly the same lines.
+ *
+ * <p>The scanner works on the UTF-8 bytes of a line and only allocates the strings of a valid
+ * person. Delimiters, whitespace and digits are all ASCII and never occur inside a multi-byte UTF-8
+ * sequence, so scanning bytes finds the same fields as splitting the decoded line. Instances keep
+ * the last parsed person and are not thread-safe.
+ */
+public final class CsvLineParser {
+
+  public static final int OK = 0;
+  public static final int BLANK = 1;
+  public static final int INSUFFICIENT_FIELDS = 2;
+  public static final int INVALID_ZIP_CITY = 3;
+  public static final int INVALID_ZIP = 4;
+  public static final int INVALID_COLOR = 5;
+
+  private static final int ZIP_LENGTH = 5;
+  // larger values are invalid colors anyway, capping avoids overflow on long digit runs
+  private static final int MAX_COLOR_VALUE = 1_000;
+
+  private PersonDto person;
+
+  /** Returns the person of the last line that was parsed with {@link #OK}, with id 0. */
+  public PersonDto person() {
+    return person;
+  }
+
+  /**
+   * Parses the line in {@code bytes[from, to)} without its line terminator and returns {@link #OK}
+   * or one of the error codes.
+   */
+  public int parse(byte[] bytes, int from, int to) {
+    person = null;
+    if (skipSpace(bytes, from, to) == to) {
+      return BLANK;
+    }
+
+    int comma1 = indexOfComma(bytes, from, to);
+    int comma2 = comma1 < 0 ? -1 : indexOfComma(bytes, comma1 + 1, to);
+    int comma3 = comma2 < 0 ? -1 : indexOfComma(bytes, comma2 + 1, to);
+    // a line ending in empty fields has fewer fields, like String.split drops them
+    if (comma3 < 0 || !containsNonComma(bytes, comma3 + 1, to)) {
+      return INSUFFICIENT_FIELDS;
+    }
+    int comma4 = indexOfComma(bytes, comma3 + 1, to);
+    int colorEnd = comma4 < 0 ? to : comma4;
+
+    // zip and city are separated by the first run of whitespace
+    int zipStart = skipSpace(bytes, comma2 + 1, comma3);
+    int zipCityEnd = trimEnd(bytes, zipStart, comma3);
+    int separator = zipStart;
+    while (separator < zipCityEnd && !isWhitespace(bytes[separator])) {
+      separator++;
+    }
+    if (separator == zipCityEnd) {
+      return INVALID_ZIP_CITY;
+    }
+    int zipEnd = trimEnd(bytes, zipStart, separator);
+    if (zipEnd - zipStart != ZIP_LENGTH || !isDigits(bytes, zipStart, zipEnd)) {
+      return INVALID_ZIP;
+    }
+    int cityStart = separator;
+    while (isWhitespace(bytes[cityStart])) {
+      cityStart++;
+    }
+    cityStart = skipSpace(bytes, cityStart, zipCityEnd);
+
+    int colorStart = skipSpace(bytes, comma3 + 1, colorEnd);
+    int colorId = parseColorId(bytes, colorStart, trimEnd(bytes, colorStart, colorEnd));
+    if (!Color.isValidId(colorId)) {
+      return INVALID_COLOR;
+    }
+
+    int lastStart = skipSpace(bytes, from, comma1);
+    int firstStart = skipSpace(bytes, comma1 + 1, comma2);
+    person =
+        new PersonDto(
+            0,
+            utf8(bytes, firstStart, trimEnd(bytes, firstStart, comma2)),
+            utf8(bytes, lastStart, trimEnd(bytes, lastStart, comma1)),
+            new String(bytes, zipStart, ZIP_LENGTH, StandardCharsets.ISO_8859_1),
+            utf8(bytes, cityStart, zipCityEnd),
+            colorId);
+    return OK;
+  }
+
+  /** Describes an error code for logs and import reports. */
+  public static String describe(int code) {
+    return switch (code) {
+      case OK -> "ok";
+      case BLANK -> "blank line";
+      case INSUFFICIENT_FIELDS -> "insufficient fields";
+      case INVALID_ZIP_CITY -> "invalid zip/city format";
+      case INVALID_ZIP -> "invalid zip code";
+      case INVALID_COLOR -> "invalid color ID";
+      default -> throw new IllegalArgumentException("Unknown code " + code);
+    };
+  }
+
+  /**
+   * Returns the person on the line with id 0, or null for blank lines.
+   *
+   * @throws IllegalArgumentException if the line is not a valid person, the message names the
+   *     reason
+   */
+  public static PersonDto parse(String line) {
+    if (line == null) {
+      return null;
+    }
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    CsvLineParser parser = new CsvLineParser();
+    int code = parser.parse(bytes, 0, bytes.length);
+    if (code == BLANK) {
+      return null;
+    }
+    if (code != OK) {
+      throw new IllegalArgumentException(describe(code));
+    }
+    return parser.person();
+  }
+
+  // same rules as Integer.parseInt followed by a range check, without the exception
+  private static int parseColorId(byte[] bytes, int from, int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (bytes[i] == '+' || bytes[i] == '-')) {
+      negative = bytes[i] == '-';
+      i++;
+    }
+    if (i == to) {
+      return -1;
+    }
+    int value = 0;
+    for (; i < to; i++) {
+      int b = bytes[i];
+      if (b < 0) {
+        // Integer.parseInt accepts non-ASCII digits as well, rare enough to take the slow path
+        return parseColorIdSlow(bytes, from, to);
+      }
+      if (b < '0' || b > '9') {
+        return -1;
+      }
+      value = Math.min(value * 10 + (b - '0'), MAX_COLOR_VALUE);
+    }
+    return negative ? -value : value;
+  }
+
+  private static int parseColorIdSlow(byte[] bytes, int from, int to) {
+    try {
+      return Integer.parseInt(utf8(bytes, from, to));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static String utf8(byte[] bytes, int from, int to) {
+    return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+  }
+
+  private static int indexOfComma(byte[] bytes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] == ',') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean containsNonComma(byte[] bytes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] != ',') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isDigits(byte[] bytes, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] < '0' || bytes[i] > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // String.trim strips everything up to and including the space character
+  private static boolean isSpace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  // the characters of the regex class \s
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || (b >= '\t' && b <= '\r');
+  }
+
+  private static int skipSpace(byte[] bytes, int from, int to) {
+    while (from < to && isSpace(bytes[from])) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimEnd(byte[] bytes, int from, int to) {
+    while (to > from && isSpace(bytes[to - 1])) {
+      to--;
+    }
+    return to;
+  }
+}
@@ -0,0 +1,141 @@
+package de.assecor.persons.service.initialdata;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits UTF-8 bytes fed in arbitrary blocks into lines and parses them with one {@link
+ * CsvLineParser}. Lines are terminated like {@code BufferedReader.readLine} does it, by {@code \n},
+ * {@code \r} or {@code \r\n}. Lines that lie within one block are parsed in place, only lines
+ * spanning two blocks are copied. Parsed persons are either collected or handed to a sink.
+ */
+final class CsvLines {
+
+  /** A line that could not be parsed, numbered from the first line fed to this instance. */
+  record Rejected(long line, String text, String reason) {}
+
+  private final CsvLineParser parser = new CsvLineParser();
+  private final List<PersonDto> persons;
+  private final Consumer<? super PersonDto> sink;
+  private final List<Rejected> rejected = new ArrayList<>();
+  private long lines;
+  private long accepted;
+
+  // start of a line that continues in the next block
+  private byte[] carry = new byte[256];
+  private int carryLength;
+  private boolean pendingLine;
+  private boolean afterCarriageReturn;
+
+  /** Collects the parsed persons, see {@link #persons()}. */
+  CsvLines() {
+    this.persons = new ArrayList<>();
+    this.sink = persons::add;
+  }
+
+  /** Hands every parsed person to the sink as soon as its line is complete. */
+  CsvLines(Consumer<? super PersonDto> sink) {
+    this.persons = null;
+    this.sink = sink;
+  }
+
+  void feed(byte[] block, int from, int to) {
+    if (from == to) {
+      return;
+    }
+    int lineStart = from;
+    // second half of a \r\n split across blocks
+    if (afterCarriageReturn && block[from] == '\n') {
+      lineStart++;
+    }
+    afterCarriageReturn = false;
+    for (int i = lineStart; i < to; i++) {
+      byte b = block[i];
+      if (b != '\n' && b != '\r') {
+        continue;
+      }
+      endLine(block, lineStart, i);
+      if (b == '\r') {
+        if (i + 1 == to) {
+          afterCarriageReturn = true;
+        } else if (block[i + 1] == '\n') {
+          i++;
+        }
+      }
+      lineStart = i + 1;
+    }
+    if (lineStart < to) {
+      append(block, lineStart, to);
+    }
+  }
+
+  /** Parses the last line if the input did not end with a line terminator. */
+  void finish() {
+    if (pendingLine) {
+      accept(carry, 0, carryLength);
+      carryLength = 0;
+      pendingLine = false;
+    }
+  }
+
+  List<PersonDto> persons() {
+    if (persons == null) {
+      throw new IllegalStateException("Persons are handed to a sink");
+    }
+    return persons;
+  }
+
+  /** Returns the number of persons parsed so far. */
+  long accepted() {
+    return accepted;
+  }
+
+  /** Returns the rejected lines not yet cleared, callers may clear the list once handled. */
+  List<Rejected> rejected() {
+    return rejected;
+  }
+
+  long lines() {
+    return lines;
+  }
+
+  private void endLine(byte[] block, int from, int to) {
+    if (pendingLine) {
+      append(block, from, to);
+      accept(carry, 0, carryLength);
+      carryLength = 0;
+      pendingLine = false;
+    } else {
+      accept(block, from, to);
+    }
+  }
+
+  private void append(byte[] block, int from, int to) {
+    int length = to - from;
+    if (carryLength + length > carry.length) {
+      carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+    }
+    System.arraycopy(block, from, carry, carryLength, length);
+    carryLength += length;
+    pendingLine = true;
+  }
+
+  private void accept(byte[] bytes, int from, int to) {
+    lines++;
+    int code = parser.parse(bytes, from, to);
+    if (code == CsvLineParser.OK) {
+      accepted++;
+      sink.accept(parser.person());
+    } else if (code != CsvLineParser.BLANK) {
+      rejected.add(
+          new Rejected(
+              lines,
+              new String(bytes, from, to - from, StandardCharsets.UTF_8),
+              CsvLineParser.describe(code)));
+    }
+  }
+}
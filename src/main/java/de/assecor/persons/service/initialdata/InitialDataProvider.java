@@ -3,10 +3,30 @@ package de.assecor.persons.service.initialdata;
 import de.assecor.persons.exception.DataLoadException;
 import de.assecor.persons.model.dto.PersonDto;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InitialDataProvider {
 
+  /** Batch size the data services stream the initial data with. */
+  int DEFAULT_BATCH_SIZE = 1_000;
+
   List<PersonDto> loadData() throws DataLoadException;
 
+  /**
+   * Hands all persons to the consumer in source order, in batches of at most {@code batchSize}, so
+   * callers only hold one batch at a time. The default loads the whole list first, providers
+   * reading large sources override it to stream.
+   */
+  default void forEachBatch(int batchSize, Consumer<? super List<PersonDto>> consumer)
+      throws DataLoadException {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    List<PersonDto> persons = loadData();
+    for (int from = 0; from < persons.size(); from += batchSize) {
+      consumer.accept(persons.subList(from, Math.min(from + batchSize, persons.size())));
+    }
+  }
+
   boolean isAvailable();
 }
@@ -3,6 +3,7 @@ package de.assecor.persons.service.initialdata;
 import de.assecor.persons.exception.DataLoadException;
 import de.assecor.persons.model.dto.PersonDto;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,10 +18,11 @@ public class ListInitialDataProvider implements InitialDataProvider {
     this.data = data != null ? new ArrayList<>(data) : new ArrayList<>();
   }
 
+  // The list is copied once on construction, callers get a read-only view instead of a second copy
   @Override
   public List<PersonDto> loadData() throws DataLoadException {
     logger.info("Loading {} persons from list data source", data.size());
-    return new ArrayList<>(data);
+    return Collections.unmodifiableList(data);
   }
 
   @Override
@@ -0,0 +1,51 @@
+package de.assecor.persons.service.initialdata;
+
+import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.core.io.FileSystemResource;
+
+/**
+ * Converts a CSV file in the {@code sample-input.csv} format into a binary seed file, run through
+ * the Maven profile {@code seed}. Persons get the ids the data services would assign them, in file
+ * order starting at 1.
+ */
+public final class SeedConverter {
+
+  private SeedConverter() {
+    // Utility class
+  }
+
+  public static void main(String[] args) throws DataLoadException, IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: SeedConverter <input.csv> <output.seed>");
+      System.exit(2);
+    }
+    Path output = Path.of(args[1]);
+    int count = convert(Path.of(args[0]), output);
+    System.out.println("Wrote " + count + " persons to " + output);
+  }
+
+  /** Converts the CSV file and returns the number of persons written. */
+  public static int convert(Path csv, Path seed) throws DataLoadException, IOException {
+    SeedFileWriter writer = new SeedFileWriter();
+    new CsvInitialDataProvider(new FileSystemResource(csv))
+        .forEachBatch(
+            InitialDataProvider.DEFAULT_BATCH_SIZE,
+            batch -> {
+              for (PersonDto person : batch) {
+                writer.add(
+                    new PersonDto(
+                        writer.size() + 1,
+                        person.firstName(),
+                        person.lastName(),
+                        person.zipCode(),
+                        person.city(),
+                        person.favoriteColor()));
+              }
+            });
+    writer.writeTo(seed);
+    return writer.size();
+  }
+}
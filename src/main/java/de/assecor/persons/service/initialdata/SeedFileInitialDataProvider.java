@@ -0,0 +1,163 @@
+package de.assecor.persons.service.initialdata;
+
+import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads persons from a binary seed file written by {@link SeedFileWriter}. File resources are
+ * memory-mapped, other resources such as jar entries are read into memory. Each pooled string is
+ * decoded once and shared by all persons referencing it.
+ */
+public class SeedFileInitialDataProvider implements InitialDataProvider {
+
+  private static final Logger logger = LoggerFactory.getLogger(SeedFileInitialDataProvider.class);
+
+  /** File extension {@code InitialDataConfig} recognizes seed files by. */
+  public static final String FILE_EXTENSION = ".seed";
+
+  private final Resource seedResource;
+
+  public SeedFileInitialDataProvider(Resource seedResource) {
+    this.seedResource = seedResource;
+  }
+
+  @Override
+  public List<PersonDto> loadData() throws DataLoadException {
+    List<PersonDto> persons = new ArrayList<>();
+    forEachBatch(DEFAULT_BATCH_SIZE, persons::addAll);
+    return persons;
+  }
+
+  @Override
+  public void forEachBatch(int batchSize, Consumer<? super List<PersonDto>> consumer)
+      throws DataLoadException {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (!isAvailable()) {
+      logger.info("No seed resource available, returning empty list");
+      return;
+    }
+    long start = System.nanoTime();
+    ByteBuffer buffer;
+    try {
+      buffer = read();
+    } catch (IOException e) {
+      throw new DataLoadException("Failed to read seed file " + seedResource, e);
+    }
+
+    int size = buffer.limit();
+    if (size < SeedFileWriter.HEADER_SIZE + Integer.BYTES
+        || buffer.getInt(0) != SeedFileWriter.MAGIC
+        || buffer.getInt(Integer.BYTES) != SeedFileWriter.VERSION) {
+      throw new DataLoadException(seedResource + " is not a seed file of a supported version");
+    }
+    int end = size - Integer.BYTES;
+    CRC32C checksum = new CRC32C();
+    checksum.update(buffer.slice(0, end));
+    if ((int) checksum.getValue() != buffer.getInt(end)) {
+      throw new DataLoadException("Seed file " + seedResource + " is corrupt, checksum mismatch");
+    }
+
+    buffer.position(2 * Integer.BYTES).limit(end);
+    int count = buffer.getInt();
+    String[] pool;
+    try {
+      pool = readPool(buffer, buffer.getInt(), buffer.getInt());
+      if (buffer.remaining() != (long) Integer.BYTES * SeedFileWriter.ROW_INTS * count) {
+        throw new DataLoadException(
+            "Seed file " + seedResource + " has a truncated person table");
+      }
+    } catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException e) {
+      throw new DataLoadException("Seed file " + seedResource + " has a malformed string pool", e);
+    }
+
+    List<PersonDto> batch = new ArrayList<>(Math.min(batchSize, count));
+    for (int i = 0; i < count; i++) {
+      int id = buffer.getInt();
+      int color = buffer.getInt();
+      batch.add(
+          new PersonDto(
+              id,
+              string(pool, buffer.getInt()),
+              string(pool, buffer.getInt()),
+              string(pool, buffer.getInt()),
+              string(pool, buffer.getInt()),
+              color));
+      if (batch.size() == batchSize) {
+        consumer.accept(batch);
+        batch = new ArrayList<>(Math.min(batchSize, count - i - 1));
+      }
+    }
+    if (!batch.isEmpty()) {
+      consumer.accept(batch);
+    }
+    logger.info(
+        "Successfully loaded {} persons from seed file in {} ms",
+        count,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return seedResource != null && seedResource.exists();
+  }
+
+  private ByteBuffer read() throws IOException {
+    // classpath entries inside a jar cannot be mapped
+    if (!seedResource.isFile()) {
+      try (InputStream input = seedResource.getInputStream()) {
+        return ByteBuffer.wrap(input.readAllBytes());
+      }
+    }
+    try (FileChannel channel =
+        FileChannel.open(seedResource.getFile().toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Seed file of " + size + " bytes exceeds the 2 GB limit");
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  private static String[] readPool(ByteBuffer buffer, int poolSize, int poolBytes) {
+    int[] ends = new int[poolSize];
+    for (int i = 0; i < poolSize; i++) {
+      ends[i] = buffer.getInt();
+    }
+    byte[] bytes = new byte[poolBytes];
+    buffer.get(bytes);
+    String[] pool = new String[poolSize];
+    int start = 0;
+    for (int i = 0; i < poolSize; i++) {
+      if (ends[i] < start || ends[i] > poolBytes) {
+        throw new IllegalArgumentException("String " + i + " ends outside the pool");
+      }
+      pool[i] = new String(bytes, start, ends[i] - start, StandardCharsets.UTF_8);
+      start = ends[i];
+    }
+    return pool;
+  }
+
+  private String string(String[] pool, int index) throws DataLoadException {
+    if (index >= pool.length) {
+      throw new DataLoadException(
+          "Seed file " + seedResource + " references missing string " + index);
+    }
+    return index < 0 ? null : pool[index];
+  }
+}
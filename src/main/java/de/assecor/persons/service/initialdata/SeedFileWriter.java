@@ -0,0 +1,123 @@
+package de.assecor.persons.service.initialdata;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes persons as a binary seed file that {@link SeedFileInitialDataProvider} loads without any
+ * parsing or validation.
+ *
+ * <p>A seed file is a header ({@code magic, version, count, poolSize, poolBytes}), the string pool
+ * as {@code poolSize} int end offsets followed by {@code poolBytes} UTF-8 bytes, the person table
+ * of {@code count} rows of six ints ({@code id, color, firstName, lastName, zipCode, city}, the
+ * strings as pool index or -1 for null) and a trailing CRC32C of everything before it. Every
+ * distinct string is stored once, so repeated names, zip codes and cities cost one int per person.
+ */
+public final class SeedFileWriter {
+
+  static final int MAGIC = 0x50534544; // "PSED"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 5 * Integer.BYTES;
+  static final int ROW_INTS = 6;
+
+  private final Map<String, Integer> poolIndex = new HashMap<>();
+  private final List<String> pool = new ArrayList<>();
+  private int[] rows = new int[ROW_INTS * 1024];
+  private int count;
+
+  public SeedFileWriter add(PersonDto person) {
+    if (ROW_INTS * (count + 1) > rows.length) {
+      rows = Arrays.copyOf(rows, rows.length * 2);
+    }
+    int row = ROW_INTS * count++;
+    rows[row] = person.id();
+    rows[row + 1] = person.favoriteColor();
+    rows[row + 2] = intern(person.firstName());
+    rows[row + 3] = intern(person.lastName());
+    rows[row + 4] = intern(person.zipCode());
+    rows[row + 5] = intern(person.city());
+    return this;
+  }
+
+  public int size() {
+    return count;
+  }
+
+  /** Writes all added persons to a temporary file that atomically replaces {@code path}. */
+  public void writeTo(Path path) throws IOException {
+    List<byte[]> encoded = new ArrayList<>(pool.size());
+    long poolBytes = 0;
+    for (String value : pool) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      encoded.add(bytes);
+      poolBytes += bytes.length;
+    }
+    long fileSize =
+        HEADER_SIZE
+            + (long) Integer.BYTES * pool.size()
+            + poolBytes
+            + (long) Integer.BYTES * ROW_INTS * count
+            + Integer.BYTES;
+    // the loader maps the file in one piece
+    if (fileSize > Integer.MAX_VALUE) {
+      throw new IOException("Seed file of " + fileSize + " bytes exceeds the 2 GB limit");
+    }
+
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    CRC32C checksum = new CRC32C();
+    try (OutputStream file = Files.newOutputStream(temp)) {
+      DataOutputStream out =
+          new DataOutputStream(
+              new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), checksum));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(count);
+      out.writeInt(pool.size());
+      out.writeInt((int) poolBytes);
+      int end = 0;
+      for (byte[] bytes : encoded) {
+        end += bytes.length;
+        out.writeInt(end);
+      }
+      for (byte[] bytes : encoded) {
+        out.write(bytes);
+      }
+      for (int i = 0; i < ROW_INTS * count; i++) {
+        out.writeInt(rows[i]);
+      }
+      out.flush();
+      new DataOutputStream(file).writeInt((int) checksum.getValue());
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private int intern(String value) {
+    if (value == null) {
+      return -1;
+    }
+    return poolIndex.computeIfAbsent(
+        value,
+        key -> {
+          pool.add(key);
+          return pool.size() - 1;
+        });
+  }
+}
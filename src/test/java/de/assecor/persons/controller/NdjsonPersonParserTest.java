@@ -0,0 +1,70 @@
+package de.assecor.persons.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.dto.PersonDto;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+@DisplayName("NdjsonPersonParser Tests")
+class NdjsonPersonParserTest {
+
+  private static ValidatorFactory validatorFactory;
+  private static NdjsonPersonParser parser;
+
+  @BeforeAll
+  static void createParser() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    parser = new NdjsonPersonParser(JsonMapper.builder().build(), validatorFactory.getValidator());
+  }
+
+  @AfterAll
+  static void closeValidator() {
+    validatorFactory.close();
+  }
+
+  @Test
+  @DisplayName("Should map a valid object to a person")
+  void shouldMapValidObject() {
+    assertEquals(
+        new PersonDto(0, "Max", "Mustermann", "10115", "Berlin", 1),
+        parser.apply(
+            "{\"name\":\"Max\",\"lastname\":\"Mustermann\",\"zipcode\":\"10115\","
+                + "\"city\":\"Berlin\",\"color\":1}"));
+  }
+
+  @Test
+  @DisplayName("Should skip blank lines")
+  void shouldSkipBlankLines() {
+    assertNull(parser.apply("  "));
+  }
+
+  @Test
+  @DisplayName("Should reject malformed JSON")
+  void shouldRejectMalformedJson() {
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> parser.apply("{\"name\":\"Erika\""));
+
+    assertTrue(exception.getMessage().startsWith("malformed JSON"));
+  }
+
+  @Test
+  @DisplayName("Should reject invalid objects with all violations in order")
+  void shouldRejectInvalidObjects() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                parser.apply(
+                    "{\"name\":\"\",\"lastname\":\"Mustermann\",\"zipcode\":\"1\","
+                        + "\"city\":\"Berlin\",\"color\":1}"));
+
+    assertEquals(
+        "name must not be blank, zipcode must be a valid german zipcode", exception.getMessage());
+  }
+}
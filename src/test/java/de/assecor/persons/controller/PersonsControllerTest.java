@@ -2,19 +2,29 @@ package de.assecor.persons.controller;
 
 import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.ImportResultDto;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import de.assecor.persons.service.DataService;
+import de.assecor.persons.service.PersonImportService;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +32,7 @@ import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
 
 @WebMvcTest
@@ -36,14 +47,18 @@ class PersonsControllerTest {
 
   @MockitoBean private DataService dataService;
 
+  @MockitoBean private PersonImportService importService;
+
   @Test
   @DisplayName("GET /persons - should return all persons")
   void getAll() throws Exception {
-    when(dataService.getAllPersons())
+    AtomicBoolean closed = new AtomicBoolean();
+    when(dataService.streamAllPersons())
         .thenReturn(
-            List.of(
-                person(1, "Max", "Mustermann", "10115", "Berlin", 1),
-                person(2, "Anna", "Schmidt", "20095", "Hamburg", 2)));
+            Stream.of(
+                    person(1, "Max", "Mustermann", "10115", "Berlin", 1),
+                    person(2, "Anna", "Schmidt", "20095", "Hamburg", 2))
+                .onClose(() -> closed.set(true)));
 
     mockMvc
         .perform(get("/persons"))
@@ -52,19 +67,100 @@ class PersonsControllerTest {
         .andExpect(jsonPath("$[0].name").value("Max"))
         .andExpect(jsonPath("$[1].lastname").value("Schmidt"));
 
-    verify(dataService).getAllPersons();
+    verify(dataService).streamAllPersons();
+    verify(dataService, never()).getAllPersons();
+    assertTrue(closed.get());
   }
 
   @Test
   void getAllEmpty() throws Exception {
-    when(dataService.getAllPersons()).thenReturn(Collections.emptyList());
+    when(dataService.streamAllPersons()).thenReturn(Stream.empty());
 
     mockMvc
         .perform(get("/persons"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$", hasSize(0)));
 
-    verify(dataService).getAllPersons();
+    verify(dataService).streamAllPersons();
+  }
+
+  @Test
+  @DisplayName("GET /persons?limit - should return a page with next cursor")
+  void getPage() throws Exception {
+    when(dataService.getPersonsPage(1, 2))
+        .thenReturn(
+            new PersonPageDto(
+                List.of(
+                    person(2, "Max", "Mustermann", "10115", "Berlin", 1),
+                    person(3, "Anna", "Schmidt", "20095", "Hamburg", 2)),
+                3));
+
+    mockMvc
+        .perform(get("/persons").param("limit", "2").param("after", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(2)))
+        .andExpect(jsonPath("$.items[0].id").value(2))
+        .andExpect(jsonPath("$.next").value(3));
+
+    verify(dataService, never()).getAllPersons();
+  }
+
+  @Test
+  void getPageWithDefaults() throws Exception {
+    when(dataService.getPersonsPage(0, PersonsController.DEFAULT_PAGE_SIZE))
+        .thenReturn(new PersonPageDto(List.of(), null));
+
+    mockMvc
+        .perform(get("/persons").param("after", "0"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(0)))
+        .andExpect(jsonPath("$.next").doesNotExist());
+  }
+
+  @Test
+  void getPageInvalidLimit() throws Exception {
+    mockMvc
+        .perform(get("/persons").param("limit", "0"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentType(PROBLEM_JSON));
+
+    mockMvc
+        .perform(
+            get("/persons").param("limit", String.valueOf(PersonsController.MAX_PAGE_SIZE + 1)))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  @DisplayName("GET /persons as NDJSON - should stream one person per line")
+  void streamAll() throws Exception {
+    when(dataService.streamAllPersons())
+        .thenReturn(
+            Stream.of(
+                person(1, "Max", "Mustermann", "10115", "Berlin", 1),
+                person(2, "Anna", "Schmidt", "20095", "Hamburg", 2)));
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/persons").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertEquals("Max", objectMapper.readTree(lines[0]).get("name").asString());
+    assertEquals("grün", objectMapper.readTree(lines[1]).get("color").asString());
+    verify(dataService, never()).getAllPersons();
   }
 
   @Test
@@ -97,9 +193,9 @@ class PersonsControllerTest {
 
   @Test
   void getByColor() throws Exception {
-    when(dataService.getPersonsByColor(Color.BLUE))
+    when(dataService.streamPersonsByColor(Color.BLUE))
         .thenReturn(
-            List.of(
+            Stream.of(
                 person(1, "Max", "Mustermann", "10115", "Berlin", 1),
                 person(3, "Julia", "Meyer", "30159", "Hannover", 1)));
 
@@ -109,12 +205,12 @@ class PersonsControllerTest {
         .andExpect(jsonPath("$", hasSize(2)))
         .andExpect(jsonPath("$[0].color").value(Color.BLUE.getName()));
 
-    verify(dataService).getPersonsByColor(Color.BLUE);
+    verify(dataService).streamPersonsByColor(Color.BLUE);
   }
 
   @Test
   void getByColorInvalid() throws Exception {
-    when(dataService.getPersonsByColor(any()))
+    when(dataService.streamPersonsByColor(any()))
         .thenThrow(new InvalidColorException("Invalid Color name: pink"));
 
     mockMvc
@@ -124,6 +220,60 @@ class PersonsControllerTest {
         .andExpect(jsonPath("$.title").value("Invalid Color"));
   }
 
+  @Test
+  void search() throws Exception {
+    when(dataService.searchPersons("67", "Lauterecken"))
+        .thenReturn(List.of(person(1, "Hans", "Müller", "67742", "Lauterecken", 1)));
+
+    mockMvc
+        .perform(get("/persons/search").param("zip", "67").param("city", "Lauterecken"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].zipcode").value("67742"));
+  }
+
+  @Test
+  void searchInvalidZip() throws Exception {
+    mockMvc
+        .perform(get("/persons/search").param("zip", "6a"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentType(PROBLEM_JSON));
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  void searchWithoutCriteria() throws Exception {
+    when(dataService.searchPersons(null, null))
+        .thenThrow(new InvalidSearchException("Either zip code prefix or city is required"));
+
+    mockMvc
+        .perform(get("/persons/search"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title").value("Invalid Search"));
+  }
+
+  @Test
+  void searchByName() throws Exception {
+    when(dataService.searchPersonsByName("müll", 100))
+        .thenReturn(List.of(person(1, "Hans", "Müller", "67742", "Lauterecken", 1)));
+
+    mockMvc
+        .perform(get("/persons/search/name").param("q", "müll"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].lastname").value("Müller"));
+  }
+
+  @Test
+  void searchByNameInvalidLimit() throws Exception {
+    mockMvc
+        .perform(get("/persons/search/name").param("q", "müll").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(dataService);
+  }
+
   @Test
   void addPerson() throws Exception {
     when(dataService.createPerson(any()))
@@ -140,6 +290,104 @@ class PersonsControllerTest {
     verify(dataService).createPerson(any());
   }
 
+  @Test
+  void addPersons() throws Exception {
+    when(dataService.createPersons(anyList()))
+        .thenReturn(
+            List.of(
+                person(1, "Max", "Mustermann", "10115", "Berlin", 1),
+                person(2, "Erika", "Mustermann", "20095", "Hamburg", 2)));
+
+    mockMvc
+        .perform(
+            post("/persons/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    json(
+                        List.of(
+                            person(0, "Max", "Mustermann", "10115", "Berlin", 1),
+                            person(0, "Erika", "Mustermann", "20095", "Hamburg", 2)))))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[1].id").value(2));
+  }
+
+  @Test
+  void addPersonsReportsEveryInvalidItem() throws Exception {
+    mockMvc
+        .perform(
+            post("/persons/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    json(
+                        List.of(
+                            person(0, "", "Mustermann", "10115", "Berlin", 1),
+                            person(0, "Max", "Mustermann", "10115", "Berlin", 1),
+                            person(0, "Erika", "Mustermann", "123", "Hamburg", 9)))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title").value("Invalid Batch"))
+        .andExpect(jsonPath("$.errors['0'].name").value("must not be blank"))
+        .andExpect(jsonPath("$.errors['1']").doesNotExist())
+        .andExpect(jsonPath("$.errors['2'].zipcode").value("must be a valid german zipcode"))
+        .andExpect(jsonPath("$.errors['2'].color").exists());
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  void addPersonsRejectsEmptyBatch() throws Exception {
+    mockMvc
+        .perform(post("/persons/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.title").value("Invalid Batch"));
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  void importCsv() throws Exception {
+    when(importService.importCsv(any()))
+        .thenReturn(
+            new ImportResultDto(
+                2, 1, List.of(new ImportResultDto.RejectedLine(2, "insufficient fields")), 4));
+
+    mockMvc
+        .perform(
+            post("/persons/import")
+                .contentType("text/csv")
+                .content("Müller, Hans, 67742 Lauterecken, 1\nbroken\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.rejectedLines[0].line").value(2))
+        .andExpect(jsonPath("$.rowsPerSecond").value(500));
+
+    verify(importService, never()).importLines(any(), any());
+  }
+
+  @Test
+  void importNdjson() throws Exception {
+    when(importService.importLines(any(), any(NdjsonPersonParser.class)))
+        .thenReturn(new ImportResultDto(1, 0, List.of(), 0));
+
+    mockMvc
+        .perform(
+            post("/persons/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(json(person(0, "Max", "Mustermann", "10115", "Berlin", 1))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1));
+  }
+
+  @Test
+  void importUnsupportedFormat() throws Exception {
+    mockMvc
+        .perform(post("/persons/import").contentType(MediaType.TEXT_PLAIN).content("x"))
+        .andExpect(status().isUnsupportedMediaType());
+
+    verifyNoInteractions(importService);
+  }
+
   @Test
   void updatePerson() throws Exception {
     when(dataService.updatePerson(eq(1), any()))
@@ -0,0 +1,405 @@
+package de.assecor.persons.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import de.assecor.persons.exception.InvalidSearchException;
+import de.assecor.persons.exception.PersonNotFoundException;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
+import de.assecor.persons.service.ReactiveDataService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest
+@DisplayName("ReactivePersonsController Test")
+class ReactivePersonsControllerTest {
+
+  private static final MediaType PROBLEM_JSON = MediaType.APPLICATION_PROBLEM_JSON;
+
+  @Autowired private WebTestClient webTestClient;
+
+  @MockitoBean private ReactiveDataService dataService;
+
+  @Test
+  @DisplayName("GET /persons - should return all persons as a JSON array")
+  void getAll() {
+    when(dataService.getAllPersons())
+        .thenReturn(
+            Flux.just(
+                person(1, "Max", "Mustermann", "10115", "Berlin", 1),
+                person(2, "Anna", "Schmidt", "20095", "Hamburg", 2)));
+
+    webTestClient
+        .get()
+        .uri("/persons")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.length()")
+        .isEqualTo(2)
+        .jsonPath("$[0].name")
+        .isEqualTo("Max")
+        .jsonPath("$[1].lastname")
+        .isEqualTo("Schmidt")
+        .jsonPath("$[1].color")
+        .isEqualTo("grün");
+  }
+
+  @Test
+  @DisplayName("GET /persons?limit - should return a page with next cursor")
+  void getPage() {
+    when(dataService.getPersonsPage(1, 2))
+        .thenReturn(
+            Mono.just(
+                new PersonPageDto(
+                    List.of(
+                        person(2, "Max", "Mustermann", "10115", "Berlin", 1),
+                        person(3, "Anna", "Schmidt", "20095", "Hamburg", 2)),
+                    3)));
+
+    webTestClient
+        .get()
+        .uri("/persons?limit=2&after=1")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.items.length()")
+        .isEqualTo(2)
+        .jsonPath("$.items[0].id")
+        .isEqualTo(2)
+        .jsonPath("$.next")
+        .isEqualTo(3);
+
+    verify(dataService, never()).getAllPersons();
+  }
+
+  @Test
+  void getPageInvalidLimit() {
+    webTestClient
+        .get()
+        .uri("/persons?limit={limit}", PersonsController.MAX_PAGE_SIZE + 1)
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectHeader()
+        .contentTypeCompatibleWith(PROBLEM_JSON);
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  @DisplayName("GET /persons as NDJSON - should stream one person per line")
+  void streamAll() {
+    when(dataService.getAllPersons())
+        .thenReturn(
+            Flux.just(
+                person(1, "Max", "Mustermann", "10115", "Berlin", 1),
+                person(2, "Anna", "Schmidt", "20095", "Hamburg", 2)));
+
+    String body =
+        webTestClient
+            .get()
+            .uri("/persons")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+    String[] lines = body.strip().split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(
+        "{\"id\":1,\"name\":\"Max\",\"lastname\":\"Mustermann\",\"zipcode\":\"10115\","
+            + "\"city\":\"Berlin\",\"color\":\"blau\"}",
+        lines[0]);
+  }
+
+  @Test
+  @DisplayName("GET /persons/{id} - should map a missing person to 404")
+  void getByIdNotFound() {
+    when(dataService.getPersonById(99))
+        .thenReturn(Mono.error(new PersonNotFoundException("Person with id 99 not found")));
+
+    webTestClient
+        .get()
+        .uri("/persons/99")
+        .exchange()
+        .expectStatus()
+        .isNotFound()
+        .expectHeader()
+        .contentTypeCompatibleWith(PROBLEM_JSON)
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Person Not Found")
+        .jsonPath("$.detail")
+        .isEqualTo("Person with id 99 not found")
+        .jsonPath("$.timestamp")
+        .exists();
+  }
+
+  @Test
+  void getById() {
+    when(dataService.getPersonById(1))
+        .thenReturn(Mono.just(person(1, "Max", "Mustermann", "10115", "Berlin", 1)));
+
+    webTestClient
+        .get()
+        .uri("/persons/1")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.zipcode")
+        .isEqualTo("10115");
+  }
+
+  @Test
+  @DisplayName("GET /persons/color/{color} - should reject unknown colors")
+  void getByColorInvalid() {
+    webTestClient
+        .get()
+        .uri("/persons/color/pink")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Invalid Color");
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  void getByColor() {
+    when(dataService.getPersonsByColor(Color.GREEN))
+        .thenReturn(Flux.just(person(2, "Anna", "Schmidt", "20095", "Hamburg", 2)));
+
+    webTestClient
+        .get()
+        .uri("/persons/color/grün")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].id")
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("GET /persons/search - should map errors signalled by the service")
+  void searchInvalid() {
+    when(dataService.searchPersons(null, null))
+        .thenReturn(
+            Flux.error(new InvalidSearchException("Either zip code prefix or city is required")));
+
+    webTestClient
+        .get()
+        .uri("/persons/search")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Invalid Search");
+  }
+
+  @Test
+  void searchByName() {
+    when(dataService.searchPersonsByName("muel", PersonsController.DEFAULT_PAGE_SIZE))
+        .thenReturn(Flux.just(person(1, "Hans", "Müller", "67742", "Lauterecken", 1)));
+
+    webTestClient
+        .get()
+        .uri("/persons/search/name?q=muel")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].lastname")
+        .isEqualTo("Müller");
+  }
+
+  @Test
+  @DisplayName("POST /persons - should create a person")
+  void addPerson() {
+    when(dataService.createPerson(any()))
+        .thenReturn(Mono.just(person(5, "Max", "Mustermann", "10115", "Berlin", 1)));
+
+    webTestClient
+        .post()
+        .uri("/persons")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            Map.of(
+                "name", "Max",
+                "lastname", "Mustermann",
+                "zipcode", "10115",
+                "city", "Berlin",
+                "color", 1))
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("POST /persons - should report invalid fields like the servlet stack")
+  void addPersonInvalid() {
+    webTestClient
+        .post()
+        .uri("/persons")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("name", "", "lastname", "", "zipcode", "abc", "city", "", "color", 9))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectHeader()
+        .contentTypeCompatibleWith(PROBLEM_JSON)
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Validation Failed")
+        .jsonPath("$.errors.length()")
+        .isEqualTo(5)
+        .jsonPath("$.errors.zipcode")
+        .isEqualTo("must be a valid german zipcode");
+
+    verifyNoInteractions(dataService);
+  }
+
+  @Test
+  @DisplayName("POST /persons/batch - should report invalid items by index")
+  void addPersonsInvalid() {
+    webTestClient
+        .post()
+        .uri("/persons/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            List.of(
+                Map.of(
+                    "name", "",
+                    "lastname", "Mustermann",
+                    "zipcode", "10115",
+                    "city", "Berlin",
+                    "color", 1),
+                Map.of(
+                    "name", "Anna",
+                    "lastname", "Schmidt",
+                    "zipcode", "20095",
+                    "city", "Hamburg",
+                    "color", 2)))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Invalid Batch")
+        .jsonPath("$.errors['0'].name")
+        .isEqualTo("must not be blank")
+        .jsonPath("$.errors['1']")
+        .doesNotExist();
+
+    verify(dataService, never()).createPersons(anyList());
+  }
+
+  @Test
+  void addPersons() {
+    when(dataService.createPersons(anyList()))
+        .thenReturn(Mono.just(List.of(person(7, "Anna", "Schmidt", "20095", "Hamburg", 2))));
+
+    webTestClient
+        .post()
+        .uri("/persons/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            List.of(
+                Map.of(
+                    "name", "Anna",
+                    "lastname", "Schmidt",
+                    "zipcode", "20095",
+                    "city", "Hamburg",
+                    "color", 2)))
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody()
+        .jsonPath("$[0].id")
+        .isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("PUT /persons/{id} - should map a missing person to 404")
+  void updatePersonNotFound() {
+    when(dataService.updatePerson(eq(42), any()))
+        .thenReturn(Mono.error(new PersonNotFoundException("Person with id 42 not found")));
+
+    webTestClient
+        .put()
+        .uri("/persons/42")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(
+            Map.of(
+                "name", "Max",
+                "lastname", "Mustermann",
+                "zipcode", "10115",
+                "city", "Berlin",
+                "color", 1))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  @DisplayName("DELETE /persons/{id} - should answer 204")
+  void deletePerson() {
+    when(dataService.deletePerson(3)).thenReturn(Mono.empty());
+
+    webTestClient.delete().uri("/persons/3").exchange().expectStatus().isNoContent();
+
+    verify(dataService).deletePerson(3);
+  }
+
+  @Test
+  @DisplayName("Should hide unexpected errors behind a 500 problem")
+  void unexpectedError() {
+    when(dataService.getPersonById(1)).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+    webTestClient
+        .get()
+        .uri("/persons/1")
+        .exchange()
+        .expectStatus()
+        .is5xxServerError()
+        .expectBody()
+        .jsonPath("$.title")
+        .isEqualTo("Internal Server Error")
+        .jsonPath("$.detail")
+        .value(String.class, detail -> assertTrue(detail.startsWith("An unexpected")));
+  }
+
+  private PersonDto person(int id, String first, String last, String zip, String city, int color) {
+    return new PersonDto(id, first, last, zip, city, color);
+  }
+}
@@ -0,0 +1,176 @@
+package de.assecor.persons.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import de.assecor.persons.model.document.PersonDocument;
+import de.assecor.persons.repository.PersonIndexBootstrap.QueryShape;
+import de.assecor.persons.repository.reactive.ReactivePersonMongoRepository;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.query.parser.PartTree;
+
+@DisplayName("PersonIndexBootstrap Tests")
+@ExtendWith(MockitoExtension.class)
+class PersonIndexBootstrapTest {
+
+  @Mock private MongoOperations mongoOperations;
+
+  @Mock private IndexOperations indexOperations;
+
+  private static Document explainResult(Document winningPlan) {
+    return new Document(
+        "queryPlanner",
+        new Document("winningPlan", winningPlan)
+            .append("rejectedPlans", List.of(new Document("stage", "COLLSCAN"))));
+  }
+
+  private static final Document INDEX_PLAN =
+      explainResult(
+          new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN")));
+
+  private static final Document SCAN_PLAN =
+      explainResult(
+          new Document(
+              "queryPlan",
+              new Document("stage", "SORT")
+                  .append("inputStages", List.of(new Document("stage", "COLLSCAN")))));
+
+  private PersonIndexBootstrap bootstrap(String verifyMode) {
+    return spy(new PersonIndexBootstrap(mongoOperations, new MongoMappingContext(), verifyMode));
+  }
+
+  @Test
+  @DisplayName("Should create every index declared on PersonDocument")
+  void shouldCreateDeclaredIndexes() {
+    when(mongoOperations.indexOps(PersonDocument.class)).thenReturn(indexOperations);
+    ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+    when(indexOperations.createIndex(indexes.capture())).thenReturn("index");
+
+    bootstrap("off").afterSingletonsInstantiated();
+
+    assertEquals(
+        List.of("city_id", "favoriteColor_id", "nameTrigrams_id", "zipCode_id"),
+        indexes.getAllValues().stream()
+            .map(index -> index.getIndexOptions().getString("name"))
+            .sorted()
+            .toList());
+  }
+
+  @Test
+  @DisplayName("Should find collection scans anywhere in the winning plan")
+  void shouldFindCollectionScans() {
+    assertFalse(PersonIndexBootstrap.hasCollectionScan(INDEX_PLAN.get("queryPlanner")));
+    assertTrue(PersonIndexBootstrap.hasCollectionScan(SCAN_PLAN.get("queryPlanner")));
+  }
+
+  @Test
+  @DisplayName("Should pass when every query shape uses an index")
+  void shouldPassWhenAllShapesUseIndexes() {
+    PersonIndexBootstrap bootstrap = bootstrap("fail");
+    doReturn(INDEX_PLAN).when(bootstrap).explain(any());
+
+    assertDoesNotThrow(bootstrap::verifyQueryPlans);
+    verify(bootstrap, times(PersonIndexBootstrap.QUERY_SHAPES.size())).explain(any());
+  }
+
+  @Test
+  @DisplayName("Should fail fast or only warn on a collection scan")
+  void shouldFailOrWarnOnCollectionScan() {
+    PersonIndexBootstrap failing = bootstrap("fail");
+    doReturn(INDEX_PLAN).when(failing).explain(any());
+    doReturn(SCAN_PLAN).when(failing).explain(PersonIndexBootstrap.QUERY_SHAPES.getFirst());
+
+    IllegalStateException exception =
+        assertThrows(IllegalStateException.class, failing::verifyQueryPlans);
+    assertTrue(exception.getMessage().contains("findByFavoriteColor"));
+
+    PersonIndexBootstrap warning = bootstrap("WARN");
+    doReturn(SCAN_PLAN).when(warning).explain(any());
+    assertDoesNotThrow(warning::verifyQueryPlans);
+  }
+
+  @Test
+  @DisplayName("Should have a matching query shape for every repository query method")
+  void shouldCoverEveryRepositoryQueryMethod() {
+    Map<String, QueryShape> shapes =
+        PersonIndexBootstrap.QUERY_SHAPES.stream()
+            .collect(Collectors.toMap(QueryShape::name, Function.identity()));
+    MongoPersistentEntity<?> entity =
+        new MongoMappingContext().getRequiredPersistentEntity(PersonDocument.class);
+
+    for (Class<?> repository :
+        List.of(PersonMongoRepository.class, ReactivePersonMongoRepository.class)) {
+      for (Method method : repository.getDeclaredMethods()) {
+        String name = repository.getSimpleName() + "." + method.getName();
+        QueryShape shape = shapes.get(method.getName());
+        assertNotNull(shape, name + " has no query shape");
+
+        Query query = method.getAnnotation(Query.class);
+        if (query != null) {
+          assertEquals(structure(parse(query.value())), structure(shape.filter()), name);
+          assertEquals(parse(query.sort()), shape.sort(), name);
+        } else {
+          PartTree tree = new PartTree(method.getName(), PersonDocument.class);
+          assertEquals(
+              tree.getParts().stream()
+                  .map(part -> fieldName(entity, part.getProperty().getSegment()))
+                  .collect(Collectors.toSet()),
+              shape.filter().keySet(),
+              name);
+          Document sort = new Document();
+          tree.getSort()
+              .forEach(
+                  order ->
+                      sort.append(
+                          fieldName(entity, order.getProperty()), order.isAscending() ? 1 : -1));
+          assertEquals(sort, shape.sort(), name);
+        }
+      }
+    }
+  }
+
+  private static Document parse(String json) {
+    return json.isEmpty() ? new Document() : Document.parse(json.replaceAll("\\?\\d+", "null"));
+  }
+
+  // operators and field names of a filter, with the values left out
+  private static Object structure(Object filter) {
+    if (filter instanceof Document document) {
+      Map<String, Object> keys = new TreeMap<>();
+      document.forEach((key, value) -> keys.put(key, structure(value)));
+      return keys;
+    }
+    return null;
+  }
+
+  private static String fieldName(MongoPersistentEntity<?> entity, String property) {
+    return entity.getRequiredPersistentProperty(property).getFieldName();
+  }
+
+  @Test
+  @DisplayName("Should reject unknown verification modes")
+  void shouldRejectUnknownModes() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new PersonIndexBootstrap(mongoOperations, new MongoMappingContext(), "maybe"));
+  }
+}
@@ -0,0 +1,118 @@
+package de.assecor.persons.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.List;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@DisplayName("PersonMongoRepositoryCustomImpl Tests")
+@ExtendWith(MockitoExtension.class)
+class PersonMongoRepositoryCustomImplTest {
+
+  private static final PersonDocument PERSON =
+      new PersonDocument(7, "John", "Doe", "12345", "City", Color.BLUE);
+
+  @Mock private MongoOperations mongoOperations;
+
+  private PersonMongoRepositoryCustomImpl repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new PersonMongoRepositoryCustomImpl(mongoOperations);
+  }
+
+  @Test
+  @DisplayName("Should replace by id and report whether a document matched")
+  void shouldReplaceById() {
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    when(mongoOperations.replace(query.capture(), eq(PERSON)))
+        .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+        .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+    assertTrue(repository.replaceExisting(PERSON));
+    assertFalse(repository.replaceExisting(PERSON));
+    assertEquals(new Document("_id", 7), query.getValue().getQueryObject());
+  }
+
+  @Test
+  @DisplayName("Should delete by id and report whether a document was deleted")
+  void shouldRemoveById() {
+    when(mongoOperations.remove(any(Query.class), eq(PersonDocument.class)))
+        .thenReturn(DeleteResult.acknowledged(1))
+        .thenReturn(DeleteResult.acknowledged(0));
+
+    assertTrue(repository.removeById(7));
+    assertFalse(repository.removeById(7));
+  }
+
+  @Test
+  @DisplayName("Should backfill name search fields in bulk batches")
+  void shouldBackfillSearchFieldsInBatches() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    when(mongoOperations.stream(query.capture(), eq(PersonDocument.class)))
+        .thenReturn(
+            Stream.of(
+                new PersonDocument(1, "Hans", "Müller", null, null, null, null, null),
+                new PersonDocument(2, "Peter", "Petersen", null, null, null, null, null),
+                new PersonDocument(3, "Jonas", "Müller", null, null, null, null, null)));
+    when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, PersonDocument.class))
+        .thenReturn(bulk);
+    when(bulk.execute())
+        .thenReturn(BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()))
+        .thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    when(bulk.updateOne(any(Query.class), update.capture())).thenReturn(bulk);
+
+    assertEquals(3, repository.backfillSearchFields(2));
+
+    assertEquals(
+        new Document("nameTrigrams", new Document("$exists", false)),
+        query.getValue().getQueryObject());
+    verify(bulk, times(2)).execute();
+    assertEquals(
+        new Document(
+            "$set",
+            new Document("searchNames", List.of("hans", "mueller"))
+                .append("nameTrigrams", List.of("han", "ans", "mue", "uel", "ell", "lle", "ler"))),
+        update.getAllValues().getFirst().getUpdateObject());
+  }
+
+  @Test
+  @DisplayName("Should not send a bulk write when no document lacks search fields")
+  void shouldSkipBackfillWithoutMissingDocuments() {
+    when(mongoOperations.stream(any(Query.class), eq(PersonDocument.class)))
+        .thenReturn(Stream.empty());
+
+    assertEquals(0, repository.backfillSearchFields(2));
+    verify(mongoOperations, never())
+        .bulkOps(any(BulkOperations.BulkMode.class), eq(PersonDocument.class));
+  }
+
+  @Test
+  @DisplayName("Should not send an empty bulk insert")
+  void shouldSkipEmptyBulkInsert() {
+    assertEquals(0, repository.insertUnordered(List.of()));
+    verifyNoInteractions(mongoOperations);
+  }
+}
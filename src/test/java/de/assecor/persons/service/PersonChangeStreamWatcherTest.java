@@ -0,0 +1,217 @@
+package de.assecor.persons.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import de.assecor.persons.model.document.PersonDocument;
+import java.util.Map;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@DisplayName("PersonChangeStreamWatcher Tests")
+@ExtendWith(MockitoExtension.class)
+class PersonChangeStreamWatcherTest {
+
+  @Mock private MongoOperations mongoOperations;
+
+  @Mock private MongoCollection<Document> collection;
+
+  @Mock private ChangeStreamIterable<Document> stream;
+
+  @Mock private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+
+  @Mock private LocalPersonCache cache;
+
+  private PersonChangeStreamWatcher watcher;
+
+  private static BsonDocument token(String data) {
+    return new BsonDocument("_data", new BsonString(data));
+  }
+
+  private static ChangeStreamDocument<Document> event(
+      String operationType, BsonDocument resumeToken, Object id) {
+    BsonDocument documentKey =
+        switch (id) {
+          case null -> null;
+          case Integer value -> new BsonDocument("_id", new BsonInt32(value));
+          case Long value -> new BsonDocument("_id", new BsonInt64(value));
+          default -> new BsonDocument("_id", new BsonString(id.toString()));
+        };
+    return new ChangeStreamDocument<>(
+        operationType,
+        resumeToken,
+        null,
+        null,
+        null,
+        null,
+        null,
+        documentKey,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+
+  @BeforeEach
+  void setUp() {
+    watcher =
+        new PersonChangeStreamWatcher(
+            mongoOperations,
+            new StaticListableBeanFactory(Map.of("cache", cache))
+                .getBeanProvider(LocalPersonCache.class),
+            "node-1");
+  }
+
+  @AfterEach
+  void tearDown() {
+    watcher.stop();
+  }
+
+  private void storedToken(BsonDocument token) {
+    when(mongoOperations.findById(
+            "persons:node-1", Document.class, PersonChangeStreamWatcher.TOKEN_COLLECTION))
+        .thenReturn(token == null ? null : new Document("token", token.toJson()));
+  }
+
+  private void stubStream() {
+    when(mongoOperations.getCollectionName(PersonDocument.class)).thenReturn("persons");
+    when(mongoOperations.getCollection("persons")).thenReturn(collection);
+    when(collection.watch(anyList())).thenReturn(stream);
+    when(stream.maxAwaitTime(anyLong(), any())).thenReturn(stream);
+  }
+
+  @Test
+  @DisplayName("Should resume from the stored token, invalidate changed ids and save the token")
+  void shouldInvalidateChangedPersonsAndSaveToken() {
+    storedToken(token("00"));
+    stubStream();
+    when(stream.startAfter(token("00"))).thenReturn(stream);
+    when(stream.cursor()).thenReturn(cursor);
+    when(cursor.tryNext())
+        .thenReturn(event("insert", token("01"), 1))
+        .thenReturn(event("replace", token("02"), 2L))
+        .thenReturn(event("delete", token("03"), "not-a-number"))
+        .thenReturn(null);
+    when(cursor.getResumeToken()).thenReturn(token("01"), token("02"), token("03"));
+
+    watcher.start();
+    verify(cache, timeout(2_000)).invalidateAll();
+    watcher.stop();
+
+    verify(cache).invalidate(1);
+    verify(cache).invalidate(2);
+    assertFalse(watcher.isRunning());
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+    verify(mongoOperations, atLeastOnce())
+        .upsert(
+            any(Query.class), updates.capture(), eq(PersonChangeStreamWatcher.TOKEN_COLLECTION));
+    Document saved = updates.getValue().getUpdateObject().get("$set", Document.class);
+    assertEquals(token("03").toJson(), saved.getString("token"));
+  }
+
+  @Test
+  @DisplayName("Should invalidate everything on a drop and continue after the invalidate event")
+  void shouldContinueAfterInvalidate() {
+    storedToken(null);
+    stubStream();
+    @SuppressWarnings("unchecked")
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> next =
+        mock(MongoChangeStreamCursor.class);
+    when(stream.cursor()).thenReturn(cursor).thenReturn(next);
+    when(stream.startAfter(token("02"))).thenReturn(stream);
+    when(cursor.tryNext())
+        .thenReturn(event("drop", token("01"), null))
+        .thenReturn(event("invalidate", token("02"), null));
+
+    watcher.start();
+
+    verify(next, timeout(2_000).atLeastOnce()).tryNext();
+    verify(cache, atLeast(2)).invalidateAll();
+    verify(cursor).close();
+  }
+
+  @Test
+  @DisplayName("Should clear the caches and reconnect when the stream fails")
+  void shouldReconnectAfterFailure() {
+    storedToken(token("00"));
+    stubStream();
+    when(stream.startAfter(token("00"))).thenReturn(stream);
+    when(stream.cursor()).thenReturn(cursor);
+    when(cursor.tryNext())
+        .thenThrow(new MongoException(286, "history lost"))
+        .thenReturn(event("update", token("05"), 5))
+        .thenReturn(null);
+
+    watcher.start();
+
+    verify(cache, timeout(3_000)).invalidate(5);
+    verify(cache, atLeast(2)).invalidateAll();
+    verify(mongoOperations)
+        .remove(any(Query.class), eq(PersonChangeStreamWatcher.TOKEN_COLLECTION));
+    // the lost token is not resumed from again
+    verify(stream, times(1)).startAfter(any());
+  }
+
+  @Test
+  @DisplayName("Should not watch a server without change streams")
+  void shouldNotWatchStandaloneServer() {
+    storedToken(null);
+    stubStream();
+    when(stream.cursor())
+        .thenThrow(
+            new MongoCommandException(
+                new BsonDocument("ok", new BsonInt32(0))
+                    .append("code", new BsonInt32(40573))
+                    .append("errmsg", new BsonString("not a replica set")),
+                new ServerAddress()));
+
+    watcher.start();
+
+    assertFalse(watcher.isRunning());
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  @DisplayName("Should not watch without local caches")
+  void shouldNotWatchWithoutCaches() {
+    watcher =
+        new PersonChangeStreamWatcher(
+            mongoOperations,
+            new StaticListableBeanFactory().getBeanProvider(LocalPersonCache.class),
+            "node-1");
+
+    watcher.start();
+
+    assertFalse(watcher.isRunning());
+    verifyNoInteractions(mongoOperations);
+  }
+}
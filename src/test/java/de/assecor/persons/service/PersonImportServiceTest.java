@@ -0,0 +1,181 @@
+package de.assecor.persons.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import de.assecor.persons.model.dto.ImportResultDto;
+import de.assecor.persons.model.dto.ImportResultDto.RejectedLine;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.impl.InMemoryDataServiceImpl;
+import de.assecor.persons.service.initialdata.CsvLineParser;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PersonImportService Tests")
+class PersonImportServiceTest {
+
+  private InMemoryDataServiceImpl dataService;
+  private PersonImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    dataService = new InMemoryDataServiceImpl(null);
+    importService = importService(dataService, 2, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    importService.shutdown();
+  }
+
+  private static PersonImportService importService(
+      DataService dataService, int batchSize, int maxRejectedLines) {
+    return new PersonImportService(dataService, batchSize, 1, maxRejectedLines, 1);
+  }
+
+  private static InputStream input(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Nested
+  @DisplayName("CSV Import Tests")
+  class CsvImportTests {
+
+    @Test
+    @DisplayName("Should import valid lines in order across several batches")
+    void shouldImportValidLinesInOrder() {
+      ImportResultDto result =
+          importService.importCsv(
+              input(
+                  """
+                  Müller, Hans, 67742 Lauterecken, 1
+                  Petersen, Peter, 18439 Stralsund, 2
+
+                  Johnson, Johnny, 88888 made up, 3
+                  Millenium, Milly, 77777 made up too, 4
+                  Müller, Jonas, 32323 Hansstadt, 5
+                  """));
+
+      assertEquals(5, result.imported());
+      assertEquals(0, result.rejected());
+      assertEquals(5, dataService.getAllPersons().size());
+      assertEquals("Jonas", dataService.getPersonById(5).firstName());
+      assertEquals("made up too", dataService.getPersonById(4).city());
+    }
+
+    @Test
+    @DisplayName("Should count every rejected line and report the first ones")
+    void shouldReportRejectedLines() {
+      ImportResultDto result =
+          importService.importCsv(
+              input(
+                  """
+                  Müller, Hans, 67742 Lauterecken, 1
+                  Petersen, Peter
+                  Johnson, Johnny, 88888 made up, 9
+                  """));
+
+      assertEquals(1, result.imported());
+      assertEquals(2, result.rejected());
+      assertEquals(List.of(new RejectedLine(2, "insufficient fields")), result.rejectedLines());
+    }
+  }
+
+  @Nested
+  @DisplayName("Writer Limit Tests")
+  class WriterLimitTests {
+
+    @Test
+    @DisplayName("Should let imports beyond the limit wait for a writer thread")
+    void shouldQueueImportsBeyondLimit() throws Exception {
+      CountDownLatch firstStarted = new CountDownLatch(1);
+      CountDownLatch releaseFirst = new CountDownLatch(1);
+      Function<String, PersonDto> blockingParser =
+          line -> {
+            firstStarted.countDown();
+            try {
+              releaseFirst.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return CsvLineParser.parse(line);
+          };
+      ExecutorService requests = Executors.newFixedThreadPool(2);
+      try {
+        Future<ImportResultDto> first =
+            requests.submit(
+                () ->
+                    importService.importLines(
+                        input("Müller, Hans, 67742 Lauterecken, 1\n"), blockingParser));
+        firstStarted.await();
+        Future<ImportResultDto> second =
+            requests.submit(
+                () -> importService.importCsv(input("Petersen, Peter, 18439 Stralsund, 2\n")));
+
+        // the only writer belongs to the first import, so the second one cannot finish
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+
+        releaseFirst.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).imported());
+        assertEquals(1, second.get(5, TimeUnit.SECONDS).imported());
+        assertEquals(2, dataService.getAllPersons().size());
+      } finally {
+        releaseFirst.countDown();
+        requests.shutdownNow();
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("Write Failure Tests")
+  class WriteFailureTests {
+
+    @Test
+    @DisplayName("Should surface writer failures and keep earlier batches")
+    void shouldSurfaceWriterFailures() {
+      DataService failing = mock(DataService.class);
+      List<List<PersonDto>> written = new ArrayList<>();
+      when(failing.createPersons(anyList()))
+          .thenAnswer(
+              invocation -> {
+                List<PersonDto> batch = invocation.getArgument(0);
+                if (!written.isEmpty()) {
+                  throw new IllegalStateException("disk full");
+                }
+                written.add(batch);
+                return batch;
+              });
+      PersonImportService service = importService(failing, 1, 1);
+      StringBuilder csv = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        csv.append("Müller, Hans, 67742 Lauterecken, 1\n");
+      }
+
+      try {
+        IllegalStateException exception =
+            assertThrows(
+                IllegalStateException.class, () -> service.importCsv(input(csv.toString())));
+        assertEquals("disk full", exception.getMessage());
+        assertEquals(1, written.size());
+      } finally {
+        service.shutdown();
+      }
+    }
+  }
+}
@@ -2,11 +2,22 @@ package de.assecor.persons.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import de.assecor.persons.model.document.SequenceDocument;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -98,6 +109,107 @@ class SequenceGeneratorServiceTest {
               any(FindAndModifyOptions.class),
               eq(SequenceDocument.class));
     }
+
+    @Test
+    @DisplayName("Should return the first value of a reserved range")
+    void shouldReturnFirstValueOfReservedRange() {
+      when(mongoOperations.findAndModify(
+              any(Query.class),
+              any(Update.class),
+              any(FindAndModifyOptions.class),
+              eq(SequenceDocument.class)))
+          .thenReturn(new SequenceDocument(SequenceDocument.PERSON_SEQUENCE, 110));
+
+      assertEquals(
+          101, sequenceGeneratorService.reserveRange(SequenceDocument.PERSON_SEQUENCE, 10));
+    }
+
+    @Test
+    @DisplayName("Should reject empty ranges")
+    void shouldRejectEmptyRanges() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> sequenceGeneratorService.reserveRange(SequenceDocument.PERSON_SEQUENCE, 0));
+      verifyNoInteractions(mongoOperations);
+    }
+  }
+
+  @Nested
+  @DisplayName("Block Allocation Tests")
+  class BlockAllocationTests {
+
+    private final List<Integer> increments = Collections.synchronizedList(new ArrayList<>());
+
+    // emulates the $inc on the sequence document and records every increment
+    private SequenceGeneratorService serviceWithBlocks(int blockSize, int maxBlockSize) {
+      AtomicInteger counter = new AtomicInteger();
+      when(mongoOperations.findAndModify(
+              any(Query.class),
+              any(Update.class),
+              any(FindAndModifyOptions.class),
+              eq(SequenceDocument.class)))
+          .thenAnswer(
+              invocation -> {
+                Update update = invocation.getArgument(1);
+                int inc = ((Document) update.getUpdateObject().get("$inc")).getInteger("seq");
+                increments.add(inc);
+                return new SequenceDocument(
+                    SequenceDocument.PERSON_SEQUENCE, counter.addAndGet(inc));
+              });
+      return new SequenceGeneratorService(mongoOperations, blockSize, maxBlockSize);
+    }
+
+    @Test
+    @DisplayName("Should hand out consecutive values from growing blocks")
+    void shouldHandOutValuesFromGrowingBlocks() {
+      SequenceGeneratorService service = serviceWithBlocks(10, 40);
+
+      for (int expected = 1; expected <= 150; expected++) {
+        assertEquals(expected, service.nextValue(SequenceDocument.PERSON_SEQUENCE));
+      }
+
+      // blocks used up within a second double up to the max size
+      assertEquals(List.of(10, 20, 40, 40, 40), increments);
+    }
+
+    @Test
+    @DisplayName("Should hand out unique values to concurrent callers")
+    void shouldHandOutUniqueValuesConcurrently() throws Exception {
+      SequenceGeneratorService service = serviceWithBlocks(10, 1_000);
+      int threads = 8;
+      int perThread = 5_000;
+      Set<Integer> values = ConcurrentHashMap.newKeySet();
+
+      try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          futures.add(
+              executor.submit(
+                  () -> {
+                    for (int i = 0; i < perThread; i++) {
+                      values.add(service.nextValue(SequenceDocument.PERSON_SEQUENCE));
+                    }
+                  }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      }
+
+      assertEquals(threads * perThread, values.size());
+      assertTrue(increments.size() < 100, "round trips: " + increments.size());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid block sizes")
+    void shouldRejectInvalidBlockSizes() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> new SequenceGeneratorService(mongoOperations, 0, 10));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> new SequenceGeneratorService(mongoOperations, 20, 10));
+    }
   }
 
   @Nested
@@ -0,0 +1,175 @@
+package de.assecor.persons.service.impl;
+
+import de.assecor.persons.exception.PersonNotFoundException;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.DataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CachingDataService Tests")
+@ExtendWith(MockitoExtension.class)
+class CachingDataServiceTest {
+
+  private static final PersonDto PERSON =
+      new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1);
+  private static final PersonDto UPDATED = new PersonDto(1, "Hans", "Müller", "50667", "Köln", 2);
+
+  @Mock private DataService delegate;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private SimpleMeterRegistry meterRegistry;
+  private CachingDataService dataService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    dataService =
+        new CachingDataService(delegate, 2, Duration.ofSeconds(60), meterRegistry, nanos::get);
+  }
+
+  private double gets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", CachingDataService.CACHE_NAME)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  @Nested
+  @DisplayName("getPersonById")
+  class GetPersonById {
+
+    @Test
+    @DisplayName("Should load a person once and serve repeated reads from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+      when(delegate.getPersonById(1)).thenReturn(PERSON);
+
+      assertEquals(PERSON, dataService.getPersonById(1));
+      assertEquals(PERSON, dataService.getPersonById(1));
+
+      verify(delegate, times(1)).getPersonById(1);
+      assertEquals(1, gets("hit"));
+      assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("Should not cache missing persons")
+    void shouldNotCacheMissingPersons() {
+      when(delegate.getPersonById(99)).thenThrow(new PersonNotFoundException("Person with id 99 not found"));
+
+      assertThrows(PersonNotFoundException.class, () -> dataService.getPersonById(99));
+      assertThrows(PersonNotFoundException.class, () -> dataService.getPersonById(99));
+
+      verify(delegate, times(2)).getPersonById(99);
+    }
+
+    @Test
+    @DisplayName("Should reload a person after the TTL")
+    void shouldReloadAfterTtl() {
+      when(delegate.getPersonById(1)).thenReturn(PERSON, UPDATED);
+
+      dataService.getPersonById(1);
+      nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+      assertEquals(UPDATED, dataService.getPersonById(1));
+      verify(delegate, times(2)).getPersonById(1);
+    }
+
+    @Test
+    @DisplayName("Should evict persons beyond the maximum size and count the evictions")
+    void shouldEvictBeyondMaximumSize() {
+      for (int id = 1; id <= 5; id++) {
+        when(delegate.getPersonById(id))
+            .thenReturn(new PersonDto(id, "Hans", "Müller", "67742", "Lauterecken", 1));
+        dataService.getPersonById(id);
+      }
+      dataService.cleanUp();
+
+      assertEquals(
+          3,
+          meterRegistry.get("cache.evictions").tag("cache", CachingDataService.CACHE_NAME)
+              .functionCounter().count());
+      assertEquals(
+          2,
+          meterRegistry.get("cache.size").tag("cache", CachingDataService.CACHE_NAME)
+              .gauge().value());
+    }
+  }
+
+  @Nested
+  @DisplayName("Writes")
+  class Writes {
+
+    @BeforeEach
+    void cachePerson() {
+      when(delegate.getPersonById(1)).thenReturn(PERSON, UPDATED);
+      dataService.getPersonById(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate an updated person")
+    void shouldInvalidateUpdatedPerson() {
+      when(delegate.updatePerson(1, UPDATED)).thenReturn(UPDATED);
+
+      dataService.updatePerson(1, UPDATED);
+
+      assertEquals(UPDATED, dataService.getPersonById(1));
+    }
+
+    @Test
+    @DisplayName("Should invalidate a deleted person")
+    void shouldInvalidateDeletedPerson() {
+      dataService.deletePerson(1);
+
+      dataService.getPersonById(1);
+      verify(delegate, times(2)).getPersonById(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate even when the write fails")
+    void shouldInvalidateOnFailedWrite() {
+      doThrow(new PersonNotFoundException("Person with id 1 not found")).when(delegate).deletePerson(1);
+
+      assertThrows(PersonNotFoundException.class, () -> dataService.deletePerson(1));
+
+      assertEquals(UPDATED, dataService.getPersonById(1));
+    }
+
+    @Test
+    @DisplayName("Should invalidate created persons")
+    void shouldInvalidateCreatedPersons() {
+      when(delegate.createPersons(List.of(PERSON))).thenReturn(List.of(UPDATED));
+
+      dataService.createPersons(List.of(PERSON));
+
+      assertEquals(UPDATED, dataService.getPersonById(1));
+    }
+  }
+
+  @Test
+  @DisplayName("Should pass other reads through to the delegate")
+  void shouldPassOtherReadsThrough() {
+    when(delegate.getPersonsByColor(Color.BLUE)).thenReturn(List.of(PERSON));
+
+    assertEquals(List.of(PERSON), dataService.getPersonsByColor(Color.BLUE));
+    assertEquals(List.of(PERSON), dataService.getPersonsByColor(Color.BLUE));
+
+    verify(delegate, times(2)).getPersonsByColor(Color.BLUE);
+  }
+}
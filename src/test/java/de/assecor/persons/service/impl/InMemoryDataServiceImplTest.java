@@ -1,20 +1,33 @@
 package de.assecor.persons.service.impl;
 
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import de.assecor.persons.model.Color;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.service.impl.durability.FsyncPolicy;
+import de.assecor.persons.service.impl.durability.SnapshotStore;
+import de.assecor.persons.service.impl.durability.WriteAheadLog;
+import de.assecor.persons.service.impl.store.PersistentPersonStore;
 import de.assecor.persons.service.initialdata.InitialDataProvider;
 import de.assecor.persons.service.initialdata.ListInitialDataProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -66,6 +79,34 @@ class InMemoryDataServiceImplTest {
     void shouldThrowExceptionWhenCreatingNullPerson() {
       assertThrows(IllegalArgumentException.class, () -> dataService.createPerson(null));
     }
+
+    @Test
+    @DisplayName("Should create a batch with consecutive ids in input order")
+    void shouldCreateBatchWithConsecutiveIds() {
+      dataService.createPerson(new PersonDto(0, "John", "Doe", "12345", "TestCity", 1));
+
+      List<PersonDto> created =
+          dataService.createPersons(
+              List.of(
+                  new PersonDto(0, "Jane", "Smith", "67890", "AnotherCity", 2),
+                  new PersonDto(0, "Hans", "Müller", "67742", "Lauterecken", 4)));
+
+      assertEquals(List.of(2, 3), created.stream().map(PersonDto::id).toList());
+      assertEquals("Müller", dataService.getPersonById(3).lastName());
+      assertEquals(1, dataService.getPersonsByColor(Color.RED).size());
+      assertEquals(1, dataService.searchPersonsByName("muell", 10).size());
+      assertEquals(4, dataService.createPerson(created.getFirst()).id());
+    }
+
+    @Test
+    @DisplayName("Should reject batches containing null")
+    void shouldRejectBatchesContainingNull() {
+      List<PersonDto> batch = new ArrayList<>();
+      batch.add(null);
+
+      assertThrows(IllegalArgumentException.class, () -> dataService.createPersons(batch));
+      assertEquals(0, dataService.size());
+    }
   }
 
   @Nested
@@ -111,6 +152,22 @@ class InMemoryDataServiceImplTest {
       assertTrue(allPersons.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should return a list that later writes do not change")
+    void shouldReturnListUnaffectedByLaterWrites() {
+      PersonDto john =
+          dataService.createPerson(new PersonDto(0, "John", "Doe", "12345", "City1", 1));
+
+      List<PersonDto> allPersons = dataService.getAllPersons();
+      dataService.createPerson(new PersonDto(0, "Jane", "Smith", "67890", "City2", 2));
+      dataService.deletePerson(john.id());
+
+      assertEquals(1, allPersons.size());
+      assertEquals(john, allPersons.getFirst());
+      assertEquals(john, allPersons.get(0));
+      assertEquals(List.of(john), allPersons.stream().toList());
+    }
+
     @Test
     @DisplayName("Should return unmodifiable list")
     void shouldReturnUnmodifiableList() {
@@ -124,6 +181,58 @@ class InMemoryDataServiceImplTest {
     }
   }
 
+  @Nested
+  @DisplayName("Pagination Tests")
+  class PaginationTests {
+
+    @Test
+    @DisplayName("Should walk all persons page by page following the next cursor")
+    void shouldWalkAllPersonsPageByPage() {
+      for (int i = 0; i < 25; i++) {
+        dataService.createPerson(new PersonDto(0, "P" + i, "Last", "12345", "City", 1));
+      }
+      dataService.deletePerson(10);
+
+      List<Integer> ids = new ArrayList<>();
+      int pages = 0;
+      Integer after = 0;
+      while (after != null) {
+        PersonPageDto page = dataService.getPersonsPage(after, 8);
+        page.persons().forEach(person -> ids.add(person.id()));
+        after = page.next();
+        pages++;
+      }
+
+      assertEquals(3, pages);
+      assertEquals(24, ids.size());
+      assertFalse(ids.contains(10));
+      assertEquals(25, ids.getLast());
+    }
+
+    @Test
+    @DisplayName("Should stream the persons as they were when the stream was opened")
+    void shouldStreamPersonsAsOfOpening() {
+      dataService.createPerson(new PersonDto(0, "John", "Doe", "12345", "City", 1));
+      dataService.createPerson(new PersonDto(0, "Jane", "Doe", "12345", "City", 1));
+
+      try (Stream<PersonDto> stream = dataService.streamAllPersons()) {
+        dataService.deletePerson(1);
+        assertEquals(List.of("John", "Jane"), stream.map(PersonDto::firstName).toList());
+      }
+    }
+
+    @Test
+    @DisplayName("Should return an empty last page without cursor")
+    void shouldReturnEmptyLastPageWithoutCursor() {
+      dataService.createPerson(new PersonDto(0, "John", "Doe", "12345", "City", 1));
+
+      PersonPageDto page = dataService.getPersonsPage(1, 10);
+
+      assertTrue(page.persons().isEmpty());
+      assertNull(page.next());
+    }
+  }
+
   @Nested
   @DisplayName("Update Person Tests")
   class UpdatePersonTests {
@@ -219,6 +328,43 @@ class InMemoryDataServiceImplTest {
     }
   }
 
+  @Nested
+  @DisplayName("Id Index Tests")
+  class IdIndexTests {
+
+    @Test
+    @DisplayName("Should keep lookups consistent after deletes and updates")
+    void shouldKeepLookupsConsistentAfterDeletesAndUpdates() {
+      for (int i = 1; i <= 100; i++) {
+        dataService.createPerson(new PersonDto(0, "Person" + i, "Last", "12345", "City", 1));
+      }
+
+      for (int id = 2; id <= 100; id += 2) {
+        dataService.deletePerson(id);
+      }
+      dataService.updatePerson(51, new PersonDto(0, "Updated", "Last", "54321", "City", 2));
+
+      assertEquals(50, dataService.size());
+      assertEquals("Updated", dataService.getPersonById(51).firstName());
+      assertEquals("Person99", dataService.getPersonById(99).firstName());
+      assertThrows(PersonNotFoundException.class, () -> dataService.getPersonById(50));
+    }
+
+    @Test
+    @DisplayName("Should keep insertion order in getAllPersons after updates")
+    void shouldKeepInsertionOrderAfterUpdates() {
+      dataService.createPerson(new PersonDto(0, "First", "Last", "11111", "City", 1));
+      dataService.createPerson(new PersonDto(0, "Second", "Last", "22222", "City", 1));
+      dataService.createPerson(new PersonDto(0, "Third", "Last", "33333", "City", 1));
+
+      dataService.updatePerson(1, new PersonDto(0, "Updated", "Last", "11111", "City", 2));
+
+      List<PersonDto> allPersons = dataService.getAllPersons();
+      assertEquals(List.of(1, 2, 3), allPersons.stream().map(PersonDto::id).toList());
+      assertEquals("Updated", allPersons.getFirst().firstName());
+    }
+  }
+
   @Nested
   @DisplayName("Get Persons By Color Tests")
   class GetPersonsByColorTests {
@@ -251,6 +397,39 @@ class InMemoryDataServiceImplTest {
       assertTrue(redPersons.isEmpty());
     }
 
+    @Test
+    @DisplayName("Should move person between colors on update")
+    void shouldMovePersonBetweenColorsOnUpdate() {
+      PersonDto person =
+          dataService.createPerson(
+              new PersonDto(0, "John", "Doe", "12345", "City1", Color.BLUE.getId()));
+
+      dataService.updatePerson(
+          person.id(), new PersonDto(0, "John", "Doe", "12345", "City1", Color.RED.getId()));
+
+      assertTrue(dataService.getPersonsByColor(Color.BLUE).isEmpty());
+      assertEquals(
+          List.of(person.id()),
+          dataService.getPersonsByColor(Color.RED).stream().map(PersonDto::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should not return deleted persons")
+    void shouldNotReturnDeletedPersons() {
+      PersonDto first =
+          dataService.createPerson(
+              new PersonDto(0, "John", "Doe", "12345", "City1", Color.BLUE.getId()));
+      PersonDto second =
+          dataService.createPerson(
+              new PersonDto(0, "Jane", "Doe", "12345", "City1", Color.BLUE.getId()));
+
+      dataService.deletePerson(first.id());
+
+      List<PersonDto> bluePersons = dataService.getPersonsByColor(Color.BLUE);
+      assertEquals(1, bluePersons.size());
+      assertEquals(second.id(), bluePersons.getFirst().id());
+    }
+
     @Test
     @DisplayName("Should throw exception when color is null")
     void shouldThrowExceptionWhenColorIsNull() {
@@ -258,6 +437,89 @@ class InMemoryDataServiceImplTest {
     }
   }
 
+  @Nested
+  @DisplayName("Search Persons Tests")
+  class SearchPersonsTests {
+
+    @BeforeEach
+    void createPersons() {
+      dataService.createPerson(new PersonDto(0, "Hans", "Müller", "67742", "Lauterecken", 1));
+      dataService.createPerson(new PersonDto(0, "Jonas", "Müller", "67655", "Kaiserslautern", 2));
+      dataService.createPerson(new PersonDto(0, "Peter", "Petersen", "18439", "Stralsund", 3));
+      dataService.createPerson(new PersonDto(0, "Gerda", "Gerber", "67742", "Lauterecken", 4));
+    }
+
+    @Test
+    @DisplayName("Should find persons by zip prefix ordered by zip code")
+    void shouldFindPersonsByZipPrefix() {
+      assertEquals(
+          List.of(2, 1, 4),
+          dataService.searchPersons("67", null).stream().map(PersonDto::id).toList());
+      assertEquals(1, dataService.searchPersons("184", null).size());
+      assertTrue(dataService.searchPersons("9", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find persons by exact city and combined criteria")
+    void shouldFindPersonsByCity() {
+      assertEquals(
+          List.of(1, 4),
+          dataService.searchPersons(null, "Lauterecken").stream().map(PersonDto::id).toList());
+      assertTrue(dataService.searchPersons(null, "lauterecken").isEmpty());
+      assertEquals(
+          List.of(2),
+          dataService.searchPersons("67", "Kaiserslautern").stream().map(PersonDto::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep the search index in sync with updates and deletes")
+    void shouldKeepSearchIndexInSync() {
+      dataService.updatePerson(1, new PersonDto(0, "Hans", "Müller", "10115", "Berlin", 1));
+      dataService.deletePerson(4);
+
+      assertEquals(
+          List.of(2), dataService.searchPersons("67", null).stream().map(PersonDto::id).toList());
+      assertEquals(1, dataService.searchPersons("1", "Berlin").size());
+      assertTrue(dataService.searchPersons(null, "Lauterecken").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject searches without criteria")
+    void shouldRejectSearchesWithoutCriteria() {
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersons(null, null));
+    }
+
+    @Test
+    @DisplayName("Should find persons by name fragment ignoring case and umlaut spelling")
+    void shouldFindPersonsByName() {
+      assertEquals(
+          List.of(1, 2),
+          dataService.searchPersonsByName("mueller", 10).stream().map(PersonDto::id).toList());
+      assertEquals(
+          List.of(3),
+          dataService.searchPersonsByName("ETERS", 10).stream().map(PersonDto::id).toList());
+      assertEquals(1, dataService.searchPersonsByName("Müll", 1).size());
+      assertTrue(dataService.searchPersonsByName("Schmidt", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the name index in sync with updates and deletes")
+    void shouldKeepNameIndexInSync() {
+      dataService.updatePerson(1, new PersonDto(0, "Hans", "Schmidt", "67742", "Lauterecken", 1));
+      dataService.deletePerson(2);
+
+      assertTrue(dataService.searchPersonsByName("Müller", 10).isEmpty());
+      assertEquals(1, dataService.searchPersonsByName("schmi", 10).size());
+    }
+
+    @Test
+    @DisplayName("Should reject name queries shorter than three characters")
+    void shouldRejectShortNameQueries() {
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersonsByName("Mu", 10));
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersonsByName(" ", 10));
+    }
+  }
+
   @Nested
   @DisplayName("Data Initialization Tests")
   class DataInitializationTests {
@@ -277,6 +539,29 @@ class InMemoryDataServiceImplTest {
       assertEquals(2, serviceWithLoader.getAllPersons().size());
     }
 
+    @Test
+    @DisplayName("Should bulk load initial data with sequential ids and color index")
+    void shouldBulkLoadInitialDataWithSequentialIdsAndColorIndex() {
+      List<PersonDto> initialData = new ArrayList<>();
+      for (int i = 0; i < 1_000; i++) {
+        initialData.add(new PersonDto(0, "Person" + i, "Last", "12345", "City", 1 + i % 7));
+      }
+
+      InMemoryDataServiceImpl serviceWithLoader =
+          new InMemoryDataServiceImpl(new ListInitialDataProvider(initialData));
+      serviceWithLoader.init();
+
+      assertEquals(1_000, serviceWithLoader.size());
+      assertEquals("Person0", serviceWithLoader.getPersonById(1).firstName());
+      assertEquals("Person999", serviceWithLoader.getPersonById(1_000).firstName());
+      assertEquals(143, serviceWithLoader.getPersonsByColor(Color.BLUE).size());
+      assertEquals(
+          1_001,
+          serviceWithLoader
+              .createPerson(new PersonDto(0, "New", "Person", "12345", "City", 1))
+              .id());
+    }
+
     @Test
     @DisplayName("Should handle empty list in data source loader")
     void shouldHandleEmptyListInDataSourceLoader() {
@@ -343,6 +628,222 @@ class InMemoryDataServiceImplTest {
     }
   }
 
+  @Nested
+  @DisplayName("Write-Ahead Log Recovery Tests")
+  class WriteAheadLogRecoveryTests {
+
+    @TempDir Path tempDir;
+
+    private InMemoryDataServiceImpl start(InitialDataProvider provider, WriteAheadLog log) {
+      InMemoryDataServiceImpl service =
+          new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, null);
+      service.init();
+      return service;
+    }
+
+    private WriteAheadLog openLog() throws IOException {
+      return WriteAheadLog.open(
+          tempDir.resolve("persons.wal"), FsyncPolicy.PER_OP, 1, Duration.ofSeconds(1), 4096);
+    }
+
+    @Test
+    @DisplayName("Should recover writes after restart instead of reloading initial data")
+    void shouldRecoverWritesAfterRestart() throws IOException {
+      ListInitialDataProvider provider =
+          new ListInitialDataProvider(
+              List.of(
+                  new PersonDto(0, "John", "Doe", "12345", "City1", 1),
+                  new PersonDto(0, "Jane", "Smith", "67890", "City2", 2)));
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service = start(provider, log);
+        service.createPerson(new PersonDto(0, "New", "Person", "11111", "City3", 3));
+        service.updatePerson(1, new PersonDto(0, "Johnny", "Doe", "12345", "City1", 4));
+        service.deletePerson(2);
+      }
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl recovered = start(provider, log);
+
+        assertEquals(2, recovered.size());
+        assertEquals("Johnny", recovered.getPersonById(1).firstName());
+        assertEquals(1, recovered.getPersonsByColor(Color.RED).size());
+        assertThrows(PersonNotFoundException.class, () -> recovered.getPersonById(2));
+        assertEquals(
+            4,
+            recovered.createPerson(new PersonDto(0, "Next", "Person", "1", "City", 1)).id());
+      }
+    }
+
+    @Test
+    @DisplayName("Should restore snapshot and replay only newer log records")
+    void shouldRestoreSnapshotAndReplayNewerLogRecords() throws IOException {
+      SnapshotStore snapshots =
+          new SnapshotStore(tempDir.resolve("persons.snapshot"), Duration.ofHours(1));
+      ListInitialDataProvider provider =
+          new ListInitialDataProvider(
+              List.of(new PersonDto(0, "John", "Doe", "12345", "City1", 1)));
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        service.init();
+        service.createPerson(new PersonDto(0, "Jane", "Smith", "67890", "City2", 2));
+        service.snapshot();
+        service.deletePerson(2);
+        service.createPerson(new PersonDto(0, "New", "Person", "11111", "City3", 3));
+        service.shutdown();
+        service.updatePerson(1, new PersonDto(0, "Johnny", "Doe", "12345", "City1", 1));
+        assertEquals(1, log.replay(entry -> {}));
+      }
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl recovered =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        recovered.init();
+
+        assertEquals(2, recovered.size());
+        assertEquals("Johnny", recovered.getPersonById(1).firstName());
+        assertEquals("New", recovered.getPersonById(3).firstName());
+        assertThrows(PersonNotFoundException.class, () -> recovered.getPersonById(2));
+        assertEquals(
+            4,
+            recovered.createPerson(new PersonDto(0, "Next", "Person", "1", "City", 1)).id());
+        recovered.shutdown();
+      }
+    }
+
+    @Test
+    @DisplayName("Should continue after the snapshot when the log was emptied")
+    void shouldContinueAfterSnapshotWhenLogWasEmptied() throws IOException {
+      SnapshotStore snapshots =
+          new SnapshotStore(tempDir.resolve("persons.snapshot"), Duration.ofHours(1));
+      ListInitialDataProvider provider =
+          new ListInitialDataProvider(
+              List.of(new PersonDto(0, "John", "Doe", "12345", "City1", 1)));
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        service.init();
+        service.createPerson(new PersonDto(0, "Jane", "Smith", "67890", "City2", 2));
+        service.snapshot();
+      }
+      Files.delete(tempDir.resolve("persons.wal"));
+      openLog().close();
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        service.init();
+        assertEquals(2, service.size());
+        service.createPerson(new PersonDto(0, "New", "Person", "11111", "City3", 3));
+      }
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl recovered =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        recovered.init();
+
+        assertEquals(3, recovered.size());
+        assertEquals("New", recovered.getPersonById(3).firstName());
+      }
+    }
+
+    @Test
+    @DisplayName("Should refuse to start when the log covered by a snapshot is missing")
+    void shouldFailWhenLogCoveredBySnapshotIsMissing() throws IOException {
+      SnapshotStore snapshots =
+          new SnapshotStore(tempDir.resolve("persons.snapshot"), Duration.ofHours(1));
+      ListInitialDataProvider provider =
+          new ListInitialDataProvider(
+              List.of(new PersonDto(0, "John", "Doe", "12345", "City1", 1)));
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service =
+            new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+        service.init();
+        service.createPerson(new PersonDto(0, "Jane", "Smith", "67890", "City2", 2));
+        service.snapshot();
+      }
+      Files.delete(tempDir.resolve("persons.wal"));
+
+      for (int attempt = 0; attempt < 2; attempt++) {
+        try (WriteAheadLog log = openLog()) {
+          InMemoryDataServiceImpl service =
+              new InMemoryDataServiceImpl(provider, new PersistentPersonStore(), log, snapshots);
+          assertThrows(IllegalStateException.class, service::init);
+        }
+        assertFalse(Files.exists(tempDir.resolve("persons.wal")));
+      }
+    }
+
+    @Test
+    @DisplayName("Should neither publish nor log initial data when the source fails midway")
+    void shouldNotLogPartialInitialData() throws IOException {
+      InitialDataProvider failingMidway =
+          new InitialDataProvider() {
+            @Override
+            public List<PersonDto> loadData() {
+              throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void forEachBatch(int batchSize, Consumer<? super List<PersonDto>> consumer)
+                throws DataLoadException {
+              consumer.accept(List.of(new PersonDto(0, "John", "Doe", "12345", "City1", 1)));
+              throw new DataLoadException("Broken source");
+            }
+
+            @Override
+            public boolean isAvailable() {
+              return true;
+            }
+          };
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service = start(failingMidway, log);
+
+        assertEquals(0, service.size());
+        assertEquals(0, log.replay(entry -> {}));
+        assertEquals(
+            1, service.createPerson(new PersonDto(0, "New", "Person", "1", "City", 1)).id());
+      }
+    }
+
+    @Test
+    @DisplayName("Should recover batch creates after restart")
+    void shouldRecoverBatchCreatesAfterRestart() throws IOException {
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service = start(null, log);
+        service.createPersons(
+            List.of(
+                new PersonDto(0, "A", "A", "11111", "City", 1),
+                new PersonDto(0, "B", "B", "22222", "City", 2)));
+      }
+
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl recovered = start(null, log);
+
+        assertEquals(2, recovered.size());
+        assertEquals("B", recovered.getPersonById(2).firstName());
+      }
+    }
+
+    @Test
+    @DisplayName("Should not log writes that fail")
+    void shouldNotLogWritesThatFail() throws IOException {
+      try (WriteAheadLog log = openLog()) {
+        InMemoryDataServiceImpl service = start(null, log);
+        assertThrows(
+            PersonNotFoundException.class,
+            () -> service.updatePerson(42, new PersonDto(0, "A", "B", "1", "C", 1)));
+        assertThrows(PersonNotFoundException.class, () -> service.deletePerson(42));
+        assertEquals(0, log.replay(entry -> {}));
+      }
+    }
+  }
+
   @Nested
   @DisplayName("Utility Methods Tests")
   class UtilityMethodsTests {
@@ -2,10 +2,13 @@ package de.assecor.persons.service.impl;
 
 import de.assecor.persons.exception.DataLoadException;
 import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
 import de.assecor.persons.exception.PersonNotFoundException;
 import de.assecor.persons.model.Color;
 import de.assecor.persons.model.document.PersonDocument;
+import de.assecor.persons.model.document.SequenceDocument;
 import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
 import de.assecor.persons.repository.PersonMongoRepository;
 import de.assecor.persons.service.SequenceGeneratorService;
 import de.assecor.persons.service.initialdata.InitialDataProvider;
@@ -16,12 +19,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @DisplayName("MongoDataService Tests")
@@ -54,23 +66,113 @@ class MongoDataServiceImplTest {
       dataService.init();
 
       verify(repository, never()).save(any());
-      verify(initialDataProvider, never()).loadData();
+      verify(initialDataProvider, never()).forEachBatch(anyInt(), any());
     }
 
     @Test
-    @DisplayName("Should import initial data when database is empty")
+    @DisplayName("Should backfill name search fields of existing data")
+    void shouldBackfillSearchFieldsOfExistingData() {
+      when(repository.count()).thenReturn(5L);
+      when(repository.backfillSearchFields(InitialDataProvider.DEFAULT_BATCH_SIZE)).thenReturn(2);
+
+      dataService.init();
+
+      verify(repository).backfillSearchFields(InitialDataProvider.DEFAULT_BATCH_SIZE);
+    }
+
+    private void provideBatches(List<List<PersonDto>> batches) throws DataLoadException {
+      doAnswer(
+              invocation -> {
+                Consumer<List<PersonDto>> consumer = invocation.getArgument(1);
+                batches.forEach(consumer);
+                return null;
+              })
+          .when(initialDataProvider)
+          .forEachBatch(eq(InitialDataProvider.DEFAULT_BATCH_SIZE), any());
+    }
+
+    // hands out ids like the sequence document does, one $inc per call
+    private AtomicInteger fakeSequence() {
+      AtomicInteger sequence = new AtomicInteger(10);
+      when(sequenceGeneratorService.reserveRange(eq(SequenceDocument.PERSON_SEQUENCE), anyInt()))
+          .thenAnswer(
+              invocation -> {
+                int count = invocation.getArgument(1);
+                return sequence.addAndGet(count) - count + 1;
+              });
+      return sequence;
+    }
+
+    @Test
+    @DisplayName("Should bulk import initial data with one id range per batch")
     void shouldImportInitialDataWhenDatabaseIsEmpty() throws DataLoadException {
       when(repository.count()).thenReturn(0L);
       when(initialDataProvider.isAvailable()).thenReturn(true);
-      when(initialDataProvider.loadData())
-          .thenReturn(List.of(new PersonDto(0, "John", "Doe", "12345", "City", 1)));
-      when(sequenceGeneratorService.generateSequence(any())).thenReturn(1);
+      provideBatches(
+          List.of(
+              List.of(
+                  new PersonDto(0, "John", "Doe", "12345", "City", 1),
+                  new PersonDto(0, "Jane", "Doe", "12345", "City", 2)),
+              List.of(new PersonDto(0, "Max", "Muster", "54321", "Town", 3))));
+      AtomicInteger sequence = fakeSequence();
+      List<Integer> insertedIds = Collections.synchronizedList(new ArrayList<>());
+      when(repository.insertUnordered(anyList()))
+          .thenAnswer(
+              invocation -> {
+                List<PersonDocument> docs = invocation.getArgument(0);
+                docs.forEach(doc -> insertedIds.add(doc.id()));
+                return docs.size();
+              });
+
+      dataService.init();
+
+      verify(repository, times(2)).insertUnordered(anyList());
+      assertEquals(List.of(11, 12, 13), insertedIds.stream().sorted().toList());
+      assertEquals(13, sequence.get());
+      verify(sequenceGeneratorService).reserveRange(SequenceDocument.PERSON_SEQUENCE, 2);
+      verify(sequenceGeneratorService).reserveRange(SequenceDocument.PERSON_SEQUENCE, 1);
+      verify(sequenceGeneratorService, never()).generateSequence(any());
+      verify(sequenceGeneratorService, never()).initializeSequence(any(), anyInt());
+      verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not reuse imported ids after a batch failed partway")
+    void shouldNotReuseImportedIdsAfterFailedBatch() throws DataLoadException {
+      when(repository.count()).thenReturn(0L);
+      when(initialDataProvider.isAvailable()).thenReturn(true);
+      provideBatches(
+          List.of(
+              List.of(
+                  new PersonDto(0, "John", "Doe", "12345", "City", 1),
+                  new PersonDto(0, "Jane", "Doe", "12345", "City", 2)),
+              List.of(new PersonDto(0, "Max", "Muster", "54321", "Town", 3))));
+      AtomicInteger sequence = fakeSequence();
+      when(sequenceGeneratorService.nextValue(SequenceDocument.PERSON_SEQUENCE))
+          .thenAnswer(invocation -> sequence.incrementAndGet());
+      List<Integer> insertedIds = Collections.synchronizedList(new ArrayList<>());
+      when(repository.insertUnordered(anyList()))
+          .thenAnswer(
+              invocation -> {
+                List<PersonDocument> docs = invocation.getArgument(0);
+                // the second batch fails after writing its first document
+                insertedIds.add(docs.getFirst().id());
+                if (docs.size() == 1) {
+                  throw new IllegalStateException("down");
+                }
+                insertedIds.add(docs.get(1).id());
+                return docs.size();
+              });
       when(repository.save(any(PersonDocument.class)))
           .thenAnswer(invocation -> invocation.getArgument(0));
 
-      dataService.init();
+      assertDoesNotThrow(() -> dataService.init());
+      PersonDto created =
+          dataService.createPerson(new PersonDto(0, "New", "Person", "11111", "City", 1));
 
-      verify(repository).save(any(PersonDocument.class));
+      assertEquals(List.of(11, 12, 13), insertedIds.stream().sorted().toList());
+      assertFalse(insertedIds.contains(created.id()));
+      verify(sequenceGeneratorService, never()).initializeSequence(any(), anyInt());
     }
 
     @Test
@@ -91,7 +193,7 @@ class MongoDataServiceImplTest {
 
       dataService.init();
 
-      verify(initialDataProvider, never()).loadData();
+      verify(initialDataProvider, never()).forEachBatch(anyInt(), any());
     }
 
     @Test
@@ -99,7 +201,9 @@ class MongoDataServiceImplTest {
     void shouldHandleExceptionDuringDataImport() throws DataLoadException {
       when(repository.count()).thenReturn(0L);
       when(initialDataProvider.isAvailable()).thenReturn(true);
-      when(initialDataProvider.loadData()).thenThrow(new RuntimeException("Import error"));
+      doThrow(new DataLoadException("Import error"))
+          .when(initialDataProvider)
+          .forEachBatch(anyInt(), any());
 
       assertDoesNotThrow(() -> dataService.init());
     }
@@ -137,6 +241,71 @@ class MongoDataServiceImplTest {
     }
   }
 
+  @Nested
+  @DisplayName("Pagination Tests")
+  class PaginationTests {
+
+    @Test
+    @DisplayName("Should query one more than the limit and return a next cursor")
+    void shouldQueryOneMoreThanLimitAndReturnNextCursor() {
+      when(repository.findByIdGreaterThanOrderByIdAsc(5, Limit.of(3)))
+          .thenReturn(
+              List.of(
+                  new PersonDocument(6, "A", "A", "12345", "City", Color.BLUE),
+                  new PersonDocument(8, "B", "B", "12345", "City", Color.BLUE),
+                  new PersonDocument(9, "C", "C", "12345", "City", Color.BLUE)));
+
+      PersonPageDto page = dataService.getPersonsPage(5, 2);
+
+      assertEquals(List.of(6, 8), page.persons().stream().map(PersonDto::id).toList());
+      assertEquals(8, page.next());
+      verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should stream persons from the repository cursor")
+    void shouldStreamPersonsFromRepositoryCursor() {
+      when(repository.streamAll(1_000))
+          .thenReturn(
+              Stream.of(
+                  new PersonDocument(1, "A", "A", "12345", "City", Color.BLUE),
+                  new PersonDocument(2, "B", "B", "12345", "City", Color.GREEN)));
+
+      try (Stream<PersonDto> stream = dataService.streamAllPersons()) {
+        assertEquals(List.of(1, 2), stream.map(PersonDto::id).toList());
+      }
+      verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should stream persons of a color from the repository cursor")
+    void shouldStreamPersonsByColorFromRepositoryCursor() {
+      MongoDataServiceImpl service =
+          new MongoDataServiceImpl(
+              repository, initialDataProvider, sequenceGeneratorService, 1_000, 4, 250);
+      when(repository.streamByFavoriteColor(Color.RED, 250))
+          .thenReturn(Stream.of(new PersonDocument(3, "A", "A", "12345", "City", Color.RED)));
+
+      try (Stream<PersonDto> stream = service.streamPersonsByColor(Color.RED)) {
+        assertEquals(List.of(3), stream.map(PersonDto::id).toList());
+      }
+      verify(repository, never()).findByFavoriteColor(any());
+      assertThrows(InvalidColorException.class, () -> service.streamPersonsByColor(null));
+    }
+
+    @Test
+    @DisplayName("Should return no cursor on the last page")
+    void shouldReturnNoCursorOnLastPage() {
+      when(repository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(3)))
+          .thenReturn(List.of(new PersonDocument(1, "A", "A", "12345", "City", Color.BLUE)));
+
+      PersonPageDto page = dataService.getPersonsPage(0, 2);
+
+      assertEquals(1, page.persons().size());
+      assertNull(page.next());
+    }
+  }
+
   @Nested
   @DisplayName("Get Person By Id Tests")
   class GetPersonByIdTests {
@@ -172,7 +341,7 @@ class MongoDataServiceImplTest {
     @DisplayName("Should create person with new ID when repository is empty")
     void shouldCreatePersonWithNewIdWhenRepositoryIsEmpty() {
       PersonDto personToCreate = new PersonDto(0, "John", "Doe", "12345", "City", 1);
-      when(sequenceGeneratorService.generateSequence(any())).thenReturn(1);
+      when(sequenceGeneratorService.nextValue(any())).thenReturn(1);
       when(repository.save(any(PersonDocument.class)))
           .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -184,11 +353,29 @@ class MongoDataServiceImplTest {
       verify(repository).save(any(PersonDocument.class));
     }
 
+    @Test
+    @DisplayName("Should reserve one id range and insert the batch at once")
+    void shouldReserveIdRangeAndInsertBatch() {
+      when(sequenceGeneratorService.reserveRange(SequenceDocument.PERSON_SEQUENCE, 2))
+          .thenReturn(7);
+      when(repository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+      List<PersonDto> result =
+          dataService.createPersons(
+              List.of(
+                  new PersonDto(0, "John", "Doe", "12345", "City", 1),
+                  new PersonDto(0, "Jane", "Smith", "67890", "City", 2)));
+
+      assertEquals(List.of(7, 8), result.stream().map(PersonDto::id).toList());
+      verify(sequenceGeneratorService, never()).generateSequence(any());
+      verify(repository, never()).save(any(PersonDocument.class));
+    }
+
     @Test
     @DisplayName("Should create person with incremented ID")
     void shouldCreatePersonWithIncrementedId() {
       PersonDto personToCreate = new PersonDto(0, "Jane", "Smith", "67890", "City", 2);
-      when(sequenceGeneratorService.generateSequence(any())).thenReturn(6);
+      when(sequenceGeneratorService.nextValue(any())).thenReturn(6);
       when(repository.save(any(PersonDocument.class)))
           .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -203,7 +390,7 @@ class MongoDataServiceImplTest {
     @DisplayName("Should save person to repository")
     void shouldSavePersonToRepository() {
       PersonDto personToCreate = new PersonDto(0, "John", "Doe", "12345", "City", 1);
-      when(sequenceGeneratorService.generateSequence(any())).thenReturn(1);
+      when(sequenceGeneratorService.nextValue(any())).thenReturn(1);
       when(repository.save(any(PersonDocument.class)))
           .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -229,9 +416,7 @@ class MongoDataServiceImplTest {
     @DisplayName("Should update existing person")
     void shouldUpdateExistingPerson() {
       PersonDto updateData = new PersonDto(0, "Jane", "Smith", "67890", "NewCity", 2);
-      when(repository.existsById(1)).thenReturn(true);
-      when(repository.save(any(PersonDocument.class)))
-          .thenAnswer(invocation -> invocation.getArgument(0));
+      when(repository.replaceExisting(any(PersonDocument.class))).thenReturn(true);
 
       PersonDto result = dataService.updatePerson(1, updateData);
 
@@ -247,24 +432,23 @@ class MongoDataServiceImplTest {
     @DisplayName("Should throw PersonNotFoundException when updating non-existent person")
     void shouldThrowExceptionWhenUpdatingNonExistentPerson() {
       PersonDto updateData = new PersonDto(0, "Jane", "Smith", "67890", "City", 2);
-      when(repository.existsById(999)).thenReturn(false);
+      when(repository.replaceExisting(any(PersonDocument.class))).thenReturn(false);
 
       assertThrows(PersonNotFoundException.class, () -> dataService.updatePerson(999, updateData));
       verify(repository, never()).save(any());
+      verify(repository, never()).existsById(any());
     }
 
     @Test
     @DisplayName("Should preserve ID during update")
     void shouldPreserveIdDuringUpdate() {
       PersonDto updateData = new PersonDto(99, "Jane", "Smith", "67890", "City", 2);
-      when(repository.existsById(5)).thenReturn(true);
-      when(repository.save(any(PersonDocument.class)))
-          .thenAnswer(invocation -> invocation.getArgument(0));
+      when(repository.replaceExisting(any(PersonDocument.class))).thenReturn(true);
 
       PersonDto result = dataService.updatePerson(5, updateData);
 
       assertEquals(5, result.id());
-      verify(repository).save(argThat(doc -> doc.id() == 5));
+      verify(repository).replaceExisting(argThat(doc -> doc.id() == 5));
     }
   }
 
@@ -275,17 +459,18 @@ class MongoDataServiceImplTest {
     @Test
     @DisplayName("Should delete existing person")
     void shouldDeleteExistingPerson() {
-      when(repository.existsById(1)).thenReturn(true);
+      when(repository.removeById(1)).thenReturn(true);
 
       dataService.deletePerson(1);
 
-      verify(repository).deleteById(1);
+      verify(repository).removeById(1);
+      verify(repository, never()).existsById(any());
     }
 
     @Test
     @DisplayName("Should throw PersonNotFoundException when deleting non-existent person")
     void shouldThrowExceptionWhenDeletingNonExistentPerson() {
-      when(repository.existsById(999)).thenReturn(false);
+      when(repository.removeById(999)).thenReturn(false);
 
       assertThrows(PersonNotFoundException.class, () -> dataService.deletePerson(999));
       verify(repository, never()).deleteById(any());
@@ -329,4 +514,73 @@ class MongoDataServiceImplTest {
       verify(repository, never()).findByFavoriteColor(any());
     }
   }
+
+  @Nested
+  @DisplayName("Search Persons Tests")
+  class SearchPersonsTests {
+
+    @Test
+    @DisplayName("Should query zip prefix as a string range")
+    void shouldQueryZipPrefixAsStringRange() {
+      when(repository.findByZipCodeRange("679", "67:"))
+          .thenReturn(List.of(new PersonDocument(1, "A", "A", "67900", "City", Color.BLUE)));
+
+      List<PersonDto> result = dataService.searchPersons("679", null);
+
+      assertEquals(1, result.size());
+      verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should combine zip prefix and city")
+    void shouldCombineZipPrefixAndCity() {
+      when(repository.findByZipCodeRangeAndCity("67", "68", "Lauterecken")).thenReturn(List.of());
+
+      assertTrue(dataService.searchPersons("67", "Lauterecken").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should query by exact city")
+    void shouldQueryByExactCity() {
+      when(repository.findByCityOrderByIdAsc("Berlin"))
+          .thenReturn(List.of(new PersonDocument(2, "B", "B", "10115", "Berlin", Color.RED)));
+
+      assertEquals("Berlin", dataService.searchPersons(null, "Berlin").getFirst().city());
+    }
+
+    @Test
+    @DisplayName("Should reject searches without criteria")
+    void shouldRejectSearchesWithoutCriteria() {
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersons(null, null));
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersons("", null));
+    }
+
+    @Test
+    @DisplayName("Should query name trigrams with a quoted folded regex")
+    void shouldQueryNameTrigrams() {
+      when(repository.findByNameTrigrams(
+              List.of("mue", "uel", "ell"), "\\Qmuell\\E", Limit.of(10)))
+          .thenReturn(List.of(new PersonDocument(1, "Hans", "Müller", "67742", "L", Color.BLUE)));
+
+      List<PersonDto> result = dataService.searchPersonsByName("Müll", 10);
+
+      assertEquals("Müller", result.getFirst().lastName());
+    }
+
+    @Test
+    @DisplayName("Should reject name queries shorter than three characters")
+    void shouldRejectShortNameQueries() {
+      assertThrows(InvalidSearchException.class, () -> dataService.searchPersonsByName("ab", 10));
+      verify(repository, never()).findByNameTrigrams(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should derive folded names and trigrams for the document")
+    void shouldDeriveSearchFields() {
+      PersonDocument document = new PersonDocument(1, "Jürgen", "Weiß", "1", "C", Color.BLUE);
+
+      assertEquals(List.of("juergen", "weiss"), document.searchNames());
+      assertTrue(document.nameTrigrams().containsAll(List.of("jue", "gen", "wei", "iss")));
+    }
+  }
 }
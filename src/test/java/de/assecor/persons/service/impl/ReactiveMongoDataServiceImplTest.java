@@ -0,0 +1,198 @@
+package de.assecor.persons.service.impl;
+
+import de.assecor.persons.exception.InvalidColorException;
+import de.assecor.persons.exception.InvalidSearchException;
+import de.assecor.persons.exception.PersonNotFoundException;
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.document.PersonDocument;
+import de.assecor.persons.model.document.SequenceDocument;
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.model.dto.PersonPageDto;
+import de.assecor.persons.repository.reactive.ReactivePersonMongoRepository;
+import de.assecor.persons.service.SequenceGeneratorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReactiveMongoDataService Tests")
+@ExtendWith(MockitoExtension.class)
+class ReactiveMongoDataServiceImplTest {
+
+  private static final PersonDto PERSON =
+      new PersonDto(0, "Hans", "Müller", "67742", "Lauterecken", 1);
+
+  @Mock private ReactivePersonMongoRepository repository;
+
+  @Mock private SequenceGeneratorService sequenceGeneratorService;
+
+  private ReactiveMongoDataServiceImpl dataService;
+
+  @BeforeEach
+  void setUp() {
+    dataService = new ReactiveMongoDataServiceImpl(repository, sequenceGeneratorService, 500);
+  }
+
+  private static PersonDocument document(int id) {
+    return new PersonDocument(id, "Hans", "Müller", "67742", "Lauterecken", Color.BLUE);
+  }
+
+  @Nested
+  @DisplayName("Reads")
+  class Reads {
+
+    @Test
+    @DisplayName("Should emit a stored person")
+    void shouldEmitStoredPerson() {
+      when(repository.findById(1)).thenReturn(Mono.just(document(1)));
+
+      StepVerifier.create(dataService.getPersonById(1))
+          .expectNext(new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1))
+          .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should signal PersonNotFoundException for a missing person")
+    void shouldSignalMissingPerson() {
+      when(repository.findById(99)).thenReturn(Mono.empty());
+
+      StepVerifier.create(dataService.getPersonById(99))
+          .verifyError(PersonNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should stream all persons from a cursor with the configured batch size")
+    void shouldStreamAllPersons() {
+      when(repository.streamAll(500)).thenReturn(Flux.just(document(1), document(2)));
+
+      StepVerifier.create(dataService.getAllPersons().map(PersonDto::id))
+          .expectNext(1, 2)
+          .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fetch one person more than the page to find the next cursor")
+    void shouldFetchOneMoreForPage() {
+      when(repository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(3)))
+          .thenReturn(Flux.just(document(1), document(2), document(3)));
+
+      PersonPageDto page = dataService.getPersonsPage(0, 2).block();
+
+      assertEquals(2, page.persons().size());
+      assertEquals(2, page.next());
+    }
+
+    @Test
+    @DisplayName("Should search a zip code prefix as a range")
+    void shouldSearchZipPrefixAsRange() {
+      when(repository.findByZipCodeRange("67", "68")).thenReturn(Flux.just(document(1)));
+
+      StepVerifier.create(dataService.searchPersons("67", null))
+          .expectNextCount(1)
+          .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should signal invalid searches without querying")
+    void shouldSignalInvalidSearches() {
+      StepVerifier.create(dataService.searchPersons(null, null))
+          .verifyError(InvalidSearchException.class);
+      StepVerifier.create(dataService.searchPersons("", "Berlin"))
+          .verifyError(InvalidSearchException.class);
+      StepVerifier.create(dataService.searchPersonsByName("ab", 10))
+          .verifyError(InvalidSearchException.class);
+      StepVerifier.create(dataService.getPersonsByColor(null))
+          .verifyError(InvalidColorException.class);
+
+      verifyNoInteractions(repository);
+    }
+  }
+
+  @Nested
+  @DisplayName("Writes")
+  class Writes {
+
+    @Test
+    @DisplayName("Should insert a new person with the next sequence value")
+    void shouldCreatePersonWithNextId() {
+      when(sequenceGeneratorService.nextValue(SequenceDocument.PERSON_SEQUENCE)).thenReturn(42);
+      when(repository.insert(any(PersonDocument.class)))
+          .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+      StepVerifier.create(dataService.createPerson(PERSON).map(PersonDto::id))
+          .expectNext(42)
+          .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should insert a batch with consecutive ids from one reserved range")
+    @SuppressWarnings("unchecked")
+    void shouldCreatePersonsWithConsecutiveIds() {
+      when(sequenceGeneratorService.reserveRange(SequenceDocument.PERSON_SEQUENCE, 3))
+          .thenReturn(10);
+      ArgumentCaptor<List<PersonDocument>> docs = ArgumentCaptor.forClass(List.class);
+      when(repository.insert(docs.capture()))
+          .thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+      List<PersonDto> created = dataService.createPersons(List.of(PERSON, PERSON, PERSON)).block();
+
+      assertEquals(List.of(10, 11, 12), created.stream().map(PersonDto::id).toList());
+      assertEquals(3, docs.getValue().size());
+    }
+
+    @Test
+    @DisplayName("Should not reserve ids for an empty batch")
+    void shouldIgnoreEmptyBatch() {
+      StepVerifier.create(dataService.createPersons(List.of()))
+          .expectNext(List.of())
+          .verifyComplete();
+
+      verifyNoInteractions(sequenceGeneratorService);
+      verify(repository, never()).insert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should signal PersonNotFoundException when no document was replaced")
+    void shouldSignalMissingPersonOnUpdate() {
+      when(repository.replaceExisting(any())).thenReturn(Mono.just(false));
+
+      StepVerifier.create(dataService.updatePerson(7, PERSON))
+          .verifyError(PersonNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should emit the replaced person with the path id")
+    void shouldEmitReplacedPerson() {
+      when(repository.replaceExisting(any())).thenReturn(Mono.just(true));
+
+      StepVerifier.create(dataService.updatePerson(7, PERSON).map(PersonDto::id))
+          .expectNext(7)
+          .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should complete a delete and signal a missing person")
+    void shouldDelete() {
+      when(repository.removeById(1)).thenReturn(Mono.just(true));
+      when(repository.removeById(2)).thenReturn(Mono.just(false));
+
+      StepVerifier.create(dataService.deletePerson(1)).verifyComplete();
+      StepVerifier.create(dataService.deletePerson(2)).verifyError(PersonNotFoundException.class);
+    }
+  }
+}
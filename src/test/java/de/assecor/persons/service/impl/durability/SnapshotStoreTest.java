@@ -0,0 +1,76 @@
+package de.assecor.persons.service.impl.durability;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.dto.PersonDto;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("SnapshotStore Tests")
+class SnapshotStoreTest {
+
+  @TempDir Path tempDir;
+
+  private SnapshotStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new SnapshotStore(tempDir.resolve("persons.snapshot"), Duration.ofMinutes(5));
+  }
+
+  @Test
+  @DisplayName("Should return empty when no snapshot exists")
+  void shouldReturnEmptyWhenNoSnapshotExists() throws IOException {
+    assertEquals(Optional.empty(), store.load(person -> fail()));
+  }
+
+  @Test
+  @DisplayName("Should round-trip persons and metadata")
+  void shouldRoundTripPersonsAndMetadata() throws IOException {
+    List<PersonDto> persons = new ArrayList<>();
+    for (int id = 1; id <= 50_000; id++) {
+      persons.add(new PersonDto(id, "Jürgen" + id, null, "67742", "Weiß", 1 + id % 7));
+    }
+    persons.add(new PersonDto(50_001, "x".repeat(2_000_000), "Long", "1", "C", 1));
+
+    store.write(50_002, 42, persons);
+    List<PersonDto> loaded = new ArrayList<>();
+    Optional<SnapshotStore.Metadata> metadata = store.load(loaded::add);
+
+    assertEquals(Optional.of(new SnapshotStore.Metadata(50_002, 42, 50_001)), metadata);
+    assertEquals(persons, loaded);
+  }
+
+  @Test
+  @DisplayName("Should replace the previous snapshot")
+  void shouldReplacePreviousSnapshot() throws IOException {
+    store.write(2, 1, List.of(new PersonDto(1, "Old", "Old", "1", "C", 1)));
+    store.write(3, 2, List.of(new PersonDto(2, "New", "New", "2", "C", 2)));
+
+    List<PersonDto> loaded = new ArrayList<>();
+    store.load(loaded::add);
+
+    assertEquals(List.of(new PersonDto(2, "New", "New", "2", "C", 2)), loaded);
+  }
+
+  @Test
+  @DisplayName("Should reject corrupt snapshots")
+  void shouldRejectCorruptSnapshots() throws IOException {
+    store.write(2, 1, List.of(new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1)));
+    try (RandomAccessFile file = new RandomAccessFile(store.getPath().toFile(), "rw")) {
+      file.seek(30);
+      file.write('X');
+    }
+
+    assertThrows(IOException.class, () -> store.load(person -> {}));
+  }
+}
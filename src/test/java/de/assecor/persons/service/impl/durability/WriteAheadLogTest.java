@@ -0,0 +1,191 @@
+package de.assecor.persons.service.impl.durability;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.dto.PersonDto;
+import de.assecor.persons.service.impl.durability.WriteAheadLog.Entry;
+import de.assecor.persons.service.impl.durability.WriteAheadLog.Operation;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("WriteAheadLog Tests")
+class WriteAheadLogTest {
+
+  @TempDir Path tempDir;
+
+  private WriteAheadLog open(FsyncPolicy policy, int initialSize) throws IOException {
+    return WriteAheadLog.open(
+        tempDir.resolve("persons.wal"), policy, 8, Duration.ofMillis(50), initialSize);
+  }
+
+  private static List<Entry> replay(WriteAheadLog log) {
+    List<Entry> entries = new ArrayList<>();
+    log.replay(entries::add);
+    return entries;
+  }
+
+  @Test
+  @DisplayName("Should replay appended records in order after reopening")
+  void shouldReplayAppendedRecordsAfterReopening() throws IOException {
+    PersonDto person = new PersonDto(1, "Jürgen", "Weiß", "67742", null, 7);
+    PersonDto updated = new PersonDto(1, "Jürgen", "Weiß", "67742", "Lauterecken", 2);
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      log.commit(log.append(Operation.CREATE, person));
+      log.commit(log.append(Operation.UPDATE, updated));
+      log.commit(log.append(Operation.DELETE, updated));
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertEquals(
+          List.of(
+              new Entry(Operation.CREATE, 1, person),
+              new Entry(Operation.UPDATE, 1, updated),
+              new Entry(Operation.DELETE, 1, null)),
+          replay(log));
+      assertEquals(4, log.append(Operation.CREATE, person));
+    }
+  }
+
+  @Test
+  @DisplayName("Should grow the mapping beyond its initial size")
+  void shouldGrowBeyondInitialSize() throws IOException {
+    try (WriteAheadLog log = open(FsyncPolicy.BATCHED, 64)) {
+      for (int id = 1; id <= 1_000; id++) {
+        log.commit(log.append(Operation.CREATE, new PersonDto(id, "F", "L", "1", "C", 1)));
+      }
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.BATCHED, 64)) {
+      List<Entry> entries = replay(log);
+      assertEquals(1_000, entries.size());
+      assertEquals(1_000, entries.getLast().id());
+    }
+  }
+
+  @Test
+  @DisplayName("Should stop replay at a torn record and overwrite it")
+  void shouldStopReplayAtTornRecord() throws IOException {
+    Path path = tempDir.resolve("persons.wal");
+    long secondRecordOffset;
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      log.append(Operation.CREATE, new PersonDto(1, "A", "A", "1", "C", 1));
+      // file header, record header and the first record's payload
+      secondRecordOffset = 16 + 8 + 29;
+      log.append(Operation.CREATE, new PersonDto(2, "B", "B", "2", "C", 1));
+    }
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.seek(secondRecordOffset + 20);
+      file.write(0x7F);
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertEquals(List.of(1), replay(log).stream().map(Entry::id).toList());
+      log.commit(log.append(Operation.CREATE, new PersonDto(3, "C", "C", "3", "C", 1)));
+    }
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertEquals(List.of(1, 3), replay(log).stream().map(Entry::id).toList());
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep all records of concurrent writers")
+  void shouldKeepAllRecordsOfConcurrentWriters() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 1024)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        int base = thread * 100;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 1; i <= 100; i++) {
+                    PersonDto person = new PersonDto(base + i, "F", "L", "1", "C", 1);
+                    log.commit(log.append(Operation.CREATE, person));
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 1024)) {
+      assertEquals(800, replay(log).stream().mapToInt(Entry::id).distinct().count());
+    }
+  }
+
+  @Test
+  @DisplayName("Should discard records covered by a snapshot and keep the rest")
+  void shouldDiscardRecordsCoveredBySnapshot() throws IOException {
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      for (int id = 1; id <= 5; id++) {
+        log.append(Operation.CREATE, new PersonDto(id, "F", "L", "1", "C", 1));
+      }
+      log.discardUpTo(3);
+      log.commit(log.append(Operation.DELETE, new PersonDto(4, "F", "L", "1", "C", 1)));
+
+      assertEquals(List.of(4, 5, 4), replay(log).stream().map(Entry::id).toList());
+      assertThrows(IllegalStateException.class, () -> log.replay(2, entry -> {}));
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertEquals(6, log.sequence());
+      List<Entry> entries = new ArrayList<>();
+      assertEquals(2, log.replay(4, entries::add));
+      assertEquals(
+          List.of(Operation.CREATE, Operation.DELETE),
+          entries.stream().map(Entry::operation).toList());
+    }
+  }
+
+  @Test
+  @DisplayName("Should continue counting after the sequence it was rebased to")
+  void shouldContinueAfterRebasedSequence() throws IOException {
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertTrue(log.isCreated());
+      log.append(Operation.CREATE, new PersonDto(1, "F", "L", "1", "C", 1));
+      assertThrows(IllegalArgumentException.class, () -> log.rebase(0));
+
+      log.rebase(7);
+      log.commit(log.append(Operation.CREATE, new PersonDto(2, "F", "L", "1", "C", 1)));
+    }
+
+    try (WriteAheadLog log = open(FsyncPolicy.PER_OP, 4096)) {
+      assertFalse(log.isCreated());
+      assertEquals(8, log.sequence());
+      assertEquals(List.of(2), replay(log).stream().map(Entry::id).toList());
+      assertThrows(IllegalStateException.class, () -> log.replay(6, entry -> {}));
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject files that are not a write-ahead log")
+  void shouldRejectForeignFiles() throws IOException {
+    Files.writeString(tempDir.resolve("persons.wal"), "firstName,lastName");
+
+    assertThrows(IOException.class, () -> open(FsyncPolicy.PER_OP, 4096));
+  }
+
+  @Test
+  @DisplayName("Should parse fsync policies from configuration values")
+  void shouldParseFsyncPolicies() {
+    assertEquals(FsyncPolicy.PER_OP, FsyncPolicy.fromValue("per-op"));
+    assertEquals(FsyncPolicy.BATCHED, FsyncPolicy.fromValue("Batched"));
+    assertEquals(FsyncPolicy.INTERVAL, FsyncPolicy.fromValue(" interval "));
+    assertThrows(IllegalArgumentException.class, () -> FsyncPolicy.fromValue("never"));
+  }
+}
@@ -0,0 +1,127 @@
+package de.assecor.persons.service.impl.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("IdSearchIndex Tests")
+class IdSearchIndexTest {
+
+  private static final List<PersonDto> PERSONS =
+      List.of(
+          new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1),
+          new PersonDto(2, "Peter", "Petersen", "18439", "Stralsund", 2),
+          new PersonDto(3, "Johnny", "Johnson", "88888", "made up", 3),
+          new PersonDto(4, "Milly", "Millenium", "77777", "made up", 4),
+          new PersonDto(5, "Jonas", "Müller", "67000", "Kaiserslautern", 2),
+          new PersonDto(6, "Anders", "Andersson", "3299", "Schweden", 2),
+          new PersonDto(7, "Gerda", "Gerber", "67742", null, 1));
+
+  private static IdSearchIndex indexOf(List<PersonDto> persons) {
+    IdSearchIndex index = new IdSearchIndex();
+    persons.forEach(index::add);
+    return index;
+  }
+
+  private static List<Integer> byZip(IdSearchIndex index, String prefix) {
+    List<Integer> ids = new ArrayList<>();
+    index.forEachByZipPrefix(prefix, ids::add);
+    return ids;
+  }
+
+  private static List<Integer> byName(IdSearchIndex index, String query) {
+    List<Integer> ids = new ArrayList<>();
+    index.forEachNameCandidate(NameFolding.fold(query), ids::add);
+    return ids;
+  }
+
+  @Test
+  @DisplayName("Should find the same ids as the persistent search index")
+  void shouldMatchPersistentSearchIndex() {
+    IdSearchIndex index = indexOf(PERSONS);
+    SearchIndex.Builder<Integer> builder = SearchIndex.builder();
+    PERSONS.forEach(person -> builder.add(person, person.id()));
+    SearchIndex<Integer> expected = builder.build();
+
+    for (String prefix : List.of("", "1", "3", "6", "67", "67742", "677421", "6a", "7", "8")) {
+      List<Integer> ids = new ArrayList<>();
+      expected.forEachByZipPrefix(prefix, ids::add);
+      assertEquals(ids, byZip(index, prefix));
+    }
+    for (String query : List.of("Müller", "MUELL", "peter", "ersson", "Schmidt", "Mu")) {
+      List<Integer> ids = new ArrayList<>();
+      expected.forEachNameCandidate(NameFolding.fold(query), Integer::intValue, ids::add);
+      assertEquals(ids, byName(index, query));
+    }
+    List<Integer> madeUp = new ArrayList<>();
+    index.forEachCityCandidate("made up", madeUp::add);
+    assertEquals(List.of(3, 4), madeUp);
+  }
+
+  @Test
+  @DisplayName("Should keep postings sorted across out-of-order adds and removes")
+  void shouldKeepPostingsSorted() {
+    IdSearchIndex index = indexOf(PERSONS.reversed());
+
+    assertEquals(List.of(5, 1, 7), byZip(index, "67"));
+    assertEquals(List.of(1, 5), byName(index, "Müller"));
+
+    index.remove(PERSONS.getFirst());
+    index.remove(PERSONS.getFirst());
+    index.add(new PersonDto(1, "Hans", "Meier", "67742", "Lauterecken", 1));
+    index.trimToSize();
+
+    assertEquals(List.of(5), byName(index, "Müller"));
+    assertEquals(List.of(1), byName(index, "meier"));
+    assertEquals(List.of(5, 1, 7), byZip(index, "67"));
+  }
+
+  @Test
+  @DisplayName("Should grow its tables beyond the initial capacity")
+  void shouldGrowBeyondInitialCapacity() {
+    IdSearchIndex index = new IdSearchIndex();
+    for (int id = 1; id <= 5_000; id++) {
+      index.add(new PersonDto(id, "Name" + id, "Last", String.format("%05d", id), "City", 1));
+    }
+
+    assertEquals(5_000, byZip(index, "0").size());
+    assertEquals(List.of(1234), byName(index, "name1234"));
+  }
+
+  @Test
+  @DisplayName("Should forget zip codes without persons and learn them again")
+  void shouldTrackExistingZipCodes() {
+    IdSearchIndex index = indexOf(PERSONS);
+
+    index.remove(PERSONS.get(0));
+    index.remove(PERSONS.get(4));
+    index.remove(PERSONS.get(6));
+    index.trimToSize();
+
+    assertTrue(byZip(index, "6").isEmpty());
+    assertEquals(List.of(2), byZip(index, "1"));
+
+    index.add(new PersonDto(8, "Emma", "Schulz", "69999", "Heidelberg", 1));
+    index.add(new PersonDto(9, "Max", "Becker", "60000", "Frankfurt", 1));
+
+    assertEquals(List.of(9, 8), byZip(index, "6"));
+    assertEquals(List.of(8), byZip(index, "69999"));
+    assertEquals(List.of(3), byZip(index, "8"));
+  }
+
+  @Test
+  @DisplayName("Should stop visiting name candidates once the action declines")
+  void shouldStopVisitingNameCandidates() {
+    IdSearchIndex index = indexOf(PERSONS);
+    List<Integer> ids = new ArrayList<>();
+
+    index.forEachNameCandidate("mueller", id -> ids.add(id) && ids.size() < 1);
+
+    assertEquals(List.of(1), ids);
+  }
+}
@@ -0,0 +1,214 @@
+package de.assecor.persons.service.impl.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("OffHeapPersonStore Tests")
+class OffHeapPersonStoreTest {
+
+  private OffHeapPersonStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new OffHeapPersonStore();
+  }
+
+  @Test
+  @DisplayName("Should round-trip persons including umlauts and null fields")
+  void shouldRoundTripPersons() {
+    PersonDto person = new PersonDto(1, "Jürgen", "Weiß", "67742", "Schweden - ☀", 7);
+    PersonDto incomplete = new PersonDto(2, null, "", "12345", null, 1);
+
+    store.insert(person);
+    store.insert(incomplete);
+
+    assertEquals(person, store.get(1));
+    assertEquals(incomplete, store.get(2));
+    assertNull(store.get(3));
+    assertNull(store.get(-1));
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  @DisplayName("Should replace and remove persons and keep the color index in sync")
+  void shouldReplaceAndRemovePersons() {
+    store.insert(new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1));
+    store.insert(new PersonDto(2, "Peter", "Petersen", "18439", "Stralsund", 1));
+
+    PersonDto previous =
+        store.replace(new PersonDto(1, "Hans-Peter", "Müller", "67742", "Lauterecken", 4));
+    PersonDto removed = store.remove(2);
+
+    assertEquals("Hans", previous.firstName());
+    assertEquals("Peter", removed.firstName());
+    assertNull(store.replace(new PersonDto(2, "Ghost", "Ghost", "00000", "Nowhere", 1)));
+    assertNull(store.remove(2));
+    assertEquals("Hans-Peter", store.get(1).firstName());
+    assertTrue(store.getByColor(Color.BLUE).isEmpty());
+    assertEquals(List.of(store.get(1)), store.getByColor(Color.RED));
+  }
+
+  @Test
+  @DisplayName("Should return all persons in ascending id order")
+  void shouldReturnAllPersonsInAscendingIdOrder() {
+    store.insert(new PersonDto(3, "C", "C", "33333", "City", 3));
+    store.insert(new PersonDto(1, "A", "A", "11111", "City", 1));
+    store.insert(new PersonDto(2, "B", "B", "22222", "City", 2));
+
+    assertEquals(List.of(1, 2, 3), store.getAll().stream().map(PersonDto::id).toList());
+  }
+
+  @Test
+  @DisplayName("Should return pages of persons after a given id")
+  void shouldReturnPagesAfterGivenId() {
+    for (int id = 1; id <= 10; id++) {
+      store.insert(new PersonDto(id, "P" + id, "L", "12345", "City", 1));
+    }
+    store.remove(4);
+
+    assertEquals(List.of(1, 2, 3), store.getAfter(0, 3).stream().map(PersonDto::id).toList());
+    assertEquals(List.of(5, 6), store.getAfter(3, 2).stream().map(PersonDto::id).toList());
+    assertEquals(List.of(10), store.getAfter(9, 5).stream().map(PersonDto::id).toList());
+    assertTrue(store.getAfter(10, 5).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should stream all persons across page boundaries")
+  void shouldStreamAllPersonsAcrossPageBoundaries() {
+    for (int id = 1; id <= 3_000; id++) {
+      store.insert(new PersonDto(id, "P" + id, "L", "12345", "City", 1));
+    }
+    store.remove(1_024);
+
+    List<Integer> ids = store.stream().map(PersonDto::id).toList();
+
+    assertEquals(2_999, ids.size());
+    assertEquals(1_023, ids.get(1_022));
+    assertEquals(1_025, ids.get(1_023));
+    assertEquals(3_000, ids.getLast());
+  }
+
+  @Test
+  @DisplayName("Should find persons by zip prefix and city across compactions")
+  void shouldFindPersonsByZipPrefixAndCity() {
+    for (int id = 1; id <= 2_000; id++) {
+      store.insert(new PersonDto(id, "P", "L", String.valueOf(10_000 + id), "City" + id % 3, 1));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int id = 1; id <= 2_000; id++) {
+        store.replace(new PersonDto(id, "R" + round, "L", String.valueOf(10_000 + id), "City", 1));
+      }
+    }
+
+    assertEquals(
+        List.of(10_100, 10_101, 10_102, 10_103, 10_104, 10_105, 10_106, 10_107, 10_108, 10_109),
+        store.findByZipPrefix("1010").stream().map(p -> Integer.parseInt(p.zipCode())).toList());
+    assertEquals(2_000, store.findByCity("City").size());
+    assertTrue(store.findByCity("City1").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should keep a view unchanged by later writes and compactions")
+  void shouldKeepViewUnchangedByLaterWrites() {
+    for (int id = 1; id <= 2_000; id++) {
+      store.insert(new PersonDto(id, "First" + id, "Last", "12345", "City", 1));
+    }
+    store.remove(2);
+    List<PersonDto> expected = store.getAll();
+
+    Collection<PersonDto> view = store.view();
+    store.replace(new PersonDto(1, "Changed", "Last", "12345", "City", 2));
+    store.remove(3);
+    store.insert(new PersonDto(2, "Back", "Last", "12345", "City", 1));
+    store.insert(new PersonDto(5_000, "New", "Last", "12345", "City", 1));
+    for (int id = 10; id <= 1_500; id++) {
+      store.remove(id);
+    }
+
+    assertEquals(1_999, view.size());
+    assertEquals(expected, List.copyOf(view));
+    assertEquals("Changed", store.get(1).firstName());
+    assertEquals(List.of(1, 2, 4), store.getAfter(0, 3).stream().map(PersonDto::id).toList());
+  }
+
+  @Test
+  @DisplayName("Should reject duplicate ids")
+  void shouldRejectDuplicateIds() {
+    store.insert(new PersonDto(1, "A", "A", "11111", "City", 1));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> store.insert(new PersonDto(1, "B", "B", "22222", "City", 2)));
+  }
+
+  @Test
+  @DisplayName("Should compact after many updates and deletes")
+  void shouldCompactAfterManyUpdatesAndDeletes() {
+    for (int id = 1; id <= 5_000; id++) {
+      store.insert(new PersonDto(id, "First" + id, "Last" + id, "12345", "City", 1 + id % 7));
+    }
+    long capacityBefore = store.offHeapBytes();
+
+    for (int round = 0; round < 20; round++) {
+      for (int id = 1; id <= 5_000; id++) {
+        store.replace(new PersonDto(id, "Round" + round, "Last" + id, "12345", "City", 2));
+      }
+    }
+    for (int id = 1; id <= 4_000; id++) {
+      store.remove(id);
+    }
+
+    assertEquals(1_000, store.size());
+    assertEquals("Round19", store.get(5_000).firstName());
+    assertEquals(1_000, store.getByColor(Color.GREEN).size());
+    assertTrue(store.offHeapBytes() <= capacityBefore * 2);
+  }
+
+  @Test
+  @DisplayName("Should publish bulk loaded persons at once")
+  void shouldPublishBulkLoadedPersonsAtOnce() {
+    store.insert(new PersonDto(1, "Old", "Old", "11111", "City", 1));
+
+    PersonStore.BulkLoader loader = store.bulkLoader();
+    loader.add(new PersonDto(1, "New", "New", "11111", "City", 2));
+    loader.add(new PersonDto(2, "Newer", "Newer", "22222", "City", 2));
+    assertEquals("Old", store.get(1).firstName());
+
+    loader.publish();
+
+    assertEquals(2, store.size());
+    assertEquals("New", store.get(1).firstName());
+    assertEquals(2, store.getByColor(Color.GREEN).size());
+
+    PersonStore.BulkLoader unordered =
+        store.bulkLoader().add(new PersonDto(2, "A", "A", "22222", "City", 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> unordered.add(new PersonDto(1, "B", "B", "11111", "City", 1)));
+  }
+
+  @Test
+  @DisplayName("Should find persons by name and keep the name index in sync")
+  void shouldFindPersonsByName() {
+    store.insert(new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1));
+    store.insert(new PersonDto(2, "Jonas", "Mueller", "67655", "Kaiserslautern", 2));
+    store.insert(new PersonDto(3, "Peter", "Petersen", "18439", "Stralsund", 3));
+
+    assertEquals(
+        List.of(1, 2), store.findByName("müller", 10).stream().map(PersonDto::id).toList());
+    assertEquals(List.of(1), store.findByName("MUELLER", 1).stream().map(PersonDto::id).toList());
+
+    store.replace(new PersonDto(1, "Hans", "Schmidt", "67742", "Lauterecken", 1));
+    store.remove(3);
+
+    assertEquals(List.of(2), store.findByName("muell", 10).stream().map(PersonDto::id).toList());
+    assertTrue(store.findByName("peter", 10).isEmpty());
+  }
+}
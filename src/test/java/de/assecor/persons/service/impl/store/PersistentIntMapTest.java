@@ -0,0 +1,172 @@
+package de.assecor.persons.service.impl.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PersistentIntMap Tests")
+class PersistentIntMapTest {
+
+  @Test
+  @DisplayName("Should put, get and remove entries")
+  void shouldPutGetAndRemoveEntries() {
+    PersistentIntMap<String> map =
+        PersistentIntMap.<String>empty().put(1, "one").put(2, "two").put(1, "uno");
+
+    assertEquals(2, map.size());
+    assertEquals("uno", map.get(1));
+    assertEquals("two", map.get(2));
+
+    PersistentIntMap<String> removed = map.remove(2);
+    assertNull(removed.get(2));
+    assertEquals(1, removed.size());
+    assertSame(removed, removed.remove(42));
+  }
+
+  @Test
+  @DisplayName("Should leave previous versions untouched")
+  void shouldLeavePreviousVersionsUntouched() {
+    PersistentIntMap<String> original = PersistentIntMap.<String>empty().put(1, "one");
+
+    PersistentIntMap<String> updated = original.put(1, "uno").put(100_000, "many");
+    PersistentIntMap<String> emptied = original.remove(1);
+
+    assertEquals("one", original.get(1));
+    assertNull(original.get(100_000));
+    assertEquals(1, original.size());
+    assertEquals("uno", updated.get(1));
+    assertEquals(2, updated.size());
+    assertTrue(emptied.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should handle keys across the whole int range")
+  void shouldHandleKeysAcrossTheWholeIntRange() {
+    PersistentIntMap<String> map =
+        PersistentIntMap.<String>empty()
+            .put(0, "zero")
+            .put(Integer.MAX_VALUE, "max")
+            .put(-1, "minus one");
+
+    assertEquals("zero", map.get(0));
+    assertEquals("max", map.get(Integer.MAX_VALUE));
+    assertEquals("minus one", map.get(-1));
+    assertEquals(List.of("zero", "max", "minus one"), map.values());
+    assertFalse(PersistentIntMap.empty().iterator().hasNext());
+  }
+
+  @Test
+  @DisplayName("Should stay consistent with TreeMap under random operations")
+  void shouldStayConsistentUnderRandomOperations() {
+    PersistentIntMap<Integer> map = PersistentIntMap.empty();
+    TreeMap<Integer, Integer> reference = new TreeMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 50_000; i++) {
+      int key = random.nextInt(20_000);
+      if (random.nextInt(3) == 0) {
+        map = map.remove(key);
+        reference.remove(key);
+      } else {
+        map = map.put(key, i);
+        reference.put(key, i);
+      }
+    }
+
+    assertEquals(reference.size(), map.size());
+    assertEquals(new ArrayList<>(reference.values()), map.values());
+    List<Integer> iterated = new ArrayList<>();
+    map.iterator().forEachRemaining(iterated::add);
+    assertEquals(map.values(), iterated);
+    for (int key = 0; key < 20_000; key++) {
+      assertEquals(reference.get(key), map.get(key));
+    }
+  }
+
+  @Test
+  @DisplayName("Should iterate values after a key like TreeMap.tailMap")
+  void shouldIterateValuesAfterKey() {
+    PersistentIntMap<Integer> map = PersistentIntMap.empty();
+    TreeMap<Integer, Integer> reference = new TreeMap<>();
+    Random random = new Random(11);
+    for (int i = 0; i < 5_000; i++) {
+      int key = random.nextInt(100_000);
+      map = map.put(key, key);
+      reference.put(key, key);
+    }
+
+    for (int after : new int[] {0, 1, 31, 32, 1_023, 1_024, 50_000, 99_999, 100_000, 1 << 30}) {
+      List<Integer> iterated = new ArrayList<>();
+      map.iteratorAfter(after).forEachRemaining(iterated::add);
+      assertEquals(new ArrayList<>(reference.tailMap(after, false).values()), iterated);
+    }
+    for (Integer key : reference.keySet()) {
+      Integer expected = reference.higherKey(key);
+      Iterator<Integer> iterator = map.iteratorAfter(key);
+      assertEquals(expected, iterator.hasNext() ? iterator.next() : null);
+    }
+    assertFalse(PersistentIntMap.<Integer>empty().iteratorAfter(5).hasNext());
+  }
+
+  @Test
+  @DisplayName("Should visit exactly the values inside a key range")
+  void shouldVisitValuesInsideKeyRange() {
+    PersistentIntMap<Integer> map = PersistentIntMap.empty();
+    TreeMap<Integer, Integer> reference = new TreeMap<>();
+    Random random = new Random(3);
+    for (int i = 0; i < 5_000; i++) {
+      int key = random.nextInt(100_000);
+      map = map.put(key, key);
+      reference.put(key, key);
+    }
+
+    int[][] ranges = {{0, 99_999}, {67_000, 67_999}, {31, 32}, {500, 499}, {99_999, 1 << 30}};
+    for (int[] range : ranges) {
+      List<Integer> visited = new ArrayList<>();
+      map.forEachInRange(range[0], range[1], visited::add);
+      List<Integer> expected =
+          range[0] > range[1]
+              ? List.of()
+              : new ArrayList<>(reference.subMap(range[0], true, range[1], true).values());
+      assertEquals(expected, visited);
+    }
+  }
+
+  @Test
+  @DisplayName("Should build the same map as repeated puts")
+  void shouldBuildTheSameMapAsRepeatedPuts() {
+    PersistentIntMap.Builder<Integer> builder = PersistentIntMap.builder();
+    PersistentIntMap<Integer> viaPut = PersistentIntMap.empty();
+    Random random = new Random(7);
+
+    int key = 0;
+    for (int i = 0; i < 10_000; i++) {
+      key += 1 + random.nextInt(100);
+      builder.add(key, i);
+      viaPut = viaPut.put(key, i);
+    }
+    PersistentIntMap<Integer> built = builder.build();
+
+    assertEquals(viaPut.size(), built.size());
+    assertEquals(viaPut.values(), built.values());
+    assertEquals(viaPut.get(key), built.get(key));
+    assertEquals(10_001, built.put(key + 1, -1).size());
+    assertEquals(9_999, built.remove(key).size());
+  }
+
+  @Test
+  @DisplayName("Should reject keys that are not ascending in builder")
+  void shouldRejectKeysThatAreNotAscendingInBuilder() {
+    PersistentIntMap.Builder<String> builder = PersistentIntMap.<String>builder().add(5, "five");
+
+    assertThrows(IllegalArgumentException.class, () -> builder.add(5, "again"));
+    assertThrows(IllegalArgumentException.class, () -> builder.add(3, "three"));
+    assertTrue(PersistentIntMap.builder().build().isEmpty());
+  }
+}
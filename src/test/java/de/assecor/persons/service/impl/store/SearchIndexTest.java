@@ -0,0 +1,131 @@
+package de.assecor.persons.service.impl.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.NameFolding;
+import de.assecor.persons.model.dto.PersonDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SearchIndex Tests")
+class SearchIndexTest {
+
+  private static final List<PersonDto> PERSONS =
+      List.of(
+          new PersonDto(1, "Hans", "Müller", "67742", "Lauterecken", 1),
+          new PersonDto(2, "Peter", "Petersen", "18439", "Stralsund", 2),
+          new PersonDto(3, "Johnny", "Johnson", "88888", "made up", 3),
+          new PersonDto(4, "Milly", "Millenium", "77777", "made up", 4),
+          new PersonDto(5, "Jonas", "Müller", "67000", "Kaiserslautern", 2),
+          new PersonDto(6, "Anders", "Andersson", "3299", "Schweden", 2),
+          new PersonDto(7, "Gerda", "Gerber", "67742", null, 1));
+
+  private static SearchIndex<Integer> indexOf(List<PersonDto> persons) {
+    SearchIndex<Integer> index = SearchIndex.empty();
+    for (PersonDto person : persons) {
+      index = index.with(person, person.id());
+    }
+    return index;
+  }
+
+  private static List<Integer> byZip(SearchIndex<Integer> index, String prefix) {
+    List<Integer> ids = new ArrayList<>();
+    index.forEachByZipPrefix(prefix, ids::add);
+    return ids;
+  }
+
+  private static List<Integer> byCity(SearchIndex<Integer> index, String city) {
+    List<Integer> ids = new ArrayList<>();
+    index.forEachCityCandidate(city, ids::add);
+    return ids;
+  }
+
+  private static List<Integer> byName(SearchIndex<Integer> index, String query) {
+    List<Integer> ids = new ArrayList<>();
+    index.forEachNameCandidate(NameFolding.fold(query), Integer::intValue, ids::add);
+    return ids;
+  }
+
+  @Test
+  @DisplayName("Should find persons by zip prefix ordered by zip and id")
+  void shouldFindPersonsByZipPrefix() {
+    SearchIndex<Integer> index = indexOf(PERSONS);
+
+    assertEquals(List.of(5, 1, 7), byZip(index, "67"));
+    assertEquals(List.of(5, 1, 7), byZip(index, "6"));
+    assertEquals(List.of(4), byZip(index, "7"));
+    assertEquals(List.of(1, 7), byZip(index, "67742"));
+    assertEquals(List.of(), byZip(index, "3"));
+    assertEquals(List.of(), byZip(index, "677421"));
+    assertEquals(List.of(), byZip(index, "6a"));
+    assertEquals(List.of(), byZip(index, ""));
+  }
+
+  @Test
+  @DisplayName("Should find city candidates and keep previous versions untouched")
+  void shouldFindCityCandidates() {
+    SearchIndex<Integer> index = indexOf(PERSONS);
+    SearchIndex<Integer> removed = index.without(PERSONS.get(2));
+
+    assertEquals(List.of(3, 4), byCity(index, "made up"));
+    assertEquals(List.of(4), byCity(removed, "made up"));
+    assertEquals(List.of(5, 1, 7), byZip(removed, "67"));
+    assertEquals(List.of(), byCity(index, "Berlin"));
+  }
+
+  @Test
+  @DisplayName("Should build the same index as repeated updates")
+  void shouldBuildTheSameIndexAsRepeatedUpdates() {
+    SearchIndex.Builder<Integer> builder = SearchIndex.builder();
+    PERSONS.forEach(person -> builder.add(person, person.id()));
+    SearchIndex<Integer> built = builder.build();
+    SearchIndex<Integer> updated = indexOf(PERSONS);
+
+    for (String prefix : List.of("1", "3", "6", "67", "67742", "7", "8")) {
+      assertEquals(byZip(updated, prefix), byZip(built, prefix));
+    }
+    assertEquals(byCity(updated, "made up"), byCity(built, "made up"));
+    assertEquals(byName(updated, "müller"), byName(built, "müller"));
+  }
+
+  @Test
+  @DisplayName("Should find name candidates by trigrams regardless of umlaut spelling")
+  void shouldFindNameCandidates() {
+    SearchIndex<Integer> index = indexOf(PERSONS);
+
+    assertEquals(List.of(1, 5), byName(index, "Müller"));
+    assertEquals(List.of(1, 5), byName(index, "MUELL"));
+    assertEquals(List.of(2), byName(index, "peter"));
+    assertEquals(List.of(6), byName(index, "ersson"));
+    assertEquals(List.of(), byName(index, "Schmidt"));
+    assertEquals(List.of(), byName(index, "Mu"));
+    assertEquals(List.of(5), byName(index.without(PERSONS.getFirst()), "Müller"));
+  }
+
+  @Test
+  @DisplayName("Should stop visiting name candidates once the action declines")
+  void shouldStopVisitingNameCandidates() {
+    SearchIndex<Integer> index = indexOf(PERSONS);
+    List<Integer> ids = new ArrayList<>();
+
+    index.forEachNameCandidate("mueller", Integer::intValue, id -> ids.add(id) && ids.size() < 1);
+
+    assertEquals(List.of(1), ids);
+  }
+
+  @Test
+  @DisplayName("Should fold names for searching")
+  void shouldFoldNames() {
+    assertEquals("mueller", NameFolding.fold(" Müller "));
+    assertEquals("weiss", NameFolding.fold("Weiß"));
+    assertEquals("jose", NameFolding.fold("José"));
+    assertEquals("", NameFolding.fold(null));
+    assertEquals(
+        List.of("han", "ans", "mue", "uel", "ell", "lle", "ler"),
+        NameFolding.nameTrigrams("Hans", "Müller"));
+    assertTrue(NameFolding.matches("Hans", "Müller", "muell"));
+    assertFalse(NameFolding.matches("Hans", "Müller", "ansmu"));
+  }
+}
@@ -4,10 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import de.assecor.persons.exception.DataLoadException;
 import de.assecor.persons.model.dto.PersonDto;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 
 @DisplayName("CsvInitialDataProvider Tests")
@@ -177,4 +182,67 @@ class CsvInitialDataProviderTest {
     assertNotNull(persons);
     assertTrue(persons.isEmpty());
   }
+
+  @Test
+  @DisplayName("Should load the same persons in parallel chunks as sequentially")
+  void shouldLoadSamePersonsInParallelChunks() throws DataLoadException {
+    for (String file : List.of("mixed-data.csv", "special-chars.csv", "blank-lines.csv")) {
+      Resource resource = new ClassPathResource("csv/" + file);
+
+      List<PersonDto> sequential = new CsvInitialDataProvider(resource).loadData();
+      List<PersonDto> parallel = new CsvInitialDataProvider(resource, true, 16).loadData();
+
+      assertEquals(sequential, parallel, file);
+    }
+  }
+
+  @Test
+  @DisplayName("Should split a large file into newline-aligned chunks and keep file order")
+  void shouldKeepFileOrderAcrossChunks(@TempDir Path tempDir) throws Exception {
+    Path file = tempDir.resolve("persons.csv");
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 10_000; i++) {
+      csv.append("Müller").append(i).append(", Hans, 67742 Lauterecken, ").append(1 + i % 7);
+      csv.append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    csv.append("Broken line without newline");
+    Files.writeString(file, csv);
+
+    List<PersonDto> persons =
+        new CsvInitialDataProvider(new FileSystemResource(file), true, 4096).loadData();
+
+    assertEquals(10_000, persons.size());
+    for (int i = 0; i < persons.size(); i++) {
+      assertEquals("Müller" + i, persons.get(i).lastName());
+    }
+    assertEquals("Lauterecken", persons.getFirst().city());
+  }
+
+  @Test
+  @DisplayName("Should stream persons in batches of the requested size")
+  void shouldStreamPersonsInBatches(@TempDir Path tempDir) throws Exception {
+    Path file = tempDir.resolve("persons.csv");
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 2_500; i++) {
+      csv.append("Müller").append(i).append(", Hans, 67742 Lauterecken, 1\n");
+    }
+    Files.writeString(file, csv);
+
+    for (boolean parallel : new boolean[] {false, true}) {
+      List<Integer> sizes = new ArrayList<>();
+      List<PersonDto> persons = new ArrayList<>();
+      new CsvInitialDataProvider(new FileSystemResource(file), parallel, 4096)
+          .forEachBatch(
+              1_000,
+              batch -> {
+                sizes.add(batch.size());
+                persons.addAll(batch);
+              });
+
+      assertEquals(List.of(1_000, 1_000, 500), sizes);
+      for (int i = 0; i < persons.size(); i++) {
+        assertEquals("Müller" + i, persons.get(i).lastName());
+      }
+    }
+  }
 }
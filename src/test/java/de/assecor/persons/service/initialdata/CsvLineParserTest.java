@@ -0,0 +1,138 @@
+package de.assecor.persons.service.initialdata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.model.Color;
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CsvLineParser Tests")
+class CsvLineParserTest {
+
+  private static final List<String> LINES =
+      List.of(
+          "Müller, Hans, 67742 Lauterecken, 1",
+          "  Andersson ,Anders,32132   Schweden - Örebro ,2  ",
+          "François, Jean, 75001 Paris-Élysées, 1, extra, fields",
+          "Petersen, Peter, 18439\tStralsund, +2",
+          "Invalid line with not enough fields",
+          "a,b,c",
+          "a,b,c,",
+          "a,b,c,,,",
+          "a,b,c,,,x",
+          "a, b, 12345 City, ",
+          "a, b, , 1",
+          "a, b, 12345, 1",
+          "a, b, 1234 City, 1",
+          "a, b, 123456 City, 1",
+          "a, b, 12a45 City, 1",
+          "a, b, 12345 City, 8",
+          "a, b, 12345 City, 0",
+          "a, b, 12345 City, -1",
+          "a, b, 12345 City, 99999999999999999999",
+          "a, b, 12345 City, 0000000000000000007",
+          "a, b, 12345 City, ٣",
+          "a, b, 12345 City, 1x",
+          ", , 12345 City, 1",
+          "   ",
+          "");
+
+  // the split and regex implementation the scanner replaced
+  private static PersonDto legacyParse(String line) {
+    if (line == null || line.trim().isEmpty()) {
+      return null;
+    }
+    String[] parts = line.split(",");
+    if (parts.length < 4) {
+      throw new IllegalArgumentException("insufficient fields");
+    }
+    String[] zipCityParts = parts[2].trim().split("\\s+", 2);
+    if (zipCityParts.length < 2) {
+      throw new IllegalArgumentException("invalid zip/city format");
+    }
+    String zipCode = zipCityParts[0].trim();
+    if (!zipCode.matches(PersonDto.ZIP_CODE_REGEX)) {
+      throw new IllegalArgumentException("invalid zip code");
+    }
+    int colorId;
+    try {
+      colorId = Integer.parseInt(parts[3].trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid color ID");
+    }
+    if (!Color.isValidId(colorId)) {
+      throw new IllegalArgumentException("invalid color ID");
+    }
+    return new PersonDto(
+        0, parts[1].trim(), parts[0].trim(), zipCode, zipCityParts[1].trim(), colorId);
+  }
+
+  private static String outcome(Function<String, PersonDto> parser, String line) {
+    try {
+      return String.valueOf(parser.apply(line));
+    } catch (IllegalArgumentException e) {
+      return "rejected: " + e.getMessage();
+    }
+  }
+
+  @Test
+  @DisplayName("Should accept and reject exactly the lines the split implementation did")
+  void shouldMatchLegacyParser() {
+    for (String line : LINES) {
+      assertEquals(
+          outcome(CsvLineParserTest::legacyParse, line),
+          outcome(CsvLineParser::parse, line),
+          line);
+    }
+  }
+
+  @Test
+  @DisplayName("Should report errors through return codes")
+  void shouldReportErrorsThroughReturnCodes() {
+    CsvLineParser parser = new CsvLineParser();
+
+    assertEquals(CsvLineParser.OK, parse(parser, "Müller, Hans, 67742 Lauterecken, 1"));
+    assertEquals("Lauterecken", parser.person().city());
+    assertEquals(CsvLineParser.BLANK, parse(parser, " \t"));
+    assertNull(parser.person());
+    assertEquals(CsvLineParser.INSUFFICIENT_FIELDS, parse(parser, "a,b,c"));
+    assertEquals(CsvLineParser.INVALID_ZIP_CITY, parse(parser, "a, b, 12345, 1"));
+    assertEquals(CsvLineParser.INVALID_ZIP, parse(parser, "a, b, 1234 City, 1"));
+    assertEquals(CsvLineParser.INVALID_COLOR, parse(parser, "a, b, 12345 City, 9"));
+  }
+
+  @Test
+  @DisplayName("Should split lines across arbitrary block boundaries")
+  void shouldSplitLinesAcrossBlocks() {
+    byte[] input =
+        ("Müller, Hans, 67742 Lauterecken, 1\r\n\nbroken\r"
+                + "Petersen, Peter, 18439 Stralsund, 2\r\n\r\n"
+                + "Johnson, Johnny, 88888 made up, 3")
+            .getBytes(StandardCharsets.UTF_8);
+
+    for (int blockSize = 1; blockSize <= input.length; blockSize++) {
+      CsvLines lines = new CsvLines();
+      for (int from = 0; from < input.length; from += blockSize) {
+        lines.feed(input, from, Math.min(from + blockSize, input.length));
+      }
+      lines.finish();
+
+      assertEquals(
+          List.of("Müller", "Petersen", "Johnson"),
+          lines.persons().stream().map(PersonDto::lastName).toList(),
+          "block size " + blockSize);
+      assertEquals(
+          List.of(new CsvLines.Rejected(3, "broken", "insufficient fields")), lines.rejected());
+      assertEquals(6, lines.lines());
+    }
+  }
+
+  private static int parse(CsvLineParser parser, String line) {
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    return parser.parse(bytes, 0, bytes.length);
+  }
+}
@@ -30,17 +30,19 @@ class ListInitialDataProviderTest {
   }
 
   @Test
-  @DisplayName("Should return copy of the data")
-  void shouldReturnCopyOfTheData() throws DataLoadException {
-    List<PersonDto> data =
-        new ArrayList<>(List.of(new PersonDto(0, "John", "Doe", "12345", "City1", 1)));
+  @DisplayName("Should return a read-only view detached from the source list")
+  void shouldReturnReadOnlyViewOfTheData() throws DataLoadException {
+    PersonDto john = new PersonDto(0, "John", "Doe", "12345", "City1", 1);
+    List<PersonDto> data = new ArrayList<>(List.of(john));
 
     ListInitialDataProvider loader = new ListInitialDataProvider(data);
-    List<PersonDto> loadedData1 = loader.loadData();
-    List<PersonDto> loadedData2 = loader.loadData();
+    data.add(new PersonDto(0, "Jane", "Smith", "67890", "City2", 2));
+    List<PersonDto> loadedData = loader.loadData();
 
-    assertNotSame(loadedData1, loadedData2);
-    assertEquals(loadedData1.size(), loadedData2.size());
+    assertEquals(List.of(john), loadedData);
+    assertThrows(UnsupportedOperationException.class, () -> loadedData.add(john));
+    assertThrows(UnsupportedOperationException.class, () -> loadedData.remove(0));
+    assertEquals(List.of(john), loader.loadData());
   }
 
   @Test
@@ -0,0 +1,122 @@
+package de.assecor.persons.service.initialdata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.assecor.persons.exception.DataLoadException;
+import de.assecor.persons.model.dto.PersonDto;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+@DisplayName("SeedFileInitialDataProvider Tests")
+class SeedFileInitialDataProviderTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  @DisplayName("Should load the persons the converter wrote from CSV")
+  void shouldLoadConvertedCsv() throws Exception {
+    for (String file : List.of("mixed-data.csv", "special-chars.csv", "multi-word-cities.csv")) {
+      Path csv = new ClassPathResource("csv/" + file).getFile().toPath();
+      Path seed = tempDir.resolve(file + ".seed");
+
+      int count = SeedConverter.convert(csv, seed);
+      List<PersonDto> expected =
+          new CsvInitialDataProvider(new FileSystemResource(csv)).loadData();
+      List<PersonDto> loaded =
+          new SeedFileInitialDataProvider(new FileSystemResource(seed)).loadData();
+
+      assertEquals(expected.size(), count, file);
+      assertEquals(expected.size(), loaded.size(), file);
+      for (int i = 0; i < loaded.size(); i++) {
+        PersonDto person = expected.get(i);
+        assertEquals(
+            new PersonDto(
+                i + 1,
+                person.firstName(),
+                person.lastName(),
+                person.zipCode(),
+                person.city(),
+                person.favoriteColor()),
+            loaded.get(i),
+            file);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should share pooled strings, keep nulls and stream in batches")
+  void shouldSharePooledStringsAndStreamInBatches() throws Exception {
+    Path seed = tempDir.resolve("persons.seed");
+    SeedFileWriter writer = new SeedFileWriter();
+    for (int i = 1; i <= 2_500; i++) {
+      writer.add(new PersonDto(i, "Hans", "Müller" + i % 10, "67742", i == 7 ? null : "Köln", 2));
+    }
+    writer.writeTo(seed);
+
+    List<Integer> sizes = new ArrayList<>();
+    List<PersonDto> persons = new ArrayList<>();
+    new SeedFileInitialDataProvider(new FileSystemResource(seed))
+        .forEachBatch(
+            1_000,
+            batch -> {
+              sizes.add(batch.size());
+              persons.addAll(batch);
+            });
+
+    assertEquals(List.of(1_000, 1_000, 500), sizes);
+    assertEquals(new PersonDto(3, "Hans", "Müller3", "67742", "Köln", 2), persons.get(2));
+    assertNull(persons.get(6).city());
+    assertSame(persons.get(0).city(), persons.get(2_499).city());
+    assertSame(persons.get(0).firstName(), persons.get(1).firstName());
+  }
+
+  @Test
+  @DisplayName("Should read seed files that cannot be mapped")
+  void shouldReadUnmappableResources() throws Exception {
+    Path seed = tempDir.resolve("persons.seed");
+    new SeedFileWriter().add(new PersonDto(1, "John", "Doe", "12345", "City", 1)).writeTo(seed);
+
+    List<PersonDto> persons =
+        new SeedFileInitialDataProvider(new ByteArrayResource(Files.readAllBytes(seed)))
+            .loadData();
+
+    assertEquals(List.of(new PersonDto(1, "John", "Doe", "12345", "City", 1)), persons);
+  }
+
+  @Test
+  @DisplayName("Should reject corrupt and foreign files")
+  void shouldRejectCorruptFiles() throws Exception {
+    Path seed = tempDir.resolve("persons.seed");
+    new SeedFileWriter().add(new PersonDto(1, "John", "Doe", "12345", "City", 1)).writeTo(seed);
+    byte[] bytes = Files.readAllBytes(seed);
+    bytes[bytes.length - 10] ^= 1;
+    Files.write(seed, bytes);
+    Path csv = tempDir.resolve("persons.csv");
+    Files.writeString(csv, "Doe, John, 12345 City, 1\n");
+
+    assertThrows(
+        DataLoadException.class,
+        () -> new SeedFileInitialDataProvider(new FileSystemResource(seed)).loadData());
+    assertThrows(
+        DataLoadException.class,
+        () -> new SeedFileInitialDataProvider(new FileSystemResource(csv)).loadData());
+  }
+
+  @Test
+  @DisplayName("Should be unavailable without a file")
+  void shouldBeUnavailableWithoutFile() throws DataLoadException {
+    SeedFileInitialDataProvider provider =
+        new SeedFileInitialDataProvider(new FileSystemResource(tempDir.resolve("missing.seed")));
+
+    assertFalse(provider.isAvailable());
+    assertTrue(provider.loadData().isEmpty());
+  }
+}